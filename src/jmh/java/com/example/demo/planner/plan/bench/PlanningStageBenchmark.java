@@ -0,0 +1,147 @@
+package com.example.demo.planner.plan.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.demo.planner.plan.dto.Cluster;
+import com.example.demo.planner.plan.dto.ClusterBundle;
+import com.example.demo.planner.plan.dto.TravelPlaceCandidate;
+import com.example.demo.planner.plan.dto.response.DayPlanResult;
+import com.example.demo.planner.plan.service.create.CategoryFillService;
+import com.example.demo.planner.plan.service.create.ClusterInternalSortService;
+import com.example.demo.planner.plan.service.create.ClusterSortService;
+import com.example.demo.planner.plan.service.create.DaySplitService;
+import com.example.demo.planner.plan.service.create.KMeansClusterService;
+import com.example.demo.planner.plan.service.create.RegionService;
+import com.example.demo.planner.plan.strategy.StandardTravelStrategy;
+import com.example.demo.planner.plan.strategy.TravelPlanStrategy;
+
+/**
+ * 일정 생성 파이프라인 중 LLM/DB를 쓰지 않는 단계 벤치마크
+ * - 단계별 + 오프라인 전체(지역 필터 → 병합 → 클러스터링 → Day 분할)
+ * - 입력은 SeoulPlaceGenerator로 만든 고정 seed 데이터
+ *
+ * 실행: ./gradlew jmh   (할당량은 -prof gc 결과의 gc.alloc.rate.norm 확인)
+ * 특정 벤치만: ./gradlew jmh -Pjmh.includes=PlanningStageBenchmark.cluster
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PlanningStageBenchmark {
+
+    @Param({ "100", "300", "1000" })
+    public int candidates;
+
+    @Param({ "balanced", "food-heavy" })
+    public String mix;
+
+    @Param({ "1", "3", "5" })
+    public int duration;
+
+    @Param({ "강남" })
+    public String region;
+
+    private final RegionService regionService = new RegionService();
+    // merge()는 LLM/벡터 검색 의존성을 쓰지 않음
+    private final CategoryFillService categoryFillService = new CategoryFillService(null, null, null);
+    private final KMeansClusterService kMeansClusterService = new KMeansClusterService(8, 50, 42L);
+    private final DaySplitService daySplitService = new DaySplitService();
+    private final ClusterSortService clusterSortService = new ClusterSortService();
+    private final ClusterInternalSortService clusterInternalSortService = new ClusterInternalSortService();
+    private final TravelPlanStrategy strategy = new StandardTravelStrategy();
+
+    private List<TravelPlaceCandidate> input;
+    private Map<String, List<TravelPlaceCandidate>> categoryMap;
+    private List<TravelPlaceCandidate> merged;
+    private ClusterBundle clusters;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        input = new SeoulPlaceGenerator(42L).candidates(candidates, SeoulPlaceGenerator.mix(mix));
+        categoryMap = SeoulPlaceGenerator.byCategory(input);
+        merged = categoryFillService.merge(categoryMap);
+        clusters = kMeansClusterService.cluster(merged, duration);
+    }
+
+    @Benchmark
+    public List<TravelPlaceCandidate> regionFilter() {
+        return regionService.applyRegionPreference(new ArrayList<>(input), region, duration);
+    }
+
+    @Benchmark
+    public List<TravelPlaceCandidate> categoryMerge() {
+        return categoryFillService.merge(categoryMap);
+    }
+
+    @Benchmark
+    public ClusterBundle cluster() {
+        return kMeansClusterService.cluster(merged, duration);
+    }
+
+    @Benchmark
+    public List<DayPlanResult> daySplit() {
+        return daySplitService.split(clusters, duration, strategy, merged);
+    }
+
+    @Benchmark
+    public List<Cluster> clusterSort() {
+        return clusterSortService.sortClusters(clusters.getClusters());
+    }
+
+    /**
+     * sortInternal은 cluster.places를 정렬 결과로 바꿈
+     * → 매 호출 전에 정렬 전 클러스터를 복사해 두어야 두 번째 호출부터 정렬된 입력을 재는 일이 없음
+     */
+    @State(Scope.Thread)
+    public static class UnsortedClusters {
+        ClusterBundle bundle;
+
+        @Setup(Level.Invocation)
+        public void copy(PlanningStageBenchmark state) {
+            bundle = new ClusterBundle();
+            for (Cluster c : state.clusters.getClusters()) {
+                Cluster copy = new Cluster();
+                copy.setId(c.getId());
+                copy.setCenterLat(c.getCenterLat());
+                copy.setCenterLng(c.getCenterLng());
+                copy.setPlaces(new ArrayList<>(c.getPlaces()));
+                bundle.addCluster(copy);
+            }
+        }
+    }
+
+    @Benchmark
+    public ClusterBundle clusterInternalSort(UnsortedClusters unsorted) {
+        for (Cluster c : unsorted.bundle.getClusters()) {
+            clusterInternalSortService.sortInternal(c);
+        }
+        return unsorted.bundle;
+    }
+
+    @Benchmark
+    public List<DayPlanResult> offlinePipeline() {
+        List<TravelPlaceCandidate> filtered = regionService.applyRegionPreference(
+                new ArrayList<>(input), region, duration);
+        List<TravelPlaceCandidate> all = categoryFillService.merge(SeoulPlaceGenerator.byCategory(filtered));
+        ClusterBundle bundle = kMeansClusterService.cluster(all, duration);
+        return daySplitService.split(bundle, duration, strategy, all);
+    }
+}
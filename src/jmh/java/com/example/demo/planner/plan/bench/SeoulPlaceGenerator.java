@@ -0,0 +1,110 @@
+package com.example.demo.planner.plan.bench;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import com.example.demo.common.chat.intent.dto.SeoulRegion;
+import com.example.demo.planner.plan.dto.TravelPlaceCandidate;
+import com.example.demo.planner.plan.dto.entity.TravelPlaces;
+import com.example.demo.planner.plan.utils.CategoryNames;
+
+/**
+ * 벤치마크용 가상 서울 장소 생성기
+ * - 자치구 중심(SeoulRegion) 주변에 정규분포로 흩뿌림 (표준편차 약 1.5km)
+ * - 카테고리 비율은 mix 문자열로 지정 (예: "FOOD:4,SPOT:4,CAFE:1,SHOPPING:1")
+ * - seed가 같으면 항상 같은 데이터
+ */
+public final class SeoulPlaceGenerator {
+
+    public static final String BALANCED = "FOOD:35,SPOT:35,CAFE:15,SHOPPING:8,EVENT:4,ETC:3";
+    public static final String FOOD_HEAVY = "FOOD:60,SPOT:20,CAFE:15,SHOPPING:5";
+    public static final String SPOT_SCARCE = "FOOD:45,SPOT:5,CAFE:30,SHOPPING:15,ETC:5";
+
+    // 위도 1도 ≈ 111km, 서울 위도에서 경도 1도 ≈ 88km
+    private static final double SIGMA_LAT = 1.5 / 111.0;
+    private static final double SIGMA_LNG = 1.5 / 88.0;
+
+    private final Random random;
+
+    public SeoulPlaceGenerator(long seed) {
+        this.random = new Random(seed);
+    }
+
+    public static String mix(String name) {
+        return switch (name) {
+            case "balanced" -> BALANCED;
+            case "food-heavy" -> FOOD_HEAVY;
+            case "spot-scarce" -> SPOT_SCARCE;
+            default -> name;
+        };
+    }
+
+    /** 후보 count개 생성 (score는 0.5~0.9, 벡터 검색 결과와 비슷한 범위) */
+    public List<TravelPlaceCandidate> candidates(int count, String mix) {
+        Map<String, Integer> weights = parseMix(mix);
+        int total = weights.values().stream().mapToInt(Integer::intValue).sum();
+        SeoulRegion[] regions = SeoulRegion.values();
+
+        List<TravelPlaceCandidate> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            SeoulRegion region = regions[random.nextInt(regions.length)];
+            String category = pick(weights, total);
+
+            TravelPlaces place = TravelPlaces.builder()
+                    .id((long) i + 1)
+                    .contentId((long) 100_000 + i)
+                    .title(region.name() + "-" + category + "-" + i)
+                    .address("서울 " + region.keywords.get(0))
+                    .lat(region.lat + random.nextGaussian() * SIGMA_LAT)
+                    .lng(region.lng + random.nextGaussian() * SIGMA_LNG)
+                    .normalizedCategory(category)
+                    .zoneId(region.name())
+                    .build();
+
+            TravelPlaceCandidate candidate = new TravelPlaceCandidate();
+            candidate.setTravelPlaces(place);
+            candidate.setScore(0.5 + random.nextDouble() * 0.4);
+            result.add(candidate);
+        }
+        return result;
+    }
+
+    /** CategoryFillService.fill 결과와 같은 모양 (CategoryNames.ALL 전부 키로 존재) */
+    public static Map<String, List<TravelPlaceCandidate>> byCategory(List<TravelPlaceCandidate> candidates) {
+        Map<String, List<TravelPlaceCandidate>> map = new LinkedHashMap<>();
+        for (String cat : CategoryNames.ALL) {
+            map.put(cat, new ArrayList<>());
+        }
+        for (TravelPlaceCandidate c : candidates) {
+            map.get(c.getNormalizedCategory()).add(c);
+        }
+        return map;
+    }
+
+    private String pick(Map<String, Integer> weights, int total) {
+        int r = random.nextInt(total);
+        for (Map.Entry<String, Integer> e : weights.entrySet()) {
+            r -= e.getValue();
+            if (r < 0) {
+                return e.getKey();
+            }
+        }
+        return CategoryNames.ETC;
+    }
+
+    private static Map<String, Integer> parseMix(String mix) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String part : mix.split(",")) {
+            String[] kv = part.trim().split(":");
+            String category = kv[0].trim().toUpperCase();
+            if (!CategoryNames.ALL.contains(category)) {
+                throw new IllegalArgumentException("알 수 없는 카테고리: " + category);
+            }
+            weights.put(category, Integer.parseInt(kv[1].trim()));
+        }
+        return weights;
+    }
+}
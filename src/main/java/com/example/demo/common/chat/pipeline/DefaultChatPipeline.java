@@ -2,8 +2,10 @@ package com.example.demo.common.chat.pipeline;
 
 import java.util.List;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import com.example.demo.common.chat.intent.IntentType;
 import com.example.demo.common.chat.intent.agent.IntentAnalysisAgent;
 import com.example.demo.common.chat.intent.agent.ResponseAgent;
 import com.example.demo.common.chat.intent.dto.IntentCommand;
@@ -11,6 +13,8 @@ import com.example.demo.common.chat.intent.dto.request.IntentRequest;
 import com.example.demo.common.chat.intent.dto.response.IntentResponse;
 import com.example.demo.common.chat.intent.service.IntentProcessor;
 import com.example.demo.planner.plan.agent.test.TravelPlanAgent;
+import com.example.demo.planner.plan.dto.response.PlanJobResponse;
+import com.example.demo.planner.plan.service.create.PlanJobService;
 import com.example.demo.planner.plan.service.create.TravelPlannerService;
 
 import lombok.RequiredArgsConstructor;
@@ -25,6 +29,11 @@ public class DefaultChatPipeline implements ChatPipeline {
     private final IntentProcessor intentProcessor;
     private final AiAgentRouter agentRouter;
     private final ResponseAgent responseAgent;
+    private final PlanJobService planJobService;
+
+    // true면 travel_plan 인텐트는 작업 등록 후 jobId만 바로 반환
+    @Value("${planner.job.async-enabled:false}")
+    private boolean asyncPlanJob;
 
     @Override
     public PipelineResult execute(IntentRequest request, Long userId) {
@@ -51,6 +60,20 @@ public class DefaultChatPipeline implements ChatPipeline {
                 ? commands.subList(1, commands.size())
                 : List.of();
 
+        // 5-1) 일정 생성은 비동기 작업으로 등록 (결과는 /api/plan-jobs 조회 또는 SSE)
+        if (asyncPlanJob && main.getIntent() == IntentType.TRAVEL_PLAN) {
+            log.info("▶ 5. 일정 생성 작업 등록 (비동기)");
+            PlanJobResponse job = planJobService.submit(main, userId);
+            return PipelineResult.builder()
+                    .mainResponse(AiAgentResponse.builder()
+                            .message("일정을 만들고 있어요. 완성되면 알려드릴게요.")
+                            .targetUrl(main.getRequiredUrl())
+                            .data(job)
+                            .build())
+                    .additionalIntents(additional)
+                    .build();
+        }
+
         // 5) 메인 Intent 실행
         log.info("▶ 5. 가장 우선되는 Main Intent 기능 실행");
         AiAgentResponse mainIntentResponse = agentRouter.route(main, userId);
@@ -0,0 +1,268 @@
+package com.example.demo.common.embedding;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.document.MetadataMode;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingOptions;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+
+import com.example.demo.common.embedding.dto.EmbeddingCacheStats;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * EmbeddingModel 캐시 데코레이터
+ * - 키: 정규화된 텍스트 + 모델 + 차원
+ * - 최대 개수 초과 시 가장 오래 사용되지 않은 항목부터 제거 (LRU)
+ * - 같은 텍스트에 대한 동시 요청은 하나의 API 호출로 합침 (hit과 따로 merged로 셈)
+ * - 캐시 벡터는 호출자와 공유하지 않음: 저장할 때와 돌려줄 때 모두 복사
+ * - embed(Document)도 텍스트로 바꿔 같은 캐시를 거침
+ * - persistPath가 있으면 종료 시 파일로 저장하고 시작 시 다시 읽음
+ */
+@Slf4j
+public class CachingEmbeddingModel implements EmbeddingModel {
+
+    private static final int FILE_VERSION = 1;
+    // DataOutputStream.writeUTF 한도(64KB) 안쪽의 키만 파일에 저장
+    private static final int MAX_PERSIST_KEY_LENGTH = 16_000;
+
+    private final EmbeddingModel delegate;
+    private final String defaultModel;
+    private final int maxEntries;
+    private final Path persistPath;
+
+    private final Map<String, float[]> cache;
+    private final Map<String, CompletableFuture<float[]>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong merged = new AtomicLong();
+
+    public CachingEmbeddingModel(EmbeddingModel delegate, String defaultModel, int maxEntries, Path persistPath) {
+        this.delegate = delegate;
+        this.defaultModel = defaultModel;
+        this.maxEntries = maxEntries;
+        this.persistPath = persistPath;
+        this.cache = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, float[]> eldest) {
+                return size() > CachingEmbeddingModel.this.maxEntries;
+            }
+        };
+    }
+
+    @Override
+    public EmbeddingResponse call(EmbeddingRequest request) {
+        List<String> texts = request.getInstructions();
+        String keyPrefix = keyPrefix(request.getOptions());
+
+        float[][] outputs = new float[texts.size()][];
+        List<String> ownedKeys = new ArrayList<>();
+        List<String> ownedTexts = new ArrayList<>();
+        Map<Integer, CompletableFuture<float[]>> waiting = new LinkedHashMap<>();
+
+        for (int i = 0; i < texts.size(); i++) {
+            String key = keyPrefix + normalize(texts.get(i));
+
+            float[] cached = get(key);
+            if (cached != null) {
+                hits.incrementAndGet();
+                outputs[i] = cached.clone();
+                continue;
+            }
+
+            CompletableFuture<float[]> mine = new CompletableFuture<>();
+            CompletableFuture<float[]> existing = inFlight.putIfAbsent(key, mine);
+            if (existing != null) {
+                // 다른 요청(또는 같은 요청 안의 중복 텍스트)이 이미 호출 중
+                merged.incrementAndGet();
+                waiting.put(i, existing);
+                continue;
+            }
+
+            misses.incrementAndGet();
+            ownedKeys.add(key);
+            ownedTexts.add(texts.get(i));
+            waiting.put(i, mine);
+        }
+
+        if (!ownedTexts.isEmpty()) {
+            fetch(ownedKeys, ownedTexts, request.getOptions());
+        }
+
+        for (Map.Entry<Integer, CompletableFuture<float[]>> e : waiting.entrySet()) {
+            try {
+                // 같은 future를 기다린 요청끼리도 배열을 공유하지 않도록 복사
+                outputs[e.getKey()] = e.getValue().join().clone();
+            } catch (CompletionException ex) {
+                throw ex.getCause() instanceof RuntimeException re ? re : ex;
+            }
+        }
+
+        List<Embedding> embeddings = new ArrayList<>(outputs.length);
+        for (int i = 0; i < outputs.length; i++) {
+            embeddings.add(new Embedding(outputs[i], i));
+        }
+        return new EmbeddingResponse(embeddings);
+    }
+
+    // OpenAiEmbeddingModel 기본값과 같은 MetadataMode.EMBED로 텍스트를 만들어 캐시 경로로 보냄
+    @Override
+    public float[] embed(Document document) {
+        return embed(document.getFormattedContent(MetadataMode.EMBED));
+    }
+
+    @Override
+    public int dimensions() {
+        return delegate.dimensions();
+    }
+
+    public EmbeddingCacheStats stats() {
+        return new EmbeddingCacheStats(hits.get(), misses.get(), merged.get(), size(), maxEntries);
+    }
+
+    // ==================== 캐시 내부 ====================
+
+    private void fetch(List<String> keys, List<String> texts, EmbeddingOptions options) {
+        try {
+            List<Embedding> results = delegate.call(new EmbeddingRequest(texts, options)).getResults();
+            if (results.size() != texts.size()) {
+                throw new IllegalStateException(
+                        "임베딩 결과 개수 불일치: 요청 " + texts.size() + "개, 응답 " + results.size() + "개");
+            }
+
+            for (int i = 0; i < keys.size(); i++) {
+                float[] vector = results.get(i).getOutput().clone();
+                put(keys.get(i), vector);
+                inFlight.remove(keys.get(i)).complete(vector);
+            }
+        } catch (RuntimeException e) {
+            for (String key : keys) {
+                CompletableFuture<float[]> f = inFlight.remove(key);
+                if (f != null) {
+                    f.completeExceptionally(e);
+                }
+            }
+            throw e;
+        }
+    }
+
+    private String keyPrefix(EmbeddingOptions options) {
+        String model = options != null && options.getModel() != null ? options.getModel() : defaultModel;
+        Integer dimensions = options != null ? options.getDimensions() : null;
+        return model + "|" + (dimensions != null ? dimensions : "default") + "|";
+    }
+
+    // 공백/유니코드 정규화 → 같은 문장이면 같은 키
+    static String normalize(String text) {
+        String nfc = Normalizer.normalize(text, Normalizer.Form.NFC);
+        return nfc.strip().replaceAll("\\s+", " ");
+    }
+
+    private float[] get(String key) {
+        synchronized (cache) {
+            return cache.get(key);
+        }
+    }
+
+    private void put(String key, float[] vector) {
+        synchronized (cache) {
+            cache.put(key, vector);
+        }
+    }
+
+    private int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    // ==================== 파일 저장/로드 ====================
+
+    public void load() {
+        if (persistPath == null || !Files.exists(persistPath)) {
+            return;
+        }
+
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(persistPath)))) {
+
+            if (in.readInt() != FILE_VERSION) {
+                log.warn("임베딩 캐시 파일 버전 불일치 → 무시: {}", persistPath);
+                return;
+            }
+
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String key = in.readUTF();
+                float[] vector = new float[in.readInt()];
+                for (int d = 0; d < vector.length; d++) {
+                    vector[d] = in.readFloat();
+                }
+                put(key, vector);
+            }
+            log.info("임베딩 캐시 로드 완료 - {}개 ({})", count, persistPath);
+
+        } catch (IOException e) {
+            log.warn("임베딩 캐시 로드 실패: {}", persistPath, e);
+        }
+    }
+
+    public void save() {
+        if (persistPath == null) {
+            return;
+        }
+
+        Map<String, float[]> snapshot;
+        synchronized (cache) {
+            snapshot = new LinkedHashMap<>(cache);
+        }
+
+        try {
+            Path parent = persistPath.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+
+            Path tmp = persistPath.resolveSibling(persistPath.getFileName() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeInt(FILE_VERSION);
+                snapshot.keySet().removeIf(k -> k.length() > MAX_PERSIST_KEY_LENGTH);
+                out.writeInt(snapshot.size());
+                for (Map.Entry<String, float[]> e : snapshot.entrySet()) {
+                    out.writeUTF(e.getKey());
+                    out.writeInt(e.getValue().length);
+                    for (float v : e.getValue()) {
+                        out.writeFloat(v);
+                    }
+                }
+            }
+            Files.move(tmp, persistPath, StandardCopyOption.REPLACE_EXISTING);
+            log.info("임베딩 캐시 저장 완료 - {}개 ({})", snapshot.size(), persistPath);
+
+        } catch (IOException e) {
+            log.warn("임베딩 캐시 저장 실패: {}", persistPath, e);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.demo.common.embedding.config;
+
+import java.nio.file.Path;
+
+import org.springframework.ai.openai.OpenAiEmbeddingModel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import com.example.demo.common.embedding.CachingEmbeddingModel;
+
+/**
+ * 모든 EmbeddingModel 주입 지점이 캐시를 거치도록 @Primary로 등록합니다.
+ */
+@Configuration
+public class EmbeddingCacheConfig {
+
+    @Value("${spring.ai.openai.embedding.options.model}")
+    private String model;
+
+    @Value("${embedding.cache.max-entries:2000}")
+    private int maxEntries;
+
+    // 비어 있으면 파일 저장 안 함
+    @Value("${embedding.cache.file:}")
+    private String cacheFile;
+
+    @Bean(initMethod = "load", destroyMethod = "save")
+    @Primary
+    public CachingEmbeddingModel cachingEmbeddingModel(OpenAiEmbeddingModel openAiEmbeddingModel) {
+        Path persistPath = cacheFile.isBlank() ? null : Path.of(cacheFile);
+        return new CachingEmbeddingModel(openAiEmbeddingModel, model, maxEntries, persistPath);
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.demo.common.embedding.controller;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.demo.common.embedding.CachingEmbeddingModel;
+import com.example.demo.common.embedding.dto.EmbeddingCacheStats;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/embedding-cache")
+@RequiredArgsConstructor
+public class EmbeddingCacheController {
+
+    private final CachingEmbeddingModel cachingEmbeddingModel;
+
+    @GetMapping("/stats")
+    public EmbeddingCacheStats stats() {
+        return cachingEmbeddingModel.stats();
+    }
+}
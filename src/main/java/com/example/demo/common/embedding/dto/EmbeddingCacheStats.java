@@ -0,0 +1,22 @@
+package com.example.demo.common.embedding.dto;
+
+/**
+ * 임베딩 캐시 통계
+ * - hits: 캐시에 이미 있던 횟수
+ * - merged: 진행 중인 동일 요청에 합쳐진 횟수 (캐시 hit은 아니지만 API 호출 없음)
+ * - misses: API로 보낸 텍스트 수
+ */
+public record EmbeddingCacheStats(long hits, long misses, long merged, int size, int maxEntries) {
+
+    /** 캐시 hit 비율 (merged 제외) */
+    public double hitRate() {
+        long total = hits + misses + merged;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    /** API 호출을 아낀 비율 (hit + merged) */
+    public double savedRate() {
+        long total = hits + misses + merged;
+        return total == 0 ? 0.0 : (double) (hits + merged) / total;
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.demo.common.global.exception.errorcode;
+
+import org.springframework.http.HttpStatus;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum VectorIndexErrorCode implements BaseErrorCode {
+
+    // 400 Bad Request
+    QUANTIZED_DISABLED(HttpStatus.BAD_REQUEST,
+            "quantized 모드가 꺼져 있어 recall을 측정할 수 없습니다. (planner.vector-index.enabled, planner.vector-index.quantized.enabled)"),
+
+    // 503 Service Unavailable
+    INDEX_NOT_READY(HttpStatus.SERVICE_UNAVAILABLE, "벡터 인덱스가 아직 적재되지 않았습니다. 잠시 후 다시 시도하세요.");
+
+    private final HttpStatus status;
+    private final String message;
+}
@@ -1,5 +1,6 @@
 package com.example.demo.common.sse.service;
 
+import java.io.IOException;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -34,12 +35,40 @@ public class SseService {
   public void sendToClient(String userId, String eventName, Object data) {
     SseEmitter sseEmitter = sseEmitterMap.get(userId);
     try {
-      sseEmitter.send(
-        SseEmitter.event().id(userId).name(eventName).data(data)
-      );
+      send(sseEmitter, SseEmitter.event().id(userId).name(eventName).data(data));
     } catch (Exception e) {
       throw new RuntimeException(e);
     }
   }
 
+  /**
+   * 구독 중일 때만 전송 (진행 알림처럼 유실돼도 되는 이벤트용)
+   * - 구독이 없거나 전송에 실패하면 false, 예외는 던지지 않음
+   */
+  public boolean sendIfSubscribed(String userId, String eventName, Object data) {
+    SseEmitter sseEmitter = sseEmitterMap.get(userId);
+    if (sseEmitter == null) {
+      return false;
+    }
+    try {
+      send(sseEmitter, SseEmitter.event().id(userId).name(eventName).data(data));
+      return true;
+    } catch (Exception e) {
+      // 끊긴 연결 정리
+      sseEmitterMap.remove(userId, sseEmitter);
+      log.debug("SSE 전송 실패 userId={} event={}", userId, eventName, e);
+      return false;
+    }
+  }
+
+  /**
+   * 같은 emitter로의 전송은 한 번에 하나씩
+   * - 일정 생성 중 날짜별 이벤트가 여러 작업 스레드에서 동시에 나가므로 이벤트 조각이 섞이지 않도록 직렬화
+   */
+  private void send(SseEmitter sseEmitter, SseEmitter.SseEventBuilder event) throws IOException {
+    synchronized (sseEmitter) {
+      sseEmitter.send(event);
+    }
+  }
+
 }
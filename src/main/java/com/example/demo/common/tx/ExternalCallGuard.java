@@ -0,0 +1,173 @@
+package com.example.demo.common.tx;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 트랜잭션 안 외부 호출 감지 (tx.guard.mode)
+ * - 대상: ChatModel(ChatClient 포함) / EmbeddingModel / AmazonS3 빈, WebClient 요청
+ * - 트랜잭션(= DB 커넥션)을 잡은 스레드에서 호출되면
+ *   WARN: 경고 로그 + 호출은 그대로 진행, FAIL: 호출 전에 IllegalStateException (테스트용), OFF: 검사 안 함
+ * - 외부 호출이 있었던 트랜잭션은 끝날 때 전체 커넥션 점유 시간과 그중 외부 호출 시간을 기록
+ *
+ * 메트릭
+ * - tx.external.call (counter): 트랜잭션 안 외부 호출 수, tag target/tx
+ * - tx.external.held (timer): 외부 호출이 포함된 트랜잭션의 커넥션 점유 시간, tag tx
+ *
+ * 트랜잭션 시작/종료는 TransactionExecutionListener로 받음 (Boot가 트랜잭션 매니저에 자동 등록)
+ * 새 트랜잭션만 기록하고, 참여(REQUIRED 안의 REQUIRED)는 바깥 트랜잭션에 합쳐짐
+ */
+@Component
+@Slf4j
+public class ExternalCallGuard implements TransactionExecutionListener {
+
+    public enum Mode {
+        OFF, WARN, FAIL
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final Mode mode;
+
+    // REQUIRES_NEW로 겹친 트랜잭션을 위해 스택
+    private final ThreadLocal<Deque<Held>> held = ThreadLocal.withInitial(ArrayDeque::new);
+    // 외부 호출 안에서 다시 외부 호출 (CachingEmbeddingModel → OpenAiEmbeddingModel 등)은 한 번만 셈
+    private final ThreadLocal<Boolean> inCall = new ThreadLocal<>();
+
+    private static class Held {
+        final String name;
+        final long startNanos = System.nanoTime();
+        int calls;
+        long callNanos;
+        String firstCall;
+
+        Held(String name) {
+            this.name = name;
+        }
+    }
+
+    public ExternalCallGuard(
+            MeterRegistry meterRegistry,
+            @Value("${tx.guard.mode:WARN}") Mode mode) {
+        this.meterRegistry = meterRegistry;
+        this.mode = mode;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    // --------------------------------------------------------
+    // 트랜잭션 시작/종료
+    // --------------------------------------------------------
+    @Override
+    public void afterBegin(TransactionExecution transaction, Throwable beginFailure) {
+        if (mode != Mode.OFF && beginFailure == null && transaction.isNewTransaction()) {
+            held.get().push(new Held(transaction.getTransactionName()));
+        }
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+        complete(transaction);
+    }
+
+    @Override
+    public void afterRollback(TransactionExecution transaction, Throwable rollbackFailure) {
+        complete(transaction);
+    }
+
+    private void complete(TransactionExecution transaction) {
+        if (mode == Mode.OFF || !transaction.isNewTransaction()) {
+            return;
+        }
+        Deque<Held> stack = held.get();
+        Held h = stack.poll();
+        if (stack.isEmpty()) {
+            held.remove();
+        }
+        if (h == null || h.calls == 0) {
+            return;
+        }
+        long heldNanos = System.nanoTime() - h.startNanos;
+        Timer.builder("tx.external.held")
+                .tag("tx", txTag(h.name))
+                .register(meterRegistry)
+                .record(heldNanos, TimeUnit.NANOSECONDS);
+        log.warn("[TX-GUARD] {} - 커넥션 점유 {}ms 중 외부 호출 {}회 {}ms (첫 호출 {})",
+                h.name, TimeUnit.NANOSECONDS.toMillis(heldNanos), h.calls,
+                TimeUnit.NANOSECONDS.toMillis(h.callNanos), h.firstCall);
+    }
+
+    // --------------------------------------------------------
+    // 외부 호출
+    // --------------------------------------------------------
+
+    /** 프록시된 빈 메서드 호출 (호출 시간까지 기록) */
+    public Object invoke(String target, MethodInvocation invocation) throws Throwable {
+        Held h = enter(target, invocation.getMethod().getName());
+        if (h == null) {
+            return invocation.proceed();
+        }
+        long start = System.nanoTime();
+        inCall.set(Boolean.TRUE);
+        try {
+            return invocation.proceed();
+        } finally {
+            inCall.remove();
+            h.callNanos += System.nanoTime() - start;
+        }
+    }
+
+    /** 비동기 호출 (WebClient 등) - 요청 시점에 검사만 */
+    public void check(String target, String operation) {
+        enter(target, operation);
+    }
+
+    // 트랜잭션 밖이면 null
+    private Held enter(String target, String operation) {
+        if (mode == Mode.OFF || inCall.get() != null
+                || !TransactionSynchronizationManager.isActualTransactionActive()) {
+            return null;
+        }
+        Held h = held.get().peek();
+        if (h == null) {
+            // 리스너가 없는 트랜잭션 매니저 - 점유 시간은 모르지만 호출은 기록
+            h = new Held(TransactionSynchronizationManager.getCurrentTransactionName());
+        }
+        String call = target + "." + operation;
+        long heldMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - h.startNanos);
+
+        Counter.builder("tx.external.call")
+                .tag("target", target)
+                .tag("tx", txTag(h.name))
+                .register(meterRegistry)
+                .increment();
+
+        if (mode == Mode.FAIL) {
+            throw new IllegalStateException(
+                    "트랜잭션 안에서 외부 호출: " + call + " (" + h.name + ", 커넥션 점유 " + heldMs + "ms)");
+        }
+        log.warn("[TX-GUARD] 트랜잭션 안 외부 호출 {} - {} (커넥션 점유 {}ms)", call, h.name, heldMs);
+        if (h.calls++ == 0) {
+            h.firstCall = call;
+        }
+        return h;
+    }
+
+    private static String txTag(String name) {
+        return name == null ? "unknown" : name;
+    }
+}
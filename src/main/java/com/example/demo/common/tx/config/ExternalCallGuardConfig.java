@@ -0,0 +1,67 @@
+package com.example.demo.common.tx.config;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.web.reactive.function.client.WebClientCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.ReflectionUtils;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.example.demo.common.tx.ExternalCallGuard;
+
+/**
+ * 외부 호출 빈에 ExternalCallGuard 연결
+ * - ChatModel / EmbeddingModel: 구체 타입 주입(OpenAiEmbeddingModel, CachingEmbeddingModel)이 있어 클래스 프록시
+ * - AmazonS3: 인터페이스로만 주입되므로 인터페이스 프록시
+ * - WebClient: WebClient.Builder를 주입받아 만든 클라이언트에 필터 추가
+ */
+@Configuration
+public class ExternalCallGuardConfig {
+
+    // BeanPostProcessor는 다른 빈보다 먼저 만들어지므로 static + guard는 호출 시점에 조회
+    @Bean
+    public static BeanPostProcessor externalCallGuardPostProcessor(ObjectProvider<ExternalCallGuard> guard) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof ChatModel) {
+                    return proxy(bean, "chat", true, guard);
+                }
+                if (bean instanceof EmbeddingModel) {
+                    return proxy(bean, "embedding", true, guard);
+                }
+                if (bean instanceof AmazonS3) {
+                    return proxy(bean, "s3", false, guard);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public WebClientCustomizer externalCallGuardWebClientCustomizer(ExternalCallGuard guard) {
+        return builder -> builder.filter((request, next) -> {
+            guard.check("webclient", request.method() + " " + request.url().getHost());
+            return next.exchange(request);
+        });
+    }
+
+    private static Object proxy(Object bean, String target, boolean proxyTargetClass,
+            ObjectProvider<ExternalCallGuard> guard) {
+        ProxyFactory factory = new ProxyFactory(bean);
+        factory.setProxyTargetClass(proxyTargetClass);
+        factory.addAdvice((MethodInterceptor) invocation -> {
+            ExternalCallGuard g = guard.getIfAvailable();
+            if (g == null || ReflectionUtils.isObjectMethod(invocation.getMethod())) {
+                return invocation.proceed();
+            }
+            return g.invoke(target, invocation);
+        });
+        return factory.getProxy(bean.getClass().getClassLoader());
+    }
+}
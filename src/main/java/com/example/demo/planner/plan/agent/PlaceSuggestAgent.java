@@ -3,7 +3,9 @@ package com.example.demo.planner.plan.agent;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.regex.Matcher;
@@ -21,9 +23,12 @@ import org.springframework.stereotype.Component;
 import com.example.demo.common.chat.intent.dto.IntentCommand;
 import com.example.demo.common.chat.pipeline.AiAgentResponse;
 import com.example.demo.common.global.agent.AiAgent;
-import com.example.demo.planner.plan.dao.PlanSnapshotDao;
+import com.example.demo.planner.plan.dto.TravelPlaceCandidate;
 import com.example.demo.planner.plan.dto.entity.PlanSnapshot;
+import com.example.demo.planner.plan.dto.entity.TravelPlaces;
 import com.example.demo.planner.plan.dto.response.PlanSnapshotContent;
+import com.example.demo.planner.plan.service.PlanSnapshotService;
+import com.example.demo.planner.plan.service.search.PlaceVectorSearchService;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -41,7 +46,10 @@ public class PlaceSuggestAgent implements AiAgent {
   private JdbcTemplate jdbcTemplate;
 
   @Autowired
-  private PlanSnapshotDao planSnapshotDao;
+  private PlanSnapshotService planSnapshotService;
+
+  @Autowired
+  private PlaceVectorSearchService placeVectorSearchService;
 
   public PlaceSuggestAgent(ChatClient.Builder chatClientBuilder) {
     this.chatClient = chatClientBuilder
@@ -101,7 +109,7 @@ public class PlaceSuggestAgent implements AiAgent {
       long start = System.nanoTime();
       
       try {
-        PlanSnapshot planSnapshot = planSnapshotDao.selectLatestPlanSnapshotByUserId((Long) toolContext.getContext().get("userId"));
+        PlanSnapshot planSnapshot = planSnapshotService.getLatestPlanSnapshot((Long) toolContext.getContext().get("userId"));
         
         if (planSnapshot == null) {
           log.warn("⚠️ 사용자의 여행 계획을 찾을 수 없습니다");
@@ -182,18 +190,9 @@ public class PlaceSuggestAgent implements AiAgent {
       
       try {
         float[] vector = getQueryVector(query);
-        String strVector = Arrays.toString(vector).replace(" ", "");
-        
-        String sql = """
-            SELECT id, content_id, title, address, tel, first_image2, lat, lng, 
-                   category_code, description, tags, detail_info, normalized_category, 
-                   (embedding <=> ?::vector) AS distance
-            FROM travel_places
-            ORDER BY embedding <=> ?::vector
-            LIMIT 20
-            """;
-        
-        List<Map<String, Object>> res = jdbcTemplate.queryForList(sql, strVector, strVector);
+        List<Map<String, Object>> res = placeVectorSearchService.useIndex()
+            ? toRows(placeVectorSearchService.searchByVector(vector, 20))
+            : searchByJdbc(vector);
         
         // 검색 결과 없음
         if (res.isEmpty()) {
@@ -228,6 +227,46 @@ public class PlaceSuggestAgent implements AiAgent {
       }
     }
 
+    private List<Map<String, Object>> searchByJdbc(float[] vector) {
+      String strVector = Arrays.toString(vector).replace(" ", "");
+      
+      String sql = """
+          SELECT id, content_id, title, address, tel, first_image2, lat, lng, 
+                 category_code, description, tags, detail_info, normalized_category, 
+                 (embedding <=> ?::vector) AS distance
+          FROM travel_places
+          ORDER BY embedding <=> ?::vector
+          LIMIT 20
+          """;
+      
+      return jdbcTemplate.queryForList(sql, strVector, strVector);
+    }
+
+    // 인메모리 인덱스 결과 → JDBC 조회와 같은 컬럼 구성의 행
+    private List<Map<String, Object>> toRows(List<TravelPlaceCandidate> candidates) {
+      List<Map<String, Object>> rows = new ArrayList<>();
+      for (TravelPlaceCandidate c : candidates) {
+        TravelPlaces p = c.getTravelPlaces();
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", p.getId());
+        row.put("content_id", p.getContentId());
+        row.put("title", p.getTitle());
+        row.put("address", p.getAddress());
+        row.put("tel", p.getTel());
+        row.put("first_image2", p.getFirstImage2());
+        row.put("lat", p.getLat());
+        row.put("lng", p.getLng());
+        row.put("category_code", p.getCategoryCode());
+        row.put("description", p.getDescription());
+        row.put("tags", p.getTags());
+        row.put("detail_info", p.getDetailInfo());
+        row.put("normalized_category", p.getNormalizedCategory());
+        row.put("distance", 1 - c.getScore());
+        rows.add(row);
+      }
+      return rows;
+    }
+
     private float[] getQueryVector(String query) {
       long start = System.nanoTime();
       try {
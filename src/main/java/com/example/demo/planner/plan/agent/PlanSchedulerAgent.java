@@ -3,6 +3,7 @@ package com.example.demo.planner.plan.agent;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.prompt.ChatOptions;
@@ -21,6 +22,33 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class PlanSchedulerAgent {
 
+    // 동선 최적화 결과를 넘길 때 추가하는 규칙 (규칙 2 대체)
+    private static final String KEEP_ORDER_RULE = """
+
+                ------------------------------------------------------------
+                [방문 순서 고정 — 규칙 2보다 우선]
+
+                - 각 날짜의 places 배열은 백엔드에서 실제 좌표로 최적화한 방문 순서입니다.
+                - 순서를 바꾸지 말고, order는 입력 순서대로 1부터 부여합니다.
+                - 시간(start/end)만 체류시간/이동시간/도착일·출발일 규칙에 맞게 배치합니다.
+                """;
+
+    // 한 줄 형식(ScheduleDsl)으로 받을 때 추가하는 규칙 (JSON 출력 형식 대체)
+    private static final String LINES_OUTPUT_RULE = """
+
+                ------------------------------------------------------------
+                [출력 형식 — 위 JSON 출력 형식 대신 이 형식만 사용]
+
+                - 장소 하나당 한 줄: d{dayIndex}|{id}|{시작 HH:mm}|{종료 HH:mm}
+                - 같은 날짜 안에서는 방문 순서대로 줄을 나열합니다. (order는 쓰지 않음)
+                - JSON, 코드블록, 설명 등 다른 텍스트는 출력하지 않습니다.
+
+                예)
+                d1|12|15:10|16:30
+                d1|33|16:50|18:10
+                d2|51|10:00|11:30
+                """;
+
     private ChatClient chatClient;
     private ObjectMapper objectMapper = new ObjectMapper();
 
@@ -29,8 +57,40 @@ public class PlanSchedulerAgent {
     }
 
     public String createTravelPlan(List<DayPlanResult> dayPlans, LocalDate startDate) {
-        
+        return createTravelPlan(dayPlans, startDate, false);
+    }
+
+    /**
+     * @param keepOrder true면 입력 순서(좌표 기반으로 이미 최적화된 동선)를 유지하고 시간만 배치
+     */
+    public String createTravelPlan(List<DayPlanResult> dayPlans, LocalDate startDate, boolean keepOrder) {
+        String userPrompt = buildLLMJsonInput(dayPlans, startDate.toString());
+
+        String response = chatClient.prompt().system(travelPlanSystemPrompt(keepOrder))
+                .user(userPrompt)
+                .options(ChatOptions.builder().temperature(0.2).build()).call().content();
 
+        // System.out.println(response);
+        return response;
+
+    }
+
+    /**
+     * 한 줄 형식(ScheduleDsl)으로 전체 일정 배치, 응답 조각이 올 때마다 onChunk 호출 (끝날 때까지 블로킹)
+     */
+    public void streamTravelPlanLines(
+            List<DayPlanResult> dayPlans, LocalDate startDate, boolean keepOrder, Consumer<String> onChunk) {
+        String userPrompt = buildLLMJsonInput(dayPlans, startDate.toString());
+
+        chatClient.prompt().system(travelPlanSystemPrompt(keepOrder) + LINES_OUTPUT_RULE)
+                .user(userPrompt)
+                .options(ChatOptions.builder().temperature(0.2).build())
+                .stream().content()
+                .doOnNext(onChunk)
+                .blockLast();
+    }
+
+    private String travelPlanSystemPrompt(boolean keepOrder) {
         String systemPrompt = """
                 당신은 서울 여행 일정 배치 전문 에이전트입니다.
 
@@ -176,15 +236,103 @@ public class PlanSchedulerAgent {
 
 
                         """;
-        String userPrompt = buildLLMJsonInput(dayPlans, startDate.toString());
+        if (keepOrder) {
+            systemPrompt += KEEP_ORDER_RULE;
+        }
+        return systemPrompt;
+    }
+
+    /**
+     * 하루치만 배치 (날짜별 병렬 호출용)
+     * - 입력/출력이 하루 분량이라 응답이 짧고, 도착일/출발일/당일 규칙도 해당 날짜 것만 넣음
+     * - 출력 형식은 createTravelPlan과 같음 (days 배열에 하루만)
+     */
+    public String createDayPlan(DayPlanResult dayPlan, LocalDate startDate, int totalDays, boolean keepOrder) {
+        int dayIndex = dayPlan.getDayNumber();
+        String userPrompt = buildLLMJsonInput(List.of(dayPlan), startDate.plusDays(dayIndex - 1L).toString());
 
-        String response = chatClient.prompt().system(systemPrompt)
+        return chatClient.prompt().system(dayPlanSystemPrompt(dayIndex, totalDays, keepOrder))
                 .user(userPrompt)
                 .options(ChatOptions.builder().temperature(0.2).build()).call().content();
+    }
 
-        // System.out.println(response);
-        return response;
+    /** 하루치를 한 줄 형식(ScheduleDsl)으로 배치, 응답 조각이 올 때마다 onChunk 호출 */
+    public void streamDayPlanLines(DayPlanResult dayPlan, LocalDate startDate, int totalDays, boolean keepOrder,
+            Consumer<String> onChunk) {
+        int dayIndex = dayPlan.getDayNumber();
+        String userPrompt = buildLLMJsonInput(List.of(dayPlan), startDate.plusDays(dayIndex - 1L).toString());
 
+        chatClient.prompt().system(dayPlanSystemPrompt(dayIndex, totalDays, keepOrder) + LINES_OUTPUT_RULE)
+                .user(userPrompt)
+                .options(ChatOptions.builder().temperature(0.2).build())
+                .stream().content()
+                .doOnNext(onChunk)
+                .blockLast();
+    }
+
+    private static String dayPlanSystemPrompt(int dayIndex, int totalDays, boolean keepOrder) {
+        String systemPrompt = """
+                당신은 서울 여행 일정 배치 전문 에이전트입니다.
+
+                입력은 여행 중 하루(dayIndex)에 이미 배정된 여행지 목록입니다.
+                입력된 id만 사용하여 방문 순서(order)와 시간(start/end)을 결정합니다.
+                여행지를 추가·삭제·수정하거나 name 등 다른 정보를 출력하면 안 됩니다.
+                JSON 이외의 텍스트는 절대 출력하지 않습니다.
+
+                ------------------------------------------------------------
+                [일정 구성 규칙]
+
+                1) 입력된 id를 모두 한 번씩만 사용합니다.
+                2) 장소명 기반으로 지리적 감각을 추론해 불필요한 왕복 이동을 피합니다.
+                3) category 기반 체류시간
+                  SPOT: 90~120분 / FOOD: 60~90분 / CAFE: 45~75분
+                  EVENT: 90~180분 / SHOPPING: 60~120분 / STAY: 시작 또는 종료에만 사용
+                4) 이동 시간: 가까움 10~20분 / 보통 20~35분 / 멂 35~60분
+
+
+                ------------------------------------------------------------
+                [이 날짜의 시간 규칙 — 최우선 적용]
+
+                %s
+                - 첫 일정은 %s 이후에 시작합니다.
+                - 마지막 일정은 %s 이전에 끝나야 합니다.
+
+
+                ------------------------------------------------------------
+                [출력(JSON) 형식]
+
+                {
+                  "days": [
+                    {
+                      "dayIndex": %d,
+                      "items": [
+                        { "id": 12, "start": "10:00", "end": "11:30", "order": 1 },
+                        { "id": 33, "start": "11:50", "end": "13:00", "order": 2 }
+                      ]
+                    }
+                  ]
+                }
+                """.formatted(dayRule(dayIndex, totalDays),
+                        ScheduleRules.dayStart(dayIndex, totalDays),
+                        ScheduleRules.dayEnd(dayIndex, totalDays),
+                        dayIndex);
+        if (keepOrder) {
+            systemPrompt += KEEP_ORDER_RULE;
+        }
+        return systemPrompt;
+    }
+
+    private static String dayRule(int dayIndex, int totalDays) {
+        if (totalDays <= 1) {
+            return "- 당일 여행입니다. 도착일/출발일 규칙 없이 일반적인 하루 일정으로 구성합니다.";
+        }
+        if (dayIndex == 1) {
+            return "- 도착일입니다. 호텔 체크인(15:00) 이후에만 관광 일정을 배치합니다.";
+        }
+        if (dayIndex == totalDays) {
+            return "- 출발일입니다. 체크아웃(11:00) 이후 시작하고, 17:00 이후 일정은 절대 배치하지 않습니다.";
+        }
+        return "- 여행 중간 날짜입니다. 10:00 전후로 시작하는 일반적인 하루 일정으로 구성합니다.";
     }
 
     private String buildLLMJsonInput(List<DayPlanResult> dayPlans, String startDate) {
@@ -343,7 +343,10 @@ public class PlanTools {
     @Tool(description = "사용자가 가지고 있는 계획 스냅샷의 바로 이전 버전으로 돌아갑니다.")
     public String rollBack(@ToolParam(description = "사용자 아이디") ToolContext toolContext) {
         try {
-            PlanSnapshot planSnapshot = planSnapshotService.getPlanSnapshotsByUserId((Long) toolContext.getContext().get("userId")).get(1);
+            // 목록은 메타데이터만 → 바로 이전 버전만 복원
+            Long userId = (Long) toolContext.getContext().get("userId");
+            PlanSnapshot previous = planSnapshotService.getPlanSnapshotsByUserId(userId).get(1);
+            PlanSnapshot planSnapshot = planSnapshotService.getPlanSnapshotByVersion(userId, previous.getVersionNo());
             PlanSnapshotContent snapshotContent = planSnapshotUtility.parseSnapshot(planSnapshot.getSnapshotJson());
 
             Long planId = getPlanId();
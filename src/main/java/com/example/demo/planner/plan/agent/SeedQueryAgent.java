@@ -24,10 +24,15 @@ public class SeedQueryAgent {
     //  Multi SeedQuery 생성 (여러 목적을 반영하여 검색 풍부화)
     // ====================================================================================
     public List<String> generateMultiSeedQueries(Map<String, Object> args) {
+        return generateMultiSeedQueries(args, generateSeedQuery(args));
+    }
+
+    // 기본 SeedQuery를 이미 구한 경우 (LLM 결과 또는 templateSeedQuery)
+    public List<String> generateMultiSeedQueries(Map<String, Object> args, String baseQuery) {
         List<String> queries = new ArrayList<>();
 
         // 1) 기본 SeedQuery
-        queries.add(generateSeedQuery(args));
+        queries.add(baseQuery);
 
         String location = (String) args.getOrDefault("location", "서울");
         String theme = (String) args.getOrDefault("theme", "");
@@ -67,7 +72,8 @@ public class SeedQueryAgent {
         return queries;
     }
 
-    private String generateCategoryQuery(String location, String category) {
+    // 카테고리 보강용 쿼리 (템플릿 → 요청 전 일괄 임베딩 가능)
+    public String generateCategoryQuery(String location, String category) {
 
         return switch (category) {
             case "SPOT" -> "%s에서 관광 명소나 볼거리를 추천해줘.".formatted(location);
@@ -79,7 +85,18 @@ public class SeedQueryAgent {
         };
     }
 
-    // 기존 함수 (카테고리 보강 시 사용됨)
+    // 기본 SeedQuery 템플릿 (LLM 없이, 응답 시간 제한 시 대체용)
+    public String templateSeedQuery(Map<String, Object> args) {
+        String location = (String) args.getOrDefault("location", "서울");
+        String theme = (String) args.getOrDefault("theme", "");
+
+        if (theme == null || theme.isBlank()) {
+            return "%s에서 가볼 만한 여행지를 추천해줘.".formatted(location);
+        }
+        return "%s에서 %s 여행으로 가볼 만한 곳을 추천해줘.".formatted(location, theme);
+    }
+
+    // 기본 SeedQuery 생성 (LLM)
     public String generateSeedQuery(Map<String, Object> seedQueryArgs) {
 
         String systemPrompt = """
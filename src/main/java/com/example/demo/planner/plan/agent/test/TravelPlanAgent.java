@@ -19,8 +19,6 @@ import org.springframework.ai.embedding.EmbeddingModel;
 import org.springframework.stereotype.Component;
 
 import com.example.demo.common.chat.intent.dto.IntentCommand;
-import com.example.demo.planner.plan.agent.test.date.DateParser;
-import com.example.demo.planner.plan.agent.test.date.DurationParser;
 import com.example.demo.planner.plan.dao.PlanDao;
 import com.example.demo.planner.plan.dto.TravelPlaceCandidate;
 import com.example.demo.planner.plan.dto.entity.Plan;
@@ -29,6 +27,8 @@ import com.example.demo.planner.plan.dto.entity.PlanPlace;
 import com.example.demo.planner.plan.dto.entity.TravelPlaces;
 import com.example.demo.planner.plan.dto.response.PlanResult;
 import com.example.demo.planner.plan.utils.CategoryNames;
+import com.example.demo.planner.plan.utils.DateParser;
+import com.example.demo.planner.plan.utils.DurationParser;
 import com.example.demo.planner.plan.utils.GeoUtils;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.databind.ObjectMapper;
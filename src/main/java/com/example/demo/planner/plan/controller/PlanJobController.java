@@ -0,0 +1,45 @@
+package com.example.demo.planner.plan.controller;
+
+import java.util.List;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.demo.planner.plan.dto.response.PlanJobResponse;
+import com.example.demo.planner.plan.service.create.PlanJobService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 비동기 일정 생성 작업 조회/취소
+ * - 작업 등록은 /chat (travel_plan 인텐트, planner.job.async-enabled=true)
+ * - 완료 알림은 SSE plan-job 이벤트로도 받을 수 있음
+ * - 조회/취소는 본인 작업만 (다른 사용자의 jobId면 403)
+ */
+@RestController
+@RequestMapping("/api/plan-jobs")
+@RequiredArgsConstructor
+public class PlanJobController {
+
+    private final PlanJobService planJobService;
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<PlanJobResponse> get(@PathVariable String jobId, @RequestParam Long userId) {
+        return ResponseEntity.ok(planJobService.get(jobId, userId));
+    }
+
+    @GetMapping
+    public ResponseEntity<List<PlanJobResponse>> findByUser(@RequestParam Long userId) {
+        return ResponseEntity.ok(planJobService.findByUser(userId));
+    }
+
+    @DeleteMapping("/{jobId}")
+    public ResponseEntity<PlanJobResponse> cancel(@PathVariable String jobId, @RequestParam Long userId) {
+        return ResponseEntity.ok(planJobService.cancel(jobId, userId));
+    }
+}
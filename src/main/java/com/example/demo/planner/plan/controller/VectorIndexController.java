@@ -0,0 +1,28 @@
+package com.example.demo.planner.plan.controller;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.demo.planner.plan.service.search.PlaceVectorIndex;
+import com.example.demo.planner.plan.service.search.PlaceVectorIndex.RecallReport;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/vector-index")
+@RequiredArgsConstructor
+public class VectorIndexController {
+
+    private final PlaceVectorIndex placeVectorIndex;
+
+    // quantized 검색 recall@k (exact 검색 대비, 최근 실제 검색 쿼리 기준)
+    // quantized 모드가 꺼져 있으면 400, 인덱스 적재 전이면 503
+    @GetMapping("/recall")
+    public RecallReport recall(
+            @RequestParam(defaultValue = "20") int k,
+            @RequestParam(defaultValue = "100") int samples) {
+        return placeVectorIndex.recallAtK(k, samples);
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.demo.planner.plan.dao;
 
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -7,6 +8,8 @@ import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
 import com.example.demo.planner.plan.dto.TravelPlaceCandidate;
+import com.example.demo.planner.plan.dto.entity.PlaceCoordinateRow;
+import com.example.demo.planner.plan.dto.entity.PlaceVectorRow;
 import com.example.demo.planner.plan.dto.entity.Plan;
 import com.example.demo.planner.plan.dto.entity.PlanScheduleRow;
 import com.example.demo.planner.plan.dto.entity.TravelPlaces;
@@ -64,8 +67,16 @@ public interface PlanDao {
     TravelPlaces findById(@Param("id") Long id);
     List<TravelPlaces> findAll(@Param("limit") int limit, @Param("offset") int offset);
     List<TravelPlaceCandidate> searchByVector(@Param("embedding") float[] embedding, @Param("limit") int limit);
+    /* 쿼리 벡터 여러 개를 한 번에 검색 (벡터별 top-k, id 중복은 SQL에서 제거) */
+    List<TravelPlaceCandidate> searchByVectors(@Param("embeddings") List<float[]> embeddings, @Param("limit") int limit);
     List<TravelPlaces> findByTitleContaining(@Param("title") String title);
     List<TravelPlaceCandidate> searchMissingCategoryByVector(Map<String, Object> params);
+    /* 인메모리 벡터 인덱스 적재 ((updated_at, id) > (updatedAfter, afterId)인 행, updatedAfter가 null이면 전체) */
+    List<PlaceVectorRow> selectPlaceVectorsUpdatedAfter(@Param("updatedAfter") OffsetDateTime updatedAfter,
+            @Param("afterId") Long afterId);
+    /* 장소 거리 행렬 적재 ((updated_at, id) > (updatedAfter, afterId)인 행, updatedAfter가 null이면 전체) */
+    List<PlaceCoordinateRow> selectPlaceCoordinatesUpdatedAfter(@Param("updatedAfter") OffsetDateTime updatedAfter,
+            @Param("afterId") Long afterId);
     List<String> getUserLastVisitedPlaces(@Param("userId") Long userId);
 
 
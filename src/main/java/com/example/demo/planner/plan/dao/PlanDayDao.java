@@ -3,6 +3,7 @@ package com.example.demo.planner.plan.dao;
 import java.util.List;
 
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
 
 import com.example.demo.planner.plan.dto.entity.PlanDay;
 
@@ -34,6 +35,12 @@ public interface PlanDayDao {
      */
     List<PlanDay> selectPlanDaysByPlanId(Long planId);
 
+    /**
+     * 여러 여행 계획의 날짜를 한 번에 조회합니다.
+     * 계획 ID, 날짜 순서대로 정렬됩니다.
+     */
+    List<PlanDay> selectPlanDaysByPlanIds(@Param("planIds") List<Long> planIds);
+
     /**
      * 여행 날짜를 생성합니다.
      */
@@ -44,6 +51,11 @@ public interface PlanDayDao {
      */
     int insertPlanDayBatch(List<PlanDay> days);
 
+    /**
+     * 여행 날짜들을 생성하고 생성된 행(id 포함)을 반환합니다. (INSERT ... RETURNING)
+     */
+    List<PlanDay> insertPlanDayBatchReturning(List<PlanDay> days);
+
     /**
      * 여행 날짜를 수정합니다.
      */
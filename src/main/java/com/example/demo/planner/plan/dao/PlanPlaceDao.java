@@ -3,6 +3,7 @@ package com.example.demo.planner.plan.dao;
 import java.util.List;
 
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
 
 import com.example.demo.planner.plan.dto.entity.PlanPlace;
 
@@ -26,6 +27,12 @@ public interface PlanPlaceDao {
      */
     List<PlanPlace> selectPlanPlacesByPlanId(Long planId);
 
+    /**
+     * 여러 여행 계획의 모든 장소를 한 번에 조회합니다.
+     * 날짜 ID, 시간 순서대로 정렬됩니다.
+     */
+    List<PlanPlace> selectPlanPlacesByPlanIds(@Param("planIds") List<Long> planIds);
+
     /**
      * 여행 장소를 생성합니다.
      */
@@ -36,6 +43,12 @@ public interface PlanPlaceDao {
      */
     int insertPlanPlaceBatch(List<PlanPlace> planPlaces);
 
+    /**
+     * 여행 장소들을 생성하고 생성된 id를 입력 순서대로 반환합니다.
+     * (id를 시퀀스에서 먼저 받아 입력 위치에 묶음, RETURNING 행 순서에 기대지 않음, 빈 목록 불가)
+     */
+    List<Long> insertPlanPlaceBatchReturningIds(List<PlanPlace> planPlaces);
+
     /**
      * 여행 장소를 수정합니다.
      */
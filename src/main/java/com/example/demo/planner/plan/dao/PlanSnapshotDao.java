@@ -1,6 +1,7 @@
 package com.example.demo.planner.plan.dao;
 
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
 
 import com.example.demo.planner.plan.dto.entity.PlanSnapshot;
 
@@ -8,18 +9,33 @@ import java.util.List;
 
 @Mapper
 public interface PlanSnapshotDao {
-    // ID로 개별 스냅샷 조회
+    // ID로 개별 스냅샷 조회 (메타데이터만)
     PlanSnapshot selectPlanSnapshotById(Long id);
 
-    // 사용자의 모든 스냅샷 조회
+    // 사용자의 모든 스냅샷 조회 (메타데이터만)
     List<PlanSnapshot> selectPlanSnapshotsByUserId(Long userId);
 
-    // 사용자의 최신 스냅샷 조회
+    // 사용자의 최신 스냅샷 조회 (메타데이터만)
     PlanSnapshot selectLatestPlanSnapshotByUserId(Long userId);
 
+    // versionNo 바로 다음 스냅샷 (메타데이터만)
+    PlanSnapshot selectNextPlanSnapshot(@Param("userId") Long userId, @Param("versionNo") Integer versionNo);
+
+    // 복원용 행: 가장 가까운 체크포인트 ~ versionNo (null이면 최신), 버전 오름차순
+    List<PlanSnapshot> selectPlanSnapshotChain(@Param("userId") Long userId, @Param("versionNo") Integer versionNo);
+
+    // 사용자 단위 버전 할당 잠금 (트랜잭션 안에서만 의미 있음)
+    int lockPlanSnapshots(Long userId);
+
     // 스냅샷 저장
     int insertPlanSnapshot(PlanSnapshot PlanSnapshot);
 
+    // 스냅샷 저장 (버전 번호는 사용자 최신 + 1, 저장된 행 반환)
+    PlanSnapshot insertPlanSnapshotNextVersion(PlanSnapshot planSnapshot);
+
+    // 델타를 체크포인트로 교체
+    int updatePlanSnapshotToCheckpoint(PlanSnapshot planSnapshot);
+
     // 특정 스냅샷 삭제
     int deletePlanSnapshot(Long id);
 
@@ -18,4 +18,9 @@ public class ClusterBundle {
     public Cluster get(int idx) {
         return clusters.get(idx);
     }
+
+    /** 모든 클러스터에 배정된 장소 수 */
+    public int placeCount() {
+        return clusters.stream().mapToInt(Cluster::size).sum();
+    }
 }
\ No newline at end of file
@@ -14,6 +14,8 @@ import lombok.ToString;
 public class TravelPlaceCandidate {
     double score;
     TravelPlaces travelPlaces;
+    // 멀티 벡터 검색 시 이 장소를 가져온 쿼리 순번 (0부터)
+    int queryIndex;
 
     public String getNormalizedCategory() {
         return travelPlaces.getNormalizedCategory();
@@ -0,0 +1,18 @@
+package com.example.demo.planner.plan.dto.entity;
+
+import java.time.OffsetDateTime;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 장소 거리 행렬 적재용 행 (id + 좌표)
+ */
+@Getter
+@NoArgsConstructor
+public class PlaceCoordinateRow {
+    private Long id;
+    private Double lat;
+    private Double lng;
+    private OffsetDateTime updatedAt;
+}
@@ -0,0 +1,17 @@
+package com.example.demo.planner.plan.dto.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 인메모리 벡터 인덱스 적재용 행 (장소 정보 + 임베딩)
+ * - embedding은 TravelPlaces에 넣지 않고 따로 받음 (후보 객체/로그에 12KB 벡터가 딸려가지 않도록)
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlaceVectorRow {
+    private TravelPlaces place;
+    private float[] embedding;
+}
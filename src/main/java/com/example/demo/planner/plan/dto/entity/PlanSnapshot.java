@@ -2,6 +2,8 @@ package com.example.demo.planner.plan.dto.entity;
 
 import java.time.OffsetDateTime;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import lombok.Builder;
 import lombok.Data;
 import lombok.Getter;
@@ -11,9 +13,19 @@ import lombok.ToString;
 @ToString
 @Getter
 public class PlanSnapshot {
+    // 전체 JSON (체크포인트)
+    public static final String FULL = "FULL";
+    // 바로 앞 버전 대비 JSON Patch
+    public static final String DELTA = "DELTA";
+
     private Long id;
     private Long userId;
     private Integer versionNo;
+    private String kind;
+    // 복원한 전체 JSON (목록 조회에서는 null)
     private String snapshotJson;
+    // deflate 압축한 전체 JSON 또는 JSON Patch (기존 행은 null, snapshot_json 사용)
+    @JsonIgnore
+    private byte[] payload;
     private OffsetDateTime createdAt;
 }
\ No newline at end of file
@@ -3,12 +3,16 @@ package com.example.demo.planner.plan.dto.entity;
 import java.time.OffsetDateTime;
 import java.util.List;
 
+import lombok.AllArgsConstructor;
+import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
 
 @Getter
+@Builder
 @NoArgsConstructor
+@AllArgsConstructor
 @ToString
 public class TravelPlaces {
     private Long id;
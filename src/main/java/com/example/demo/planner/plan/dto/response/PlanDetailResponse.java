@@ -5,11 +5,15 @@ import java.time.OffsetDateTime;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
+import com.example.demo.planner.plan.dto.entity.Plan;
+import com.example.demo.planner.plan.dto.entity.PlanDay;
+import com.example.demo.planner.plan.dto.entity.PlanPlace;
 import com.example.demo.planner.plan.dto.entity.PlanScheduleRow;
 
 import lombok.Data;
@@ -24,6 +28,9 @@ public class PlanDetailResponse {
 
     private List<Day> days;
 
+    // 응답 시간 제한으로 규칙 기반 결과를 쓴 단계 (일정 생성 직후 응답에만, 없으면 null)
+    private List<String> degradedStages;
+
     @Data
     public static class Day {
         private Long dayId;
@@ -104,6 +111,60 @@ public class PlanDetailResponse {
         return response;
     }
 
+    /**
+     * 방금 저장한 엔티티 → API Response 변환 (fromRows와 같은 결과, DB 재조회 없음)
+     * - placeIds: planPlaces와 같은 순서의 생성 id
+     * - fromRows(JOIN)와 맞추기 위해 장소가 없는 날짜는 제외, 날짜/시작 시각 순 정렬
+     */
+    public static PlanDetailResponse fromEntities(
+            Plan plan, List<PlanDay> planDays, List<PlanPlace> planPlaces, List<Long> placeIds) {
+
+        Map<Long, List<Schedule>> schedulesByDayId = new LinkedHashMap<>();
+        List<Integer> order = new ArrayList<>(planPlaces.size());
+        for (int i = 0; i < planPlaces.size(); i++) {
+            order.add(i);
+        }
+        order.sort(Comparator.comparing(i -> planPlaces.get(i).getStartAt()));
+
+        for (int i : order) {
+            PlanPlace p = planPlaces.get(i);
+            Schedule s = new Schedule();
+            s.setPlaceId(placeIds.get(i));
+            s.setTitle(p.getTitle());
+            s.setStartAt(toTimeString(p.getStartAt()));
+            s.setEndAt(toTimeString(p.getEndAt()));
+            s.setPlaceName(p.getPlaceName());
+            s.setAddress(p.getAddress());
+            s.setExpectedCost(p.getExpectedCost());
+            s.setNormalizedCategory(p.getNormalizedCategory());
+            s.setFirstImage(p.getFirstImage());
+            s.setFirstImage2(p.getFirstImage2());
+            s.setIsEnded(p.getIsEnded());
+            schedulesByDayId.computeIfAbsent(p.getDayId(), k -> new ArrayList<>()).add(s);
+        }
+
+        List<Day> days = new ArrayList<>();
+        planDays.stream()
+                .sorted(Comparator.comparing(PlanDay::getDayIndex))
+                .filter(d -> schedulesByDayId.containsKey(d.getId()))
+                .forEach(d -> {
+                    Day day = new Day();
+                    day.setDayId(d.getId());
+                    day.setDayIndex(d.getDayIndex());
+                    day.setDate(d.getPlanDate().toString());
+                    day.setSchedules(schedulesByDayId.get(d.getId()));
+                    days.add(day);
+                });
+
+        PlanDetailResponse response = new PlanDetailResponse();
+        response.setPlanId(plan.getId());
+        response.setBudget(plan.getBudget());
+        response.setStartDate(plan.getStartDate().toString());
+        response.setEndDate(plan.getEndDate().toString());
+        response.setDays(days);
+        return response;
+    }
+
     // 시간 포맷을 위한 변수
     private static final ZoneId KST = ZoneId.of("Asia/Seoul");
     private static final DateTimeFormatter TIME_FMT = DateTimeFormatter.ofPattern("HH:mm");
@@ -0,0 +1,26 @@
+package com.example.demo.planner.plan.dto.response;
+
+import java.time.OffsetDateTime;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 비동기 일정 생성 작업 조회 응답
+ * - result는 SUCCEEDED일 때만 채워짐 (TravelPlannerService 응답과 동일)
+ */
+@Getter
+@Builder
+@ToString
+public class PlanJobResponse {
+
+    private String jobId;
+    private Long userId;
+    private PlanJobStatus status;
+    private OffsetDateTime submittedAt;
+    private OffsetDateTime startedAt;
+    private OffsetDateTime finishedAt;
+    private Object result;
+    private String error;
+}
@@ -0,0 +1,17 @@
+package com.example.demo.planner.plan.dto.response;
+
+/**
+ * 비동기 일정 생성 작업 상태
+ */
+public enum PlanJobStatus {
+    QUEUED,
+    RUNNING,
+    SUCCEEDED,
+    FAILED,
+    CANCELLED,
+    TIMED_OUT;
+
+    public boolean isFinished() {
+        return this != QUEUED && this != RUNNING;
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.demo.planner.plan.dto.response;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 일정 생성 진행 이벤트
+ * - data는 단계별로 다름
+ *   SEED_QUERIES_READY: List<String> (SeedQuery)
+ *   CANDIDATES_FOUND: Integer (후보 수)
+ *   CLUSTERS_FORMED: List<ClusterSummary>
+ *   DAY_SCHEDULED: ScheduledDay
+ *   PLAN_SAVED: PlanDetailResponse
+ *   FAILED: String (오류 메시지)
+ */
+@Getter
+@Builder
+@ToString
+public class PlanProgressEvent {
+
+    private PlanProgressStage stage;
+    private String message;
+    private Object data;
+    // 파이프라인 시작 후 경과 시간
+    private long elapsedMs;
+
+    @Getter
+    @AllArgsConstructor
+    @ToString
+    public static class ClusterSummary {
+        private int id;
+        private double centerLat;
+        private double centerLng;
+        private int placeCount;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    @ToString
+    public static class ScheduledDay {
+        private int dayIndex;
+        private List<ScheduledPlace> places;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    @ToString
+    public static class ScheduledPlace {
+        private Long placeId;
+        private String title;
+        private String category;
+        private Double lat;
+        private Double lng;
+        private String start;
+        private String end;
+        private int order;
+    }
+}
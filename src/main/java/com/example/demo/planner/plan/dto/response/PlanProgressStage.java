@@ -0,0 +1,14 @@
+package com.example.demo.planner.plan.dto.response;
+
+/**
+ * 일정 생성 진행 단계 (SSE plan-progress 이벤트의 stage)
+ */
+public enum PlanProgressStage {
+    STARTED,            // 요청 접수
+    SEED_QUERIES_READY, // SeedQuery 생성 완료
+    CANDIDATES_FOUND,   // 벡터 검색 + 필터 + 카테고리 보강 완료
+    CLUSTERS_FORMED,    // 클러스터링 완료
+    DAY_SCHEDULED,      // 하루 일정 시간 배치 완료 (Day마다 1회)
+    PLAN_SAVED,         // DB 저장 완료 (최종 응답 포함)
+    FAILED              // 중간 실패
+}
@@ -4,9 +4,11 @@ import java.util.List;
 
 import lombok.Data;
 import lombok.Getter;
+import lombok.Setter;
 import lombok.ToString;
 
 @Getter
+@Setter
 @ToString
 public class PlanScheduleResult {
 
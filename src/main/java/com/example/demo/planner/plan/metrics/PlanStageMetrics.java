@@ -0,0 +1,152 @@
+package com.example.demo.planner.plan.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+import com.example.demo.common.chat.intent.dto.SeoulRegion;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 일정 생성 파이프라인 단계별 메트릭
+ * - planner.stage.duration (timer): 단계 소요 시간, tag stage/outcome/duration/region
+ * - planner.stage.candidates (summary): 단계 입력/출력 후보 수, tag stage/direction/duration/region
+ * - planner.pipeline.duration (timer): 전체 소요 시간, tag outcome/duration/region
+ * - planner.stage.degraded (counter): 응답 시간 제한으로 규칙 기반 대체된 횟수, tag stage/duration/region
+ *
+ * 태그 값은 요청 단위로 begin() 호출 스레드에 묶임 (파이프라인은 한 스레드에서 순서대로 진행)
+ * - duration: 여행 일수 (7일 이상은 "7+")
+ * - region: SeoulRegion 이름, 매칭되지 않으면 SEOUL (자유 입력이 태그로 퍼지지 않도록)
+ */
+@Component
+@RequiredArgsConstructor
+public class PlanStageMetrics {
+
+    public static final String NORMALIZE = "normalize";
+    public static final String SEED_QUERY = "seed_query";
+    public static final String EMBEDDING = "embedding";
+    public static final String VECTOR_SEARCH = "vector_search";
+    public static final String VISITED_FILTER = "visited_filter";
+    public static final String REGION_FILTER = "region_filter";
+    public static final String CATEGORY_FILL = "category_fill";
+    public static final String CLUSTER = "cluster";
+    public static final String DAY_SPLIT = "day_split";
+    public static final String ROUTE = "route";
+    public static final String SCHEDULE_LLM = "schedule_llm";
+    public static final String SCHEDULE_LOCAL = "schedule_local";
+    public static final String PERSIST = "persist";
+    public static final String SNAPSHOT = "snapshot";
+
+    private static final String UNKNOWN = "unknown";
+
+    private final MeterRegistry meterRegistry;
+
+    private final ThreadLocal<Run> current = new ThreadLocal<>();
+
+    private static class Run {
+        final long startNanos = System.nanoTime();
+        String duration = UNKNOWN;
+        String region = UNKNOWN;
+    }
+
+    public void begin(String location) {
+        Run run = new Run();
+        run.region = regionTag(location);
+        current.set(run);
+    }
+
+    public void durationDays(int days) {
+        Run run = current.get();
+        if (run != null) {
+            run.duration = days >= 7 ? "7+" : String.valueOf(days);
+        }
+    }
+
+    /** 파이프라인 종료 (성공/실패 모두 호출) */
+    public void end(boolean success) {
+        Run run = current.get();
+        if (run == null) {
+            return;
+        }
+        current.remove();
+        Timer.builder("planner.pipeline.duration")
+                .tags(baseTags(run).and("outcome", success ? "success" : "error"))
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(System.nanoTime() - run.startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /** 단계 실행 + 소요 시간 기록 (예외도 outcome=error로 기록 후 그대로 던짐) */
+    public <T> T time(String stage, Supplier<T> body) {
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            T result = body.get();
+            outcome = "success";
+            return result;
+        } finally {
+            stageTimer(stage, outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /** 람다로 감싸기 어려운 구간용: start는 System.nanoTime() 값 */
+    public void record(String stage, long startNanos) {
+        stageTimer(stage, "success").record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void time(String stage, Runnable body) {
+        time(stage, () -> {
+            body.run();
+            return null;
+        });
+    }
+
+    /** 단계 입력/출력 후보 수 기록 */
+    public void candidates(String stage, int in, int out) {
+        summary(stage, "in").record(in);
+        summary(stage, "out").record(out);
+    }
+
+    /** 응답 시간 제한으로 규칙 기반 결과를 쓴 단계 기록 */
+    public void degraded(String stage) {
+        Counter.builder("planner.stage.degraded")
+                .tags(stageTags(stage))
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private Timer stageTimer(String stage, String outcome) {
+        return Timer.builder("planner.stage.duration")
+                .tags(stageTags(stage).and("outcome", outcome))
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private DistributionSummary summary(String stage, String direction) {
+        return DistributionSummary.builder("planner.stage.candidates")
+                .tags(stageTags(stage).and("direction", direction))
+                .register(meterRegistry);
+    }
+
+    private Tags stageTags(String stage) {
+        Run run = current.get();
+        Tags tags = run != null ? baseTags(run) : Tags.of("duration", UNKNOWN, "region", UNKNOWN);
+        return tags.and("stage", stage);
+    }
+
+    private static Tags baseTags(Run run) {
+        return Tags.of("duration", run.duration, "region", run.region);
+    }
+
+    private static String regionTag(String location) {
+        SeoulRegion region = SeoulRegion.fromUserInput(location);
+        return region != null ? region.name() : "SEOUL";
+    }
+}
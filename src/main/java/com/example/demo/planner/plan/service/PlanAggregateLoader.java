@@ -0,0 +1,73 @@
+package com.example.demo.planner.plan.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Component;
+
+import com.example.demo.planner.plan.dao.PlanDayDao;
+import com.example.demo.planner.plan.dao.PlanPlaceDao;
+import com.example.demo.planner.plan.dto.entity.Plan;
+import com.example.demo.planner.plan.dto.entity.PlanDay;
+import com.example.demo.planner.plan.dto.entity.PlanPlace;
+import com.example.demo.planner.plan.dto.response.PlanDayWithPlaces;
+import com.example.demo.planner.plan.dto.response.PlanDetail;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Plan → Days → Places 전체 구조 로더
+ * - Plan 개수와 상관없이 쿼리 2번 (Days IN planIds, Places JOIN Days IN planIds)
+ * - 장소 목록만 필요하면 loadPlaces (JOIN 1번)
+ * - Days는 day_index 순, Places는 Day 안에서 start_at 순 (selectPlanPlacesByPlanDayId와 같은 순서)
+ * - 장소가 없는 Day도 빈 목록으로 포함
+ */
+@Component
+@RequiredArgsConstructor
+public class PlanAggregateLoader {
+
+    private final PlanDayDao planDayDao;
+    private final PlanPlaceDao planPlaceDao;
+
+    /** Plan 하나의 Days + Places */
+    public List<PlanDayWithPlaces> loadDays(Long planId) {
+        return loadDays(List.of(planId)).getOrDefault(planId, Collections.emptyList());
+    }
+
+    /** Plan 하나의 모든 장소 (날짜 → 시간 순, Day 구조가 필요 없을 때는 JOIN 쿼리 1번) */
+    public List<PlanPlace> loadPlaces(Long planId) {
+        return planPlaceDao.selectPlanPlacesByPlanId(planId);
+    }
+
+    /** 여러 Plan의 Days + Places (planId → 날짜 순 목록, Day가 없는 Plan은 빠짐) */
+    public Map<Long, List<PlanDayWithPlaces>> loadDays(List<Long> planIds) {
+        if (planIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        List<PlanDay> days = planDayDao.selectPlanDaysByPlanIds(planIds);
+        if (days.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<Long, List<PlanPlace>> placesByDayId = planPlaceDao.selectPlanPlacesByPlanIds(planIds).stream()
+                .collect(Collectors.groupingBy(PlanPlace::getDayId));
+
+        Map<Long, List<PlanDayWithPlaces>> result = new LinkedHashMap<>();
+        for (PlanDay day : days) {
+            result.computeIfAbsent(day.getPlanId(), k -> new ArrayList<>())
+                    .add(new PlanDayWithPlaces(day, placesByDayId.getOrDefault(day.getId(), Collections.emptyList())));
+        }
+        return result;
+    }
+
+    /** Plan 목록 → PlanDetail 목록 (입력 순서 유지) */
+    public List<PlanDetail> loadDetails(List<Plan> plans) {
+        Map<Long, List<PlanDayWithPlaces>> daysByPlanId = loadDays(plans.stream().map(Plan::getId).toList());
+        return plans.stream()
+                .map(plan -> new PlanDetail(plan, daysByPlanId.getOrDefault(plan.getId(), Collections.emptyList())))
+                .collect(Collectors.toList());
+    }
+}
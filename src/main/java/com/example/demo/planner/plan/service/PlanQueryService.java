@@ -32,6 +32,7 @@ import lombok.extern.slf4j.Slf4j;
  * Plan 조회 전문 서비스
  * - 전체 조회, 검색, Fuzzy matching
  * - 복잡한 조회 로직 담당
+ * - 여러 Day에 걸친 조회는 PlanAggregateLoader로 한 번에 읽고 메모리에서 처리 (Day별 반복 조회 없음)
  */
 @Service
 @Slf4j
@@ -43,6 +44,7 @@ public class PlanQueryService {
     private final PlanPlaceDao planPlaceDao;
     private final UserDao userDao;
     private final FuzzyUtils fuzzyUtils;
+    private final PlanAggregateLoader planAggregateLoader;
 
     /**
      * 특정 일차의 전체 일정 조회 (PlanDay + PlanPlace 리스트)
@@ -70,45 +72,19 @@ public class PlanQueryService {
     }
 
     /**
-     * 전체 일정 조회 (구버전 - N+1 문제 있음)
+     * 전체 일정 조회
      */
     public List<PlanDayWithPlaces> queryAllDays(Long planId) {
-        log.info("전체 일정 조회 (구버전): planId={}", planId);
-        List<PlanDay> days = planDayDao.selectPlanDaysByPlanId(planId);
-        return days.stream()
-            .map(day -> {
-                List<PlanPlace> places = planPlaceDao.selectPlanPlacesByPlanDayId(day.getId());
-                return new PlanDayWithPlaces(day, places);
-            })
-            .collect(Collectors.toList());
+        log.info("전체 일정 조회: planId={}", planId);
+        return planAggregateLoader.loadDays(planId);
     }
 
     /**
-     * 🔥 전체 일정 조회 (최적화 버전 - 2개의 쿼리로 전체 데이터 로드)
+     * 🔥 전체 일정 조회 (2개의 쿼리로 전체 데이터 로드)
      */
     public List<PlanDayWithPlaces> queryAllDaysOptimized(Long planId) {
         log.info("🚀 전체 일정 조회 (최적화): planId={}", planId);
-
-        // 1. Days 조회 (1회 쿼리)
-        List<PlanDay> days = planDayDao.selectPlanDaysByPlanId(planId);
-
-        // 2. 전체 Places를 JOIN으로 한 번에 조회 (1회 쿼리)
-        List<PlanPlace> allPlaces = planPlaceDao.selectPlanPlacesByPlanId(planId);
-
-        // 3. Places를 Day별로 그룹핑
-        Map<Long, List<PlanPlace>> placesGroupedByDay = allPlaces.stream()
-            .collect(Collectors.groupingBy(PlanPlace::getDayId));
-
-        // 4. Days와 Places 결합
-        return days.stream()
-            .map(day -> {
-                List<PlanPlace> places = placesGroupedByDay.getOrDefault(
-                    day.getId(),
-                    Collections.emptyList()
-                );
-                return new PlanDayWithPlaces(day, places);
-            })
-            .collect(Collectors.toList());
+        return planAggregateLoader.loadDays(planId);
     }
 
     /**
@@ -139,9 +115,7 @@ public class PlanQueryService {
      */
     public List<PlanPlace> queryPlacesByName(Long planId, String placeName) {
         log.info("장소명 검색: planId={}, placeName={}", planId, placeName);
-        List<PlanDay> days = planDayDao.selectPlanDaysByPlanId(planId);
-        return days.stream()
-            .flatMap(day -> planPlaceDao.selectPlanPlacesByPlanDayId(day.getId()).stream())
+        return planAggregateLoader.loadPlaces(planId).stream()
             .filter(place -> place.getPlaceName().toLowerCase().contains(placeName.toLowerCase()) ||
                             place.getTitle().toLowerCase().contains(placeName.toLowerCase()))
             .collect(Collectors.toList());
@@ -153,10 +127,8 @@ public class PlanQueryService {
     public PlanPlace queryCurrentActivity(Long planId) {
         log.info("현재 일정 조회: planId={}", planId);
         OffsetDateTime now = OffsetDateTime.now();
-        List<PlanDay> days = planDayDao.selectPlanDaysByPlanId(planId);
 
-        return days.stream()
-            .flatMap(day -> planPlaceDao.selectPlanPlacesByPlanDayId(day.getId()).stream())
+        return planAggregateLoader.loadPlaces(planId).stream()
             .filter(place -> place.getStartAt() != null && place.getEndAt() != null)
             .filter(place -> !now.isBefore(place.getStartAt()) && !now.isAfter(place.getEndAt()))
             .findFirst()
@@ -169,10 +141,8 @@ public class PlanQueryService {
     public PlanPlace queryNextActivity(Long planId) {
         log.info("다음 일정 조회: planId={}", planId);
         OffsetDateTime now = OffsetDateTime.now();
-        List<PlanDay> days = planDayDao.selectPlanDaysByPlanId(planId);
 
-        return days.stream()
-            .flatMap(day -> planPlaceDao.selectPlanPlacesByPlanDayId(day.getId()).stream())
+        return planAggregateLoader.loadPlaces(planId).stream()
             .filter(place -> place.getStartAt() != null)
             .filter(place -> place.getStartAt().isAfter(now))
             .sorted((p1, p2) -> p1.getStartAt().compareTo(p2.getStartAt()))
@@ -185,15 +155,14 @@ public class PlanQueryService {
      */
     public PlanDayWithPlaces findPlaceDay(Long planId, String placeName) {
         log.info("장소→날짜 조회 (fuzzy): planId={}, placeName={}", planId, placeName);
-        List<PlanDay> days = planDayDao.selectPlanDaysByPlanId(planId);
+        List<PlanDayWithPlaces> days = planAggregateLoader.loadDays(planId);
 
         // 1. 모든 장소명 수집
         List<String> allPlaceNames = new ArrayList<>();
-        Map<String, PlanDay> placeToDay = new HashMap<>();
+        Map<String, PlanDayWithPlaces> placeToDay = new HashMap<>();
 
-        for (PlanDay day : days) {
-            List<PlanPlace> places = planPlaceDao.selectPlanPlacesByPlanDayId(day.getId());
-            for (PlanPlace place : places) {
+        for (PlanDayWithPlaces day : days) {
+            for (PlanPlace place : day.getPlaces()) {
                 allPlaceNames.add(place.getPlaceName());
                 allPlaceNames.add(place.getTitle());
                 placeToDay.put(place.getPlaceName(), day);
@@ -210,14 +179,8 @@ public class PlanQueryService {
 
         log.info("Fuzzy match result: '{}' → '{}'", placeName, bestMatch);
 
-        // 3. 매칭된 장소가 속한 Day 반환
-        PlanDay matchedDay = placeToDay.get(bestMatch);
-        if (matchedDay != null) {
-            List<PlanPlace> places = planPlaceDao.selectPlanPlacesByPlanDayId(matchedDay.getId());
-            return new PlanDayWithPlaces(matchedDay, places);
-        }
-
-        return null;
+        // 3. 매칭된 장소가 속한 Day 반환 (이미 읽은 장소 목록 그대로)
+        return placeToDay.get(bestMatch);
     }
 
     /**
@@ -227,17 +190,18 @@ public class PlanQueryService {
     public PlacePosition findPlacePositionByPlanId(String placeName, Long planId) {
         log.info("장소 위치 조회 (planId): placeName={}, planId={}", placeName, planId);
 
-        // 1. 모든 PlanDay 조회
-        List<PlanDay> allDays = planDayDao.selectPlanDaysByPlanId(planId);
+        // 1. 모든 PlanDay + PlanPlace 조회
+        List<PlanDayWithPlaces> allDays = planAggregateLoader.loadDays(planId);
         if (allDays.isEmpty()) {
             return null;
         }
 
-        // 2. 모든 PlanPlace 조회하여 fuzzy matching
+        // 2. fuzzy matching용 장소명 → 위치
         Map<String, PlacePosition> placePositions = new HashMap<>();
 
-        for (PlanDay day : allDays) {
-            List<PlanPlace> places = planPlaceDao.selectPlanPlacesByPlanDayId(day.getId());
+        for (PlanDayWithPlaces dayWithPlaces : allDays) {
+            PlanDay day = dayWithPlaces.getDay();
+            List<PlanPlace> places = dayWithPlaces.getPlaces();
             for (int i = 0; i < places.size(); i++) {
                 PlanPlace place = places.get(i);
                 placePositions.put(place.getPlaceName(), PlacePosition.builder()
@@ -301,10 +265,7 @@ public class PlanQueryService {
                 return Collections.emptyList();
         }
 
-        List<PlanDay> days = planDayDao.selectPlanDaysByPlanId(planId);
-
-        return days.stream()
-            .flatMap(day -> planPlaceDao.selectPlanPlacesByPlanDayId(day.getId()).stream())
+        return planAggregateLoader.loadPlaces(planId).stream()
             .filter(place -> place.getStartAt() != null)
             .filter(place -> {
                 int hour = place.getStartAt().getHour();
@@ -334,8 +295,8 @@ public class PlanQueryService {
             throw new IllegalArgumentException("존재하지 않는 Plan입니다: planId=" + planId);
         }
 
-        // 2. 최적화된 방식으로 모든 Days + Places 조회 (2 queries)
-        List<PlanDayWithPlaces> daysWithPlaces = queryAllDaysOptimized(planId);
+        // 2. 모든 Days + Places 조회 (2 queries)
+        List<PlanDayWithPlaces> daysWithPlaces = planAggregateLoader.loadDays(planId);
 
         log.info("Plan 상세 조회 완료: planId={}, days={}, 총 places={}",
             planId, daysWithPlaces.size(),
@@ -365,16 +326,8 @@ public class PlanQueryService {
         }
         long planId = plan.getId();
 
-        // 3. Plan의 모든 Day 조회
-        List<PlanDay> days = planDayDao.selectPlanDaysByPlanId(planId);
-
-        // 4. 각 Day의 Places를 조회하여 PlanDayWithPlaces 생성
-        List<PlanDayWithPlaces> daysWithPlaces = days.stream()
-            .map(day -> {
-                List<PlanPlace> places = planPlaceDao.selectPlanPlacesByPlanDayId(day.getId());
-                return new PlanDayWithPlaces(day, places);
-            })
-            .collect(Collectors.toList());
+        // 3. Plan의 모든 Days + Places 조회 (2 queries)
+        List<PlanDayWithPlaces> daysWithPlaces = planAggregateLoader.loadDays(planId);
 
         log.info("Plan 상세 조회 완료: planId={}, days={}, 총 places={}",
             planId, daysWithPlaces.size(),
@@ -392,10 +345,8 @@ public class PlanQueryService {
         // 1. 사용자의 모든 Plan 조회
         List<Plan> plans = planDao.selectPlansByUserId(userId);
 
-        // 2. 각 Plan의 상세 정보 조회
-        List<PlanDetail> planDetails = plans.stream()
-            .map(plan -> getPlanDetail(plan.getId()))
-            .collect(Collectors.toList());
+        // 2. 모든 Plan의 Days + Places를 한 번에 조회 (Plan 수와 상관없이 2 queries)
+        List<PlanDetail> planDetails = planAggregateLoader.loadDetails(plans);
 
         log.info("사용자별 Plan 상세 목록 조회 완료: userId={}, 총 {}개 Plan", userId, planDetails.size());
         return planDetails;
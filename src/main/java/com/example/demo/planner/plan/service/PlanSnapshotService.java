@@ -1,72 +1,111 @@
 package com.example.demo.planner.plan.service;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.zip.Deflater;
+import java.util.zip.InflaterInputStream;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import com.example.demo.planner.plan.dao.PlanPlaceDao;
 import com.example.demo.planner.plan.dao.PlanSnapshotDao;
 import com.example.demo.planner.plan.dto.entity.Plan;
 import com.example.demo.planner.plan.dto.entity.PlanDay;
 import com.example.demo.planner.plan.dto.entity.PlanPlace;
 import com.example.demo.planner.plan.dto.entity.PlanSnapshot;
 import com.example.demo.planner.plan.dto.response.PlanSnapshotContent;
+import com.example.demo.planner.plan.utils.JsonPatch;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * planSnapshotService는 여행 계획 스냅샷 관련 비즈니스 로직을 처리합니다.
  * 
  * 스냅샷은 여행 계획의 버전 관리와 히스토리 추적을 위해 사용됩니다.
+ *
+ * 저장 형식 (plan_snapshots.kind / payload)
+ * - FULL: 전체 JSON을 deflate 압축 (체크포인트)
+ * - DELTA: 바로 앞 버전 대비 JSON Patch를 deflate 압축
+ * - 체크포인트 뒤 델타가 max-deltas개가 되면 다음은 FULL,
+ *   델타가 전체보다 크면(일정을 통째로 바꾼 경우 등) 그 버전도 FULL
+ * - 특정 버전 복원 = 가장 가까운 이전 체크포인트 + 델타 최대 max-deltas개 적용
+ * - 목록 조회는 메타데이터(id, 버전, 종류, 생성 시각)만 반환
+ * - 버전 번호는 사용자 단위 advisory lock 안에서 할당 (동시 저장 시 번호 중복 방지)
  */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class PlanSnapshotService {
     private final PlanSnapshotDao planSnapshotDao;
-    private final PlanPlaceDao planPlaceDao;
+    private final int maxDeltas;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public PlanSnapshotService(
+            PlanSnapshotDao planSnapshotDao,
+            @Value("${planner.snapshot.max-deltas:9}") int maxDeltas) {
+        this.planSnapshotDao = planSnapshotDao;
+        this.maxDeltas = maxDeltas;
+    }
 
     // ### 단순 CRUD ###
-    // ID로 개별 스냅샷 조회
+    // ID로 개별 스냅샷 조회 (전체 JSON 복원)
     public PlanSnapshot getPlanSnapshotById(Long id) {
         log.info("Getting travel plan snapshot by id: {}", id);
-        return planSnapshotDao.selectPlanSnapshotById(id);
+        PlanSnapshot meta = planSnapshotDao.selectPlanSnapshotById(id);
+        if (meta == null) {
+            return null;
+        }
+        return restore(meta.getUserId(), meta.getVersionNo());
     }
 
-    // 사용자의 모든 스냅샷 조회
+    // 사용자의 모든 스냅샷 조회 (메타데이터만, 최신 버전부터)
     public List<PlanSnapshot> getPlanSnapshotsByUserId(Long userId) {
         log.info("Getting all travel plan snapshots for user: {}", userId);
         return planSnapshotDao.selectPlanSnapshotsByUserId(userId);
     }
 
-    // 사용자의 최신 스냅샷 조회
+    // 사용자의 최신 스냅샷 조회 (전체 JSON 복원)
     public PlanSnapshot getLatestPlanSnapshot(Long userId) {
         log.info("Getting latest travel plan snapshot for user: {}", userId);
-        return planSnapshotDao.selectLatestPlanSnapshotByUserId(userId);
+        return restore(userId, null);
+    }
+
+    // 사용자의 특정 버전 스냅샷 조회 (전체 JSON 복원)
+    public PlanSnapshot getPlanSnapshotByVersion(Long userId, Integer versionNo) {
+        log.info("Getting travel plan snapshot for user: {} version: {}", userId, versionNo);
+        return restore(userId, versionNo);
     }
 
-    // 스냅샷 저장
-    public PlanSnapshot savePlanSnapshot(PlanSnapshot planSnapshot) {
+    // 스냅샷 저장 (JSON 직접 전달, 버전 번호는 새로 할당)
+    // - 반환값의 snapshotJson은 저장한 전체 JSON (DELTA로 저장해도 전체)
+    @Transactional
+    public PlanSnapshot savePlanSnapshot(PlanSnapshot planSnapshot) throws Exception {
         log.info("Saving travel plan snapshot for user: {}", planSnapshot.getUserId());
-        planSnapshotDao.insertPlanSnapshot(planSnapshot);
-        return planSnapshot;
+        return save(planSnapshot.getUserId(), planSnapshot.getSnapshotJson());
     }
 
     // 스냅샷 저장(기본 테이블 사용)
+    // - 장소는 넘겨받은 planPlaces를 dayId별로 묶어서 사용 (날짜마다 다시 조회하지 않음)
+    // - 이전 버전과의 차이만 델타로 저장 (체크포인트 주기는 max-deltas)
     @Transactional
     public PlanSnapshot savePlanSnapshot(Plan plan, List<PlanDay> planDays, List<PlanPlace> planPlaces) throws Exception {
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-        ObjectMapper objectMapper = new ObjectMapper();
 
         log.info("Saving travel plan snapshot for user: {}", plan.getUserId());
-        // 최신 스냅샷이 있는지 확인 -> 없으면 버전 정보는 1
-        PlanSnapshot latestPlanSnapshot = getLatestPlanSnapshot(plan.getUserId());
-        Integer versionNo = latestPlanSnapshot == null ? 1 : latestPlanSnapshot.getVersionNo() + 1;
+        Map<Long, List<PlanPlace>> placesByDayId = planPlaces.stream()
+                .sorted(Comparator.comparing(PlanPlace::getStartAt))
+                .collect(Collectors.groupingBy(PlanPlace::getDayId));
 
         PlanSnapshotContent planSnapshotContent = new PlanSnapshotContent();
         planSnapshotContent.setUserId(plan.getUserId());
@@ -81,9 +120,7 @@ public class PlanSnapshotService {
             pscDay.setTitle(planDay.getTitle());
             
             List<PlanSnapshotContent.PlanDayItem> pscItems = new ArrayList<>();
-            log.info("planDay: {}", planDay.toString());
-            log.info("planPlaceDao.selectPlanPlacesByPlanDayId(planDay.getId()): {}", planPlaceDao.selectPlanPlacesByPlanDayId(planDay.getId()).toString());
-            for (PlanPlace planPlace : planPlaceDao.selectPlanPlacesByPlanDayId(planDay.getId())) {
+            for (PlanPlace planPlace : placesByDayId.getOrDefault(planDay.getId(), List.of())) {
                 PlanSnapshotContent.PlanDayItem pscItem = new PlanSnapshotContent.PlanDayItem();
                 pscItem.setTitle(planPlace.getTitle());
                 pscItem.setStartAt(planPlace.getStartAt().format(formatter));
@@ -107,21 +144,28 @@ public class PlanSnapshotService {
         // log.info(planSnapshotContent.toString());
         String snapshotJson = objectMapper.writeValueAsString(planSnapshotContent);
 
-        PlanSnapshot planSnapshot = PlanSnapshot.builder()
-            .userId(plan.getUserId())
-            .versionNo(versionNo)
-            .snapshotJson(snapshotJson)
-            .build();
-            
-        planSnapshotDao.insertPlanSnapshot(planSnapshot);
-
-        planSnapshot = planSnapshotDao.selectLatestPlanSnapshotByUserId(plan.getUserId());
-        return planSnapshot;
+        return save(plan.getUserId(), snapshotJson);
     }
 
     // 특정 스냅샷 삭제
+    // - 바로 다음 버전이 이 버전 기준 델타면 먼저 체크포인트로 바꿔서 복원 경로를 유지
+    @Transactional
     public void deletePlanSnapshot(Long id) {
         log.info("Deleting travel plan snapshot: {}", id);
+        PlanSnapshot meta = planSnapshotDao.selectPlanSnapshotById(id);
+        if (meta == null) {
+            return;
+        }
+        planSnapshotDao.lockPlanSnapshots(meta.getUserId());
+        PlanSnapshot next = planSnapshotDao.selectNextPlanSnapshot(meta.getUserId(), meta.getVersionNo());
+        if (next != null && PlanSnapshot.DELTA.equals(next.getKind())) {
+            PlanSnapshot restored = restore(next.getUserId(), next.getVersionNo());
+            planSnapshotDao.updatePlanSnapshotToCheckpoint(PlanSnapshot.builder()
+                    .id(next.getId())
+                    .payload(deflate(restored.getSnapshotJson().getBytes(StandardCharsets.UTF_8)))
+                    .build());
+            log.info("  version {} → 체크포인트로 변경", next.getVersionNo());
+        }
         planSnapshotDao.deletePlanSnapshot(id);
     }
 
@@ -131,4 +175,99 @@ public class PlanSnapshotService {
         planSnapshotDao.deletePlanSnapshotsByUserId(userId);
     }
 
+    // ### 체크포인트 + 델타 ###
+
+    // 사용자 잠금 → 최신 버전 복원 → 델타/체크포인트 결정 → 다음 버전으로 저장 (전체 JSON 포함 반환)
+    private PlanSnapshot save(Long userId, String snapshotJson) throws IOException {
+        planSnapshotDao.lockPlanSnapshots(userId);
+
+        JsonNode next = objectMapper.readTree(snapshotJson);
+        byte[] full = deflate(objectMapper.writeValueAsBytes(next));
+        String kind = PlanSnapshot.FULL;
+        byte[] payload = full;
+
+        List<PlanSnapshot> chain = planSnapshotDao.selectPlanSnapshotChain(userId, null);
+        if (!chain.isEmpty() && chain.size() - 1 < maxDeltas) {
+            byte[] delta = deflate(objectMapper.writeValueAsBytes(JsonPatch.diff(replay(chain), next)));
+            if (delta.length < full.length) {
+                kind = PlanSnapshot.DELTA;
+                payload = delta;
+            }
+        }
+
+        PlanSnapshot saved = planSnapshotDao.insertPlanSnapshotNextVersion(PlanSnapshot.builder()
+                .userId(userId)
+                .kind(kind)
+                .payload(payload)
+                .build());
+        log.info("  스냅샷 version {} 저장 - {} {}B (전체 {}B)", saved.getVersionNo(), kind, payload.length, full.length);
+        // RETURNING은 메타데이터만 → 저장한 전체 JSON을 채워서 반환
+        return PlanSnapshot.builder()
+                .id(saved.getId())
+                .userId(saved.getUserId())
+                .versionNo(saved.getVersionNo())
+                .kind(saved.getKind())
+                .snapshotJson(objectMapper.writeValueAsString(next))
+                .createdAt(saved.getCreatedAt())
+                .build();
+    }
+
+    // versionNo(null이면 최신) 복원, 없는 버전이면 null
+    private PlanSnapshot restore(Long userId, Integer versionNo) {
+        List<PlanSnapshot> chain = planSnapshotDao.selectPlanSnapshotChain(userId, versionNo);
+        if (chain.isEmpty()) {
+            return null;
+        }
+        PlanSnapshot last = chain.get(chain.size() - 1);
+        if (versionNo != null && !versionNo.equals(last.getVersionNo())) {
+            return null;
+        }
+        try {
+            return PlanSnapshot.builder()
+                    .id(last.getId())
+                    .userId(last.getUserId())
+                    .versionNo(last.getVersionNo())
+                    .kind(last.getKind())
+                    .snapshotJson(objectMapper.writeValueAsString(replay(chain)))
+                    .createdAt(last.getCreatedAt())
+                    .build();
+        } catch (IOException e) {
+            throw new IllegalStateException(
+                    "스냅샷 복원 실패 userId=" + userId + ", version=" + last.getVersionNo(), e);
+        }
+    }
+
+    // 체크포인트(첫 행) + 이후 델타 순서대로 적용
+    private JsonNode replay(List<PlanSnapshot> chain) throws IOException {
+        PlanSnapshot checkpoint = chain.get(0);
+        JsonNode node = checkpoint.getPayload() == null
+                ? objectMapper.readTree(checkpoint.getSnapshotJson())
+                : objectMapper.readTree(inflate(checkpoint.getPayload()));
+        for (int i = 1; i < chain.size(); i++) {
+            node = JsonPatch.apply(node, objectMapper.readTree(inflate(chain.get(i).getPayload())));
+        }
+        return node;
+    }
+
+    private static byte[] deflate(byte[] data) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+            byte[] buffer = new byte[4096];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] data) throws IOException {
+        try (InputStream in = new InflaterInputStream(new ByteArrayInputStream(data))) {
+            return in.readAllBytes();
+        }
+    }
 }
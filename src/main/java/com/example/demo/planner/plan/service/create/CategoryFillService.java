@@ -9,8 +9,8 @@ import org.springframework.ai.embedding.EmbeddingModel;
 import org.springframework.stereotype.Service;
 
 import com.example.demo.planner.plan.agent.SeedQueryAgent;
-import com.example.demo.planner.plan.dao.PlanDao;
 import com.example.demo.planner.plan.dto.TravelPlaceCandidate;
+import com.example.demo.planner.plan.service.search.PlaceVectorSearchService;
 import com.example.demo.planner.plan.utils.CategoryNames;
 
 import lombok.RequiredArgsConstructor;
@@ -23,13 +23,25 @@ public class CategoryFillService {
 
     private final SeedQueryAgent seedQueryAgent;
     private final EmbeddingModel embeddingModel;
-    private final PlanDao planDao;
+    private final PlaceVectorSearchService placeVectorSearchService;
 
-    /* 카테고리별로 후보들을 분류하고, SPOT / FOOD 등 필수 카테고리가 최소 개수보다 부족한지 체크만 함. */
+    /**
+     * 필수 카테고리 보강에 쓰일 수 있는 쿼리 문장
+     * - 검색 단계의 SeedQuery와 함께 한 번에 임베딩하기 위해 미리 꺼내 둡니다.
+     */
+    public List<String> reinforcementQueries(Map<String, Object> arguments) {
+        String location = (String) arguments.getOrDefault("location", "서울");
+        return CategoryNames.REQUIRED.stream()
+                .map(cat -> seedQueryAgent.generateCategoryQuery(location, cat))
+                .toList();
+    }
+
+    /* 카테고리별로 후보들을 분류하고, SPOT / FOOD 등 필수 카테고리가 최소 개수보다 부족하면 전역 DB에서 보강함. */
     public Map<String, List<TravelPlaceCandidate>> fill(
             List<TravelPlaceCandidate> candidates, Map<String, Object> arguments,
             int minFood,
-            int minSpot) {
+            int minSpot,
+            Map<String, float[]> queryEmbeddings) {
 
         log.info("=== [1] 카테고리 분류 시작 ===");
 
@@ -52,9 +64,8 @@ public class CategoryFillService {
         log.info("=== [2] 필수 카테고리 개수 체크 ===");
 
         // SPOT / FOOD는 필수 → 부족하면 다음 단계에서 보강 필요성만 알려줌
-        strengthen(map, arguments, CategoryNames.FOOD, minFood);
-        strengthen(map, arguments, CategoryNames.SPOT, minSpot);
-        arguments.remove("category");
+        strengthen(map, arguments, CategoryNames.FOOD, minFood, queryEmbeddings);
+        strengthen(map, arguments, CategoryNames.SPOT, minSpot, queryEmbeddings);
 
         printCategoryCount(map);
 
@@ -95,7 +106,8 @@ public class CategoryFillService {
     /* 특정 카테고리가 최소 갯수보다 부족하면 로그로 알려줌 */
     private void strengthen(Map<String, List<TravelPlaceCandidate>> map, Map<String, Object> arguments,
             String category,
-            int minCount) {
+            int minCount,
+            Map<String, float[]> queryEmbeddings) {
 
         List<TravelPlaceCandidate> currentList = map.get(category);
         int current = map.get(category).size();
@@ -108,20 +120,23 @@ public class CategoryFillService {
         int lacking = minCount - current;
         log.warn("[{}] 부족 → {}개 → 전역 DB 보강 시작", category, lacking);
 
-        // 1) Seed Query 생성 (category 모드)
-        arguments.put("category", category); // category 모드 유도
-        String seedQuery = seedQueryAgent.generateSeedQuery(arguments);
+        // 1) 카테고리 쿼리 (reinforcementQueries와 동일한 문장)
+        String location = (String) arguments.getOrDefault("location", "서울");
+        String seedQuery = seedQueryAgent.generateCategoryQuery(location, category);
 
-        // 2) embedding 생성
-        float[] embedding = embeddingModel.embed(seedQuery);
+        // 2) embedding - 배치 결과 재사용, 없을 때만 개별 호출
+        float[] embedding = queryEmbeddings.get(seedQuery);
+        if (embedding == null) {
+            embedding = embeddingModel.embed(seedQuery);
+        }
 
         List<Long> excludedIds = currentList.stream()
                 .map(c -> c.getTravelPlaces().getId())
                 .toList();
 
         // 4) 전역 DB에서 카테고리 보강 검색
-        List<TravelPlaceCandidate> fetched = planDao.searchMissingCategoryByVector(
-                Map.of("category", category, "embedding", embedding, "excludedIds", excludedIds, "limit", lacking));
+        List<TravelPlaceCandidate> fetched = placeVectorSearchService.searchMissingCategoryByVector(
+                category, embedding, excludedIds, lacking);
 
         // 5) 보강 append
         currentList.addAll(fetched);
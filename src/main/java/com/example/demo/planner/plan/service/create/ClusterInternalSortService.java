@@ -7,7 +7,7 @@ import org.springframework.stereotype.Service;
 
 import com.example.demo.planner.plan.dto.Cluster;
 import com.example.demo.planner.plan.dto.ClusterPlace;
-import com.example.demo.planner.plan.utils.GeoUtils;
+import com.example.demo.planner.plan.utils.PlaceSpatialIndex;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -27,24 +27,18 @@ public class ClusterInternalSortService {
 
         List<ClusterPlace> sorted = new ArrayList<>();
 
+        // 최근접 이웃 순회: 방문한 장소는 인덱스에서 제거하며 반복 조회
+        PlaceSpatialIndex index = PlaceSpatialIndex.of(list.stream().map(ClusterPlace::getOriginal).toList());
+
         double curLat = cluster.getCenterLat();
         double curLng = cluster.getCenterLng();
 
-        while (!list.isEmpty()) {
-
-            ClusterPlace nearest = null;
-            double minDist = Double.MAX_VALUE;
-
-            for (ClusterPlace p : list) {
-                double d = GeoUtils.haversine(curLat, curLng, p.getLat(), p.getLng());
-                if (d < minDist) {
-                    minDist = d;
-                    nearest = p;
-                }
-            }
+        for (int step = 0; step < list.size(); step++) {
+            int i = index.nearestIndex(curLat, curLng);
+            index.remove(i);
 
+            ClusterPlace nearest = list.get(i);
             sorted.add(nearest);
-            list.remove(nearest);
 
             curLat = nearest.getLat();
             curLng = nearest.getLng();
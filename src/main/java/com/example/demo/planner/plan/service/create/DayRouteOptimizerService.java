@@ -0,0 +1,108 @@
+package com.example.demo.planner.plan.service.create;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.demo.planner.plan.dto.ClusterPlace;
+import com.example.demo.planner.plan.dto.response.DayPlanResult;
+import com.example.demo.planner.plan.utils.CategoryNames;
+import com.example.demo.planner.plan.utils.GeoUtils;
+import com.example.demo.planner.plan.utils.RouteOptimizer;
+import com.example.demo.planner.plan.utils.ScheduleRules;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 날짜별 방문 순서를 실제 좌표로 정렬 (LLM 순서 추론 대체)
+ * - 이동거리 최소화: 최근접 이웃 + 2-opt / Or-opt (RouteOptimizer)
+ * - STAY는 프롬프트 규칙대로 하루의 시작(체크인/체크아웃)에만 배치
+ * - 체류시간 합은 순서와 무관하므로 이동거리를 줄이는 것이 곧 시간 창(도착일 15:00~, 출발일 ~17:00)을
+ *   가장 잘 지키는 순서. 최소 체류시간으로도 창을 넘으면 경고만 남김 (장소 수는 유지)
+ *
+ * llm-reorder=false(기본)면 LLM은 이 순서를 유지한 채 시간만 배치하고,
+ * true면 이 순서를 초안으로 넘겨 LLM이 다듬을 수 있음
+ */
+@Service
+@Slf4j
+public class DayRouteOptimizerService {
+
+    private final boolean enabled;
+    private final boolean llmReorder;
+
+    public DayRouteOptimizerService(
+            @Value("${planner.schedule.route-optimizer.enabled:true}") boolean enabled,
+            @Value("${planner.schedule.llm-reorder:false}") boolean llmReorder) {
+        this.enabled = enabled;
+        this.llmReorder = llmReorder;
+    }
+
+    /**
+     * dayPlans의 날짜별 장소 순서를 제자리에서 재정렬
+     * @return LLM이 입력 순서를 그대로 유지해야 하면 true
+     */
+    public boolean optimize(List<DayPlanResult> dayPlans, int totalDays) {
+        if (!enabled) {
+            return false;
+        }
+        for (DayPlanResult day : dayPlans) {
+            day.setPlaces(optimizeDay(day.getPlaces()));
+            checkWindow(day, totalDays);
+        }
+        return !llmReorder;
+    }
+
+    private List<ClusterPlace> optimizeDay(List<ClusterPlace> places) {
+        int n = places.size();
+        if (n <= 1) {
+            return places;
+        }
+
+        double[] lats = new double[n];
+        double[] lngs = new double[n];
+        int stay = -1;
+        for (int i = 0; i < n; i++) {
+            ClusterPlace p = places.get(i);
+            lats[i] = p.getLat();
+            lngs[i] = p.getLng();
+            if (stay < 0 && CategoryNames.STAY.equals(p.getCategory())) {
+                stay = i;
+            }
+        }
+
+        double[] cost = GeoUtils.distanceMatrix(lats, lngs, false);
+        int[] route = RouteOptimizer.optimize(cost, n, stay);
+
+        List<ClusterPlace> ordered = new ArrayList<>(n);
+        for (int i : route) {
+            ordered.add(places.get(i));
+        }
+        return ordered;
+    }
+
+    // 최소 체류시간 + 이동시간으로도 하루 시간 창을 넘는지 확인
+    private void checkWindow(DayPlanResult day, int totalDays) {
+        List<ClusterPlace> places = day.getPlaces();
+        int minutes = 0;
+        for (int i = 0; i < places.size(); i++) {
+            minutes += ScheduleRules.dwell(places.get(i).getCategory()).min();
+            if (i > 0) {
+                ClusterPlace prev = places.get(i - 1);
+                ClusterPlace cur = places.get(i);
+                minutes += ScheduleRules.travelMinutes(
+                        GeoUtils.haversine(prev.getLat(), prev.getLng(), cur.getLat(), cur.getLng()));
+            }
+        }
+
+        LocalTime start = ScheduleRules.dayStart(day.getDayNumber(), totalDays);
+        LocalTime end = ScheduleRules.dayEnd(day.getDayNumber(), totalDays);
+        int window = end.toSecondOfDay() / 60 - start.toSecondOfDay() / 60;
+        if (minutes > window) {
+            log.warn("  {}일차 동선이 시간 창을 초과합니다 - 최소 {}분 / 가능 {}분 ({}~{})",
+                    day.getDayNumber(), minutes, window, start, end);
+        }
+    }
+}
@@ -1,9 +1,9 @@
 package com.example.demo.planner.plan.service.create;
 
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
 
 import org.springframework.stereotype.Service;
 
@@ -15,6 +15,7 @@ import com.example.demo.planner.plan.dto.response.DayPlanResult;
 import com.example.demo.planner.plan.strategy.DayRequirement;
 import com.example.demo.planner.plan.strategy.TravelPlanStrategy;
 import com.example.demo.planner.plan.utils.CategoryNames;
+import com.example.demo.planner.plan.utils.DayAssignmentSolver;
 import com.example.demo.planner.plan.utils.GeoUtils;
 
 import lombok.RequiredArgsConstructor;
@@ -26,6 +27,14 @@ import lombok.extern.slf4j.Slf4j;
 public class DaySplitService {
 
     /**
+     * 전체 날짜 배정을 한 번에 풉니다 (DayAssignmentSolver, 최소 비용 유량)
+     * - 후보: 클러스터 장소 + 전역 후보 (id 기준 중복 제거)
+     * - 날짜 d의 중심: d번째 클러스터 중심, 비용: 중심까지 거리
+     * - 제약: DayRequirement의 SPOT/FOOD/선택 카테고리 최소 개수, FOOD 최대 개수, maxPlaces
+     * - 전역 후보와 다른 날짜 클러스터 장소는 SPOT/FOOD 최소 요구량에만 쓰고,
+     *   남는 칸과 선택 카테고리는 그 날짜 클러스터 장소로만 채움
+     * - 한 장소는 한 날짜에만 배정됨 (유량 구조상 중복 불가)
+     *
      * @param bundle           KMeans 등으로 만들어진 클러스터 묶음
      * @param duration         전체 여행 일수
      * @param strategy         날짜별 최소 카테고리 요구량 전략
@@ -39,226 +48,102 @@ public class DaySplitService {
         log.info("=== [DaySplit] 일정 생성 시작 ===");
 
         List<Cluster> clusters = bundle.getClusters();
-        List<DayPlanResult> results = new ArrayList<>();
-
-        // 전체 일정 중복 방지용
-        Set<Long> usedIds = new HashSet<>();
-
-        int day = 1;
-
-        for (Cluster cluster : clusters) {
-
-            DayRequirement req = strategy.getDayRequirement(day, duration);
-
-            DayPlanResult dayPlan = makeDayPlan(
-                    cluster,
-                    req,
-                    day,
-                    globalCandidates,
-                    usedIds);
-
-            results.add(dayPlan);
-
-            day++;
-            if (day > duration)
-                break;
-        }
-
-        // 한 번 더 검증용 로그
-        Set<Long> check = new HashSet<>();
-        for (DayPlanResult d : results) {
-            for (ClusterPlace cp : d.getPlaces()) {
-                if (!check.add(cp.getOriginal().getId())) {
-                    log.warn("DUPLICATE DETECTED id={} in day={}", cp.getOriginal().getId(), d.getDayNumber());
+        int dayCount = Math.min(clusters.size(), duration);
+
+        // 1) 후보 모으기 (클러스터 장소 우선, id 중복 제거) + 소속 날짜 (전역 후보 / 일정에 안 쓰는 클러스터는 -1)
+        Map<Long, TravelPlaceCandidate> pool = new LinkedHashMap<>();
+        Map<Long, Integer> homeDay = new LinkedHashMap<>();
+        for (int d = 0; d < clusters.size(); d++) {
+            for (ClusterPlace cp : clusters.get(d).getPlaces()) {
+                if (pool.putIfAbsent(cp.getOriginal().getId(), cp.getOriginal()) == null && d < dayCount) {
+                    homeDay.put(cp.getOriginal().getId(), d);
                 }
             }
         }
-
-        log.info("=== [DaySplit] 완료: {}일 일정 생성 ===", results.size());
-        return results;
-    }
-
-    private DayPlanResult makeDayPlan(Cluster cluster,
-            DayRequirement req,
-            int dayNumber,
-            List<TravelPlaceCandidate> globalCandidates,
-            Set<Long> usedIds) {
-
-        log.info("---- Day {} 일정 생성 ----", dayNumber);
-
-        DayPlanResult result = new DayPlanResult();
-        result.setDayNumber(dayNumber);
-
-        // 클러스터 내 장소 복사
-        List<ClusterPlace> source = new ArrayList<>(cluster.getPlaces());
-
-        // 이미 다른 날에 사용한 장소는 여기서 제거
-        source.removeIf(cp -> usedIds.contains(cp.getOriginal().getId()));
-
-        double cx = cluster.getCenterLat();
-        double cy = cluster.getCenterLng();
-
-        // 1) SPOT (부족하면 전역에서 보강)
-        addCategoryWithFallback(
-                result,
-                source,
-                CategoryNames.SPOT,
-                req.getMinSpot(),
-                globalCandidates,
-                usedIds,
-                cx,
-                cy);
-
-        // 2) FOOD (부족하면 전역에서 보강)
-        addCategoryWithFallback(
-                result,
-                source,
-                CategoryNames.FOOD,
-                req.getMinFood(),
-                globalCandidates,
-                usedIds,
-                cx,
-                cy);
-
-        // FOOD는 이후 절대 추가되지 않도록 source에서 제거
-        source.removeIf(p -> p.getOriginal().getNormalizedCategory().equals(CategoryNames.FOOD));
-
-        // 3) OPTIONAL (기존 로직 유지 – source 안에서만 선택)
-        addOptional(source, result, req.getMinOptional());
-
-        // 4) 남은 장소 중 일부 추가 (최대 개수까지 채우기)
-        while (!source.isEmpty() && result.getPlaces().size() < req.getMaxPlaces()) {
-            ClusterPlace next = source.remove(0);
-            result.getPlaces().add(next);
-            usedIds.add(next.getOriginal().getId()); // 전역 중복 방지
+        for (TravelPlaceCandidate c : globalCandidates) {
+            pool.putIfAbsent(c.getId(), c);
         }
-
-        // 5) 동선 정렬
-        sortByDistance(result);
-
-        return result;
-    }
-
-    /**
-     * 클러스터 내에서 먼저 채우고, 부족하면 전역 globalCandidates에서 보강하는 버전
-     */
-    private void addCategoryWithFallback(DayPlanResult result,
-            List<ClusterPlace> source,
-            String category,
-            int requiredCount,
-            List<TravelPlaceCandidate> globalCandidates,
-            Set<Long> usedIds,
-            double centerLat,
-            double centerLng) {
-
-        if (requiredCount <= 0)
-            return;
-
-        List<ClusterPlace> selected = new ArrayList<>();
-
-        // 1) 클러스터 내에서 먼저 채우기
-        for (ClusterPlace cp : new ArrayList<>(source)) {
-            if (selected.size() >= requiredCount)
-                break;
-
-            if (!category.equals(cp.getOriginal().getNormalizedCategory()))
-                continue;
-            if (usedIds.contains(cp.getOriginal().getId()))
-                continue;
-
-            selected.add(cp);
-            source.remove(cp);
-            usedIds.add(cp.getOriginal().getId());
+        List<TravelPlaceCandidate> candidates = new ArrayList<>(pool.values());
+
+        int n = candidates.size();
+        double[] lat = new double[n];
+        double[] lng = new double[n];
+        int[] category = new int[n];
+        int[] home = new int[n];
+        for (int i = 0; i < n; i++) {
+            TravelPlaceCandidate c = candidates.get(i);
+            lat[i] = c.getTravelPlacesLat();
+            lng[i] = c.getTravelPlacesLng();
+            category[i] = solverCategory(c.getNormalizedCategory());
+            home[i] = homeDay.getOrDefault(c.getId(), -1);
         }
 
-        int have = selected.size();
-        if (have < requiredCount) {
-            int need = requiredCount - have;
-            log.warn("카테고리 {} 필요 {}개 중 {}개만 클러스터에서 확보 → {}개 전역 보강 시도",
-                    category, requiredCount, have, need);
-
-            List<ClusterPlace> fallback = searchGlobalFallback(
-                    category,
-                    need,
-                    globalCandidates,
-                    usedIds,
-                    centerLat,
-                    centerLng);
+        // 2) 날짜별 요구량
+        List<DayRequirement> requirements = new ArrayList<>(dayCount);
+        List<DayAssignmentSolver.Day> days = new ArrayList<>(dayCount);
+        for (int d = 0; d < dayCount; d++) {
+            Cluster cluster = clusters.get(d);
+            DayRequirement req = strategy.getDayRequirement(d + 1, duration);
+            requirements.add(req);
+            days.add(new DayAssignmentSolver.Day(
+                    cluster.getCenterLat(), cluster.getCenterLng(),
+                    req.getMinSpot(), req.getMinFood(), req.getMaxFood(),
+                    req.getMinOptional(), req.getMaxPlaces()));
+        }
 
-            for (ClusterPlace cp : fallback) {
-                selected.add(cp);
-                usedIds.add(cp.getOriginal().getId());
+        // 3) 배정
+        int[] assignment = DayAssignmentSolver.solve(lat, lng, category, home, days);
 
-                // 핵심 수정: fallback으로 들어온 장소는 source(남은 장소)에서도 제거
-                source.removeIf(s -> s.getOriginal().getId().equals(cp.getOriginal().getId()));
+        List<DayPlanResult> results = new ArrayList<>(dayCount);
+        for (int d = 0; d < dayCount; d++) {
+            DayPlanResult dayPlan = new DayPlanResult();
+            dayPlan.setDayNumber(d + 1);
+            results.add(dayPlan);
+        }
+        for (int i = 0; i < n; i++) {
+            int d = assignment[i];
+            if (d >= 0) {
+                Cluster cluster = clusters.get(d);
+                results.get(d).getPlaces()
+                        .add(new ClusterPlace(candidates.get(i), cluster.getCenterLat(), cluster.getCenterLng()));
             }
-
-            log.info("카테고리 {} 전역 보강 결과 → 총 {}개 확보", category, selected.size());
         }
 
-        result.getPlaces().addAll(selected);
-    }
-
-    /**
-     * 전역 후보(globalCandidates)에서 아직 사용되지 않은 같은 카테고리 장소를
-     * 클러스터 중심과의 거리 기준으로 가까운 순서대로 가져옴.
-     */
-    private List<ClusterPlace> searchGlobalFallback(String category,
-            int need,
-            List<TravelPlaceCandidate> globalCandidates,
-            Set<Long> usedIds,
-            double centerLat,
-            double centerLng) {
-
-        List<ClusterPlace> result = new ArrayList<>();
-
-        globalCandidates.stream()
-                .filter(c -> category.equals(c.getNormalizedCategory()))
-                .filter(c -> !usedIds.contains(c.getTravelPlaces().getId()))
-                .sorted((a, b) -> {
-                    double da = GeoUtils.haversine(
-                            centerLat, centerLng,
-                            a.getTravelPlacesLat(), a.getTravelPlacesLng());
-                    double db = GeoUtils.haversine(
-                            centerLat, centerLng,
-                            b.getTravelPlacesLat(), b.getTravelPlacesLng());
-                    return Double.compare(da, db);
-                })
-                .limit(need)
-                .forEach(c -> {
-                    ClusterPlace cp = new ClusterPlace(c, centerLat, centerLng);
-                    result.add(cp);
-                });
-
-        if (result.size() < need) {
-            log.warn("전역 보강에서도 카테고리 {} {}개만 확보 (요청: {})",
-                    category, result.size(), need);
+        // 4) 부족분 로그 + 동선 정렬
+        for (int d = 0; d < dayCount; d++) {
+            DayPlanResult dayPlan = results.get(d);
+            logShortage(dayPlan, requirements.get(d));
+            sortByDistance(dayPlan);
         }
 
-        return result;
+        log.info("=== [DaySplit] 완료: {}일 일정 생성 (후보 {}개) ===", results.size(), n);
+        return results;
     }
 
-    private void addOptional(List<ClusterPlace> source,
-            DayPlanResult result,
-            int count) {
-
-        if (count <= 0)
-            return;
-
-        for (String cat : CategoryNames.OPTIONAL) {
-
-            List<ClusterPlace> matched = source.stream()
-                    .filter(p -> p.getOriginal().getNormalizedCategory().equals(cat))
-                    .toList();
+    private int solverCategory(String category) {
+        if (CategoryNames.SPOT.equals(category)) return DayAssignmentSolver.SPOT;
+        if (CategoryNames.FOOD.equals(category)) return DayAssignmentSolver.FOOD;
+        if (CategoryNames.OPTIONAL.contains(category)) return DayAssignmentSolver.OPTIONAL;
+        // STAY 등은 일정에서 제외
+        return -1;
+    }
 
-            if (!matched.isEmpty()) {
-                result.getPlaces().add(matched.get(0));
-                source.remove(matched.get(0));
-                return;
+    private void logShortage(DayPlanResult dayPlan, DayRequirement req) {
+        int spot = 0;
+        int food = 0;
+        int optional = 0;
+        for (ClusterPlace cp : dayPlan.getPlaces()) {
+            switch (solverCategory(cp.getCategory())) {
+                case DayAssignmentSolver.SPOT -> spot++;
+                case DayAssignmentSolver.FOOD -> food++;
+                default -> optional++;
             }
         }
-
-        log.warn("[Optional] 선택 카테고리를 찾지 못함");
+        if (spot < req.getMinSpot() || food < req.getMinFood() || optional < req.getMinOptional()) {
+            log.warn("Day {} 최소 요구량 미달 - SPOT {}/{}, FOOD {}/{}, 선택 {}/{}",
+                    dayPlan.getDayNumber(), spot, req.getMinSpot(), food, req.getMinFood(),
+                    optional, req.getMinOptional());
+        }
     }
 
     private void sortByDistance(DayPlanResult result) {
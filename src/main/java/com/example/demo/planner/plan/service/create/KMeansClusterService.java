@@ -1,30 +1,45 @@
 package com.example.demo.planner.plan.service.create;
 
-import java.util.Arrays;
-import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
 
-import org.apache.commons.math3.ml.clustering.CentroidCluster;
-import org.apache.commons.math3.ml.clustering.DoublePoint;
-import org.apache.commons.math3.ml.clustering.KMeansPlusPlusClusterer;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import com.example.demo.planner.plan.dto.Cluster;
 import com.example.demo.planner.plan.dto.ClusterBundle;
 import com.example.demo.planner.plan.dto.ClusterPlace;
 import com.example.demo.planner.plan.dto.TravelPlaceCandidate;
+import com.example.demo.planner.plan.utils.CapacitatedKMeans;
 import com.example.demo.planner.plan.utils.CategoryNames;
-import com.example.demo.planner.plan.utils.GeoUtils;
+import com.example.demo.planner.plan.utils.PlaceSpatialIndex;
 
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * 후보 장소를 여행 일수(k)만큼 지역 클러스터로 분할
+ * - CapacitatedKMeans: 클러스터당 장소 수 / 카테고리 수를 고르게 제한한 k-means
+ * - seed 고정 + restart 병렬 실행 후 최저 비용 채택 (같은 후보면 같은 결과)
+ * - 후보는 배열 인덱스로 추적하므로 좌표가 같은 장소도 정확히 구분됨
+ */
 @Slf4j
 @Service
 public class KMeansClusterService {
 
+    private final int restarts;
+    private final int maxIterations;
+    private final long seed;
+
+    public KMeansClusterService(
+            @Value("${planner.cluster.restarts:8}") int restarts,
+            @Value("${planner.cluster.max-iterations:50}") int maxIterations,
+            @Value("${planner.cluster.seed:42}") long seed) {
+        this.restarts = restarts;
+        this.maxIterations = maxIterations;
+        this.seed = seed;
+    }
+
     public ClusterBundle cluster(List<TravelPlaceCandidate> candidates, int k) {
 
         ClusterBundle bundle = new ClusterBundle();
@@ -34,39 +49,38 @@ public class KMeansClusterService {
             return fallbackClusters(candidates, k, bundle);
         }
 
-        // --------------------- KMeans 준비 ---------------------
-        double[][] points = new double[candidates.size()][2];
-        for (int i = 0; i < candidates.size(); i++) {
-            points[i][0] = candidates.get(i).getTravelPlacesLat();
-            points[i][1] = candidates.get(i).getTravelPlacesLng();
+        // --------------------- 클러스터링 준비 ---------------------
+        int n = candidates.size();
+        double[] lat = new double[n];
+        double[] lng = new double[n];
+        int[] category = new int[n];
+        for (int i = 0; i < n; i++) {
+            TravelPlaceCandidate c = candidates.get(i);
+            lat[i] = c.getTravelPlacesLat();
+            lng[i] = c.getTravelPlacesLng();
+            category[i] = categoryCode(c.getNormalizedCategory());
         }
 
-        KMeansPlusPlusClusterer<DoublePoint> clusterer = new KMeansPlusPlusClusterer<>(k, 1000);
-        List<DoublePoint> pointList = Arrays.stream(points)
-                .map(DoublePoint::new)
-                .collect(Collectors.toList());
-
-        List<CentroidCluster<DoublePoint>> raw = clusterer.cluster(pointList);
-
-        int clusterId = 1;
+        CapacitatedKMeans.Result result = CapacitatedKMeans.cluster(
+                lat, lng, category, CategoryNames.ALL.size() + 1, k, restarts, maxIterations, seed);
+        log.info("Capacitated KMeans - n={}, k={}, cost={}, iterations={}",
+                n, k, String.format("%.2f", result.cost()), result.iterations());
 
-        for (CentroidCluster<DoublePoint> c : raw) {
+        for (int j = 0; j < k; j++) {
             Cluster cluster = new Cluster();
-            cluster.setId(clusterId++);
-            cluster.setCenterLat(c.getCenter().getPoint()[0]);
-            cluster.setCenterLng(c.getCenter().getPoint()[1]);
-
-            for (DoublePoint p : c.getPoints()) {
-                int idx = index(points, p.getPoint());
-                TravelPlaceCandidate place = candidates.get(idx);
-
-                cluster.getPlaces().add(
-                        new ClusterPlace(place, cluster.getCenterLat(), cluster.getCenterLng()));
-            }
-
+            cluster.setId(j + 1);
+            cluster.setCenterLat(result.centerLat()[j]);
+            cluster.setCenterLng(result.centerLng()[j]);
             bundle.addCluster(cluster);
         }
 
+        int[] assignment = result.assignment();
+        for (int i = 0; i < n; i++) {
+            Cluster cluster = bundle.get(assignment[i]);
+            cluster.getPlaces().add(
+                    new ClusterPlace(candidates.get(i), cluster.getCenterLat(), cluster.getCenterLng()));
+        }
+
         // --------------------- KMeans 로그 ---------------------
         log.info("=== KMeans 결과 ===");
         for (Cluster c : bundle.getClusters()) {
@@ -103,10 +117,11 @@ public class KMeansClusterService {
             }
         }
 
-        // 2) 클러스터별 보강
+        // 2) 클러스터별 보강 (전역 후보 공간 인덱스는 한 번만 생성)
+        PlaceSpatialIndex globalIndex = PlaceSpatialIndex.of(global);
         for (Cluster cl : bundle.getClusters()) {
-            strengthenCluster(cl, global, usedIds, CategoryNames.SPOT, MIN_SPOT);
-            strengthenCluster(cl, global, usedIds, CategoryNames.FOOD, MIN_FOOD);
+            strengthenCluster(cl, globalIndex, usedIds, CategoryNames.SPOT, MIN_SPOT);
+            strengthenCluster(cl, globalIndex, usedIds, CategoryNames.FOOD, MIN_FOOD);
         }
 
         log.info("=== 클러스터 보강 완료 ===");
@@ -114,7 +129,7 @@ public class KMeansClusterService {
 
     private void strengthenCluster(
             Cluster cluster,
-            List<TravelPlaceCandidate> global,
+            PlaceSpatialIndex globalIndex,
             Set<Long> usedIds,
             String category,
             int minCount) {
@@ -132,19 +147,11 @@ public class KMeansClusterService {
         double cx = cluster.getCenterLat();
         double cy = cluster.getCenterLng();
 
-        // 후보 필터: 같은 카테고리 + 전역 usedIds에 없는 애들만
-        List<TravelPlaceCandidate> candidates = global.stream()
-                .filter(p -> p.getNormalizedCategory().equals(category))
-                .filter(p -> !usedIds.contains(p.getId()))
-                .sorted(Comparator.comparingDouble(p -> GeoUtils.haversine(
-                        cx, cy,
-                        p.getTravelPlacesLat(),
-                        p.getTravelPlacesLng())))
-                .toList();
+        // 후보: 같은 카테고리 + 전역 usedIds에 없는 애들 중 중심에서 가까운 lack개
+        List<TravelPlaceCandidate> candidates = globalIndex.nearest(cx, cy, lack, category, usedIds);
 
         // lack만큼 추가
-        for (int i = 0; i < Math.min(lack, candidates.size()); i++) {
-            TravelPlaceCandidate p = candidates.get(i);
+        for (TravelPlaceCandidate p : candidates) {
 
             // 클러스터에 추가
             cluster.getPlaces().add(new ClusterPlace(p, cx, cy));
@@ -160,14 +167,10 @@ public class KMeansClusterService {
         log.info("[Cluster {}] {} 보강 완료 → 최종 {}개", cluster.getId(), category, after);
     }
 
-    // KMeans index finder
-    private int index(double[][] points, double[] target) {
-        for (int i = 0; i < points.length; i++) {
-            if (points[i][0] == target[0] && points[i][1] == target[1]) {
-                return i;
-            }
-        }
-        return -1;
+    // CategoryNames.ALL 순번, 목록에 없으면 마지막 코드
+    private static int categoryCode(String category) {
+        int idx = CategoryNames.ALL.indexOf(category);
+        return idx >= 0 ? idx : CategoryNames.ALL.size();
     }
 
     // fallback clusters
@@ -0,0 +1,135 @@
+package com.example.demo.planner.plan.service.create;
+
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.stereotype.Service;
+
+import com.example.demo.planner.plan.dto.ClusterPlace;
+import com.example.demo.planner.plan.dto.response.DayPlanResult;
+import com.example.demo.planner.plan.dto.response.PlanScheduleResult;
+import com.example.demo.planner.plan.service.search.PlaceTravelMatrix;
+import com.example.demo.planner.plan.utils.GeoUtils;
+import com.example.demo.planner.plan.utils.ScheduleRules;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * LLM 없이 PlanScheduleResult를 만드는 시간 배치기
+ * - 입력 순서(DayRouteOptimizerService로 정렬된 순서)를 그대로 사용
+ * - 날짜별 시작 시각부터 체류시간(카테고리 중간값) + 이동시간(거리 기반)을 차례로 배치
+ * - 종료 한계(출발일 17:00 등)를 넘으면 체류시간을 카테고리 최소값 쪽으로 비율만큼 줄임
+ *   최소값으로도 넘으면 장소 수는 유지하고 경고만 남김
+ * - 시각은 5분 단위로 맞춤
+ * - 이동시간은 PlaceTravelMatrix에 있으면 그 값, 없으면 거리로 계산
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LocalScheduleService {
+
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm");
+    private static final int SLOT_MINUTES = 5;
+
+    private final PlaceTravelMatrix placeTravelMatrix;
+
+    public PlanScheduleResult schedule(List<DayPlanResult> dayPlans, int totalDays) {
+        List<PlanScheduleResult.Day> days = new ArrayList<>(dayPlans.size());
+        for (DayPlanResult dayPlan : dayPlans) {
+            days.add(scheduleDay(dayPlan, totalDays));
+        }
+
+        PlanScheduleResult result = new PlanScheduleResult();
+        result.setDays(days);
+        return result;
+    }
+
+    private PlanScheduleResult.Day scheduleDay(DayPlanResult dayPlan, int totalDays) {
+        List<ClusterPlace> places = dayPlan.getPlaces();
+        int n = places.size();
+        int dayIndex = dayPlan.getDayNumber();
+
+        int[] dwellMin = new int[n];
+        int[] dwellMid = new int[n];
+        int[] travel = new int[n]; // travel[i]: i-1 → i 이동시간
+        int midTotal = 0;
+        int minTotal = 0;
+        for (int i = 0; i < n; i++) {
+            ScheduleRules.Dwell dwell = ScheduleRules.dwell(places.get(i).getCategory());
+            dwellMin[i] = dwell.min();
+            dwellMid[i] = dwell.mid();
+            if (i > 0) {
+                travel[i] = travelMinutes(places.get(i - 1), places.get(i));
+            }
+            midTotal += dwellMid[i] + travel[i];
+            minTotal += dwellMin[i] + travel[i];
+        }
+
+        LocalTime start = ScheduleRules.dayStart(dayIndex, totalDays);
+        LocalTime end = ScheduleRules.dayEnd(dayIndex, totalDays);
+        int window = minutesOf(end) - minutesOf(start);
+
+        // 넘치는 만큼 (중간값 - 최소값) 여유를 비율로 줄임
+        double shrink = 0;
+        if (midTotal > window) {
+            int slack = midTotal - minTotal;
+            shrink = slack == 0 ? 1 : Math.min(1.0, (double) (midTotal - window) / slack);
+            if (minTotal > window) {
+                log.warn("  {}일차 일정이 {} 이후까지 이어집니다 - 최소 {}분 / 가능 {}분",
+                        dayIndex, end, minTotal, window);
+            }
+        }
+
+        List<PlanScheduleResult.Item> items = new ArrayList<>(n);
+        int cursor = minutesOf(start);
+        for (int i = 0; i < n; i++) {
+            cursor = roundUp(cursor + travel[i]);
+            int dwell = dwellMid[i] - (int) Math.ceil((dwellMid[i] - dwellMin[i]) * shrink);
+            // 5분 단위 반올림으로 최소값 아래로 내려가지 않게
+            int itemEnd = Math.max(cursor + dwellMin[i], roundDown(cursor + dwell));
+
+            PlanScheduleResult.Item item = new PlanScheduleResult.Item();
+            item.setId(places.get(i).getOriginal().getId());
+            item.setStart(format(cursor));
+            item.setEnd(format(itemEnd));
+            item.setOrder(i + 1);
+            items.add(item);
+
+            cursor = itemEnd;
+        }
+
+        PlanScheduleResult.Day day = new PlanScheduleResult.Day();
+        day.setDayIndex(dayIndex);
+        day.setItems(items);
+        return day;
+    }
+
+    private int travelMinutes(ClusterPlace from, ClusterPlace to) {
+        int cached = placeTravelMatrix.travelMinutes(from.getOriginal().getId(), to.getOriginal().getId());
+        if (cached >= 0) {
+            return cached;
+        }
+        return ScheduleRules.travelMinutes(
+                GeoUtils.haversine(from.getLat(), from.getLng(), to.getLat(), to.getLng()));
+    }
+
+    private static int minutesOf(LocalTime time) {
+        return time.toSecondOfDay() / 60;
+    }
+
+    private static int roundUp(int minutes) {
+        return (minutes + SLOT_MINUTES - 1) / SLOT_MINUTES * SLOT_MINUTES;
+    }
+
+    private static int roundDown(int minutes) {
+        return minutes / SLOT_MINUTES * SLOT_MINUTES;
+    }
+
+    // 자정을 넘기면 23:55로 고정 (HH:mm 파싱이 깨지지 않도록)
+    private static String format(int minutes) {
+        return LocalTime.of(0, 0).plusMinutes(Math.min(minutes, 23 * 60 + 55)).format(TIME_FORMATTER);
+    }
+}
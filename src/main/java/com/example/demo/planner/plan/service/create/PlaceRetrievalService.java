@@ -0,0 +1,201 @@
+package com.example.demo.planner.plan.service.create;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.demo.planner.plan.dto.TravelPlaceCandidate;
+import com.example.demo.planner.plan.service.search.PlaceVectorSearchService;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * SeedQuery 목록으로 후보 장소를 검색합니다.
+ * 임베딩은 요청당 한 번의 배치 호출로 만들고, 벡터 검색은
+ * - multi-vector 모드: 모든 쿼리 벡터를 SQL 한 번으로 검색 (중복 제거도 SQL에서)
+ * - 그 외: 쿼리별 검색을 가상 스레드에서 동시에 실행
+ * 결과는 TravelPlaces.id 기준으로 병합합니다.
+ */
+@Service
+@Slf4j
+public class PlaceRetrievalService {
+
+    private static final int SEARCH_LIMIT = 100;
+    private static final int SHUFFLE_RANGE = 80;
+
+    private final EmbeddingModel embeddingModel;
+    private final PlaceVectorSearchService placeVectorSearchService;
+
+    // 동시에 실행할 최대 쿼리 수 (임베딩 API rate limit / DB 커넥션 보호)
+    private final Semaphore permits;
+    // 전체 쿼리 공통 마감 시간 (쿼리 수와 상관없이 search 대기 시간 상한)
+    private final long queryTimeoutMs;
+    private final boolean multiVector;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public PlaceRetrievalService(
+            EmbeddingModel embeddingModel,
+            PlaceVectorSearchService placeVectorSearchService,
+            @Value("${planner.search.max-concurrency:4}") int maxConcurrency,
+            @Value("${planner.search.query-timeout-ms:10000}") long queryTimeoutMs,
+            @Value("${planner.search.multi-vector:true}") boolean multiVector) {
+        this.embeddingModel = embeddingModel;
+        this.placeVectorSearchService = placeVectorSearchService;
+        this.permits = new Semaphore(Math.max(1, maxConcurrency));
+        this.queryTimeoutMs = queryTimeoutMs;
+        this.multiVector = multiVector;
+    }
+
+    /**
+     * 일정 하나에 필요한 쿼리 문장들을 한 번의 embed(List) 호출로 임베딩합니다.
+     * @return 쿼리 문장 → 벡터 (입력 순서 유지, 중복 문장은 한 번만 임베딩)
+     */
+    public Map<String, float[]> embedAll(List<String> queries) {
+        List<String> distinct = queries.stream().distinct().toList();
+        if (distinct.isEmpty()) {
+            return Map.of();
+        }
+
+        List<float[]> vectors = embeddingModel.embed(distinct);
+        if (vectors.size() != distinct.size()) {
+            throw new IllegalStateException(
+                    "임베딩 결과 개수 불일치: 요청 " + distinct.size() + "개, 응답 " + vectors.size() + "개");
+        }
+
+        Map<String, float[]> result = new LinkedHashMap<>();
+        for (int i = 0; i < distinct.size(); i++) {
+            result.put(distinct.get(i), vectors.get(i));
+        }
+
+        log.info("  임베딩 배치 호출 1회 - {}개 쿼리", distinct.size());
+        return result;
+    }
+
+    /**
+     * 멀티 SeedQuery 검색 + 병합
+     * - embeddings에 없는 쿼리는 개별 임베딩합니다.
+     * - 모든 쿼리가 queryTimeoutMs 하나의 마감 시간을 공유합니다.
+     *   (쿼리마다 따로 기다리면 최악의 경우 쿼리 수 × 타임아웃까지 늘어남)
+     * - 마감까지 끝나지 않았거나 실패한 쿼리는 결과에서 제외하고 나머지 결과로 진행합니다.
+     */
+    public List<TravelPlaceCandidate> search(List<String> seedQueries, Map<String, float[]> embeddings) {
+        if (multiVector) {
+            return searchInOneQueryWithDeadline(seedQueries, embeddings);
+        }
+
+        List<Future<List<TravelPlaceCandidate>>> futures = new ArrayList<>();
+        for (String q : seedQueries) {
+            float[] embedding = embeddings.get(q);
+            futures.add(executor.submit(() -> searchWithPermit(q, embedding)));
+        }
+
+        // 중복 제거 (먼저 들어온 결과 우선)
+        Map<Long, TravelPlaceCandidate> merged = new LinkedHashMap<>();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(queryTimeoutMs);
+
+        for (int i = 0; i < futures.size(); i++) {
+            Future<List<TravelPlaceCandidate>> future = futures.get(i);
+            try {
+                long remaining = Math.max(0, deadline - System.nanoTime());
+                for (TravelPlaceCandidate c : future.get(remaining, TimeUnit.NANOSECONDS)) {
+                    merged.putIfAbsent(c.getTravelPlaces().getId(), c);
+                }
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                log.warn("  SeedQuery 검색 타임아웃 (전체 {}ms 초과): {}", queryTimeoutMs, seedQueries.get(i));
+            } catch (ExecutionException e) {
+                log.warn("  SeedQuery 검색 실패: {}", seedQueries.get(i), e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.forEach(f -> f.cancel(true));
+                throw new IllegalStateException("후보 검색이 중단되었습니다.", e);
+            }
+        }
+
+        return new ArrayList<>(merged.values());
+    }
+
+    // multi-vector 모드도 같은 queryTimeoutMs 마감 (쿼리가 하나라 마감을 넘기거나 실패하면 전체 결과 제외)
+    private List<TravelPlaceCandidate> searchInOneQueryWithDeadline(
+            List<String> seedQueries, Map<String, float[]> embeddings) {
+        Future<List<TravelPlaceCandidate>> future = executor.submit(() -> searchInOneQuery(seedQueries, embeddings));
+        try {
+            return future.get(queryTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            log.warn("  SeedQuery 묶음 검색 타임아웃 ({}ms 초과): {}개 쿼리", queryTimeoutMs, seedQueries.size());
+        } catch (ExecutionException e) {
+            log.warn("  SeedQuery 묶음 검색 실패: {}개 쿼리", seedQueries.size(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new IllegalStateException("후보 검색이 중단되었습니다.", e);
+        }
+        return new ArrayList<>();
+    }
+
+    /**
+     * 모든 쿼리 벡터를 searchByVectors 한 번으로 검색
+     * - 결과는 queryIndex, score 순으로 정렬되어 오며 id 중복이 없습니다.
+     * - 쿼리별 상위 구간 셔플은 기존 searchAndShuffle과 동일하게 유지합니다.
+     */
+    private List<TravelPlaceCandidate> searchInOneQuery(List<String> seedQueries, Map<String, float[]> embeddings) {
+        List<float[]> vectors = seedQueries.stream()
+                .map(q -> embeddings.containsKey(q) ? embeddings.get(q) : embeddingModel.embed(q))
+                .toList();
+        if (vectors.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<TravelPlaceCandidate> rows = placeVectorSearchService.searchByVectors(vectors, SEARCH_LIMIT);
+
+        Map<Integer, List<TravelPlaceCandidate>> byQuery = new LinkedHashMap<>();
+        for (TravelPlaceCandidate c : rows) {
+            byQuery.computeIfAbsent(c.getQueryIndex(), k -> new ArrayList<>()).add(c);
+        }
+
+        List<TravelPlaceCandidate> result = new ArrayList<>(rows.size());
+        for (List<TravelPlaceCandidate> group : byQuery.values()) {
+            Collections.shuffle(group.subList(0, Math.min(SHUFFLE_RANGE, group.size())));
+            result.addAll(group);
+        }
+        return result;
+    }
+
+    private List<TravelPlaceCandidate> searchWithPermit(String query, float[] embedding)
+            throws InterruptedException {
+        permits.acquire();
+        try {
+            return searchAndShuffle(embedding != null ? embedding : embeddingModel.embed(query));
+        } finally {
+            permits.release();
+        }
+    }
+
+    // 벡터 검색 & 셔플
+    private List<TravelPlaceCandidate> searchAndShuffle(float[] embedding) {
+        List<TravelPlaceCandidate> results = placeVectorSearchService.searchByVector(embedding, SEARCH_LIMIT);
+        int shuffleRange = Math.min(SHUFFLE_RANGE, results.size());
+        Collections.shuffle(results.subList(0, shuffleRange));
+        return results;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
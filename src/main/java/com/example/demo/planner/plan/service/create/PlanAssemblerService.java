@@ -8,42 +8,47 @@ import java.util.Map;
 import java.util.stream.Collectors;
 
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import com.example.demo.planner.plan.agent.PlanSchedulerAgent;
 import com.example.demo.planner.plan.dao.PlanDao;
 import com.example.demo.planner.plan.dao.PlanDayDao;
 import com.example.demo.planner.plan.dao.PlanPlaceDao;
 import com.example.demo.planner.plan.dto.entity.Plan;
 import com.example.demo.planner.plan.dto.entity.PlanDay;
 import com.example.demo.planner.plan.dto.entity.PlanPlace;
-import com.example.demo.planner.plan.dto.entity.PlanScheduleRow;
 import com.example.demo.planner.plan.dto.entity.PlanSnapshot;
 import com.example.demo.planner.plan.dto.entity.TravelPlaces;
 import com.example.demo.planner.plan.dto.response.DayPlanResult;
 import com.example.demo.planner.plan.dto.response.PlanDetailResponse;
 import com.example.demo.planner.plan.dto.response.PlanScheduleResult;
+import com.example.demo.planner.plan.metrics.PlanStageMetrics;
 import com.example.demo.planner.plan.service.PlanSnapshotService;
 import com.example.demo.planner.plan.utils.DateTimeUtil;
-import com.fasterxml.jackson.databind.ObjectMapper;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * 일정 생성 결과 저장
+ * - 1~2) 시간 배치(LLM 호출 포함)는 트랜잭션 밖에서 실행 → LLM을 기다리는 동안 DB 커넥션을 잡지 않음
+ * - 3~5) 저장만 TransactionTemplate 안에서 짧게 실행 (커넥션은 이 구간에서만 사용)
+ * - 6) 스냅샷은 커밋 후 별도 트랜잭션 (실패해도 일정 저장은 유지)
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class PlanAssemblerService {
 
-    private final PlanSchedulerAgent planSchedulerAgent;
-    private final ObjectMapper objectMapper;
+    private final PlanScheduleService planScheduleService;
     private final PlanSnapshotService planSnapshotService;
     private final PlanDao planDao;
     private final PlanDayDao planDayDao;
     private final PlanPlaceDao planPlaceDao;
+    private final PlanProgressPublisher planProgressPublisher;
+    private final PlanStageMetrics planStageMetrics;
+    private final TransactionTemplate transactionTemplate;
 
 
-    @Transactional
     public PlanDetailResponse createAndSavePlan(
             List<DayPlanResult> dayPlans,
             Map<String, Object> arguments,
@@ -52,59 +57,67 @@ public class PlanAssemblerService {
         LocalDate startDate = LocalDate.parse((String) arguments.get("startDate"));
         int duration = (int) arguments.get("duration");
 
-        // 1) Agent 호출 → JSON 생성
-        String scheduleJson = planSchedulerAgent.createTravelPlan(dayPlans, startDate);
-        PlanScheduleResult scheduleResult = parseScheduleJson(scheduleJson);
-
-        // 2) placeId → TravelPlaces 매핑 준비
+        // 1) placeId → TravelPlaces 매핑 준비
         Map<Long, TravelPlaces> placeInfoMap = extractPlaceInfo(dayPlans);
 
-        // 3) Plan 생성 및 저장
-        Plan plan = createPlanEntity(userId, startDate, duration);
-        // log.info(plan.toString());
-        planDao.insertPlan(plan);
+        // 2) 방문 순서 + 시간 배치 (planner.schedule.mode: LLM / LOCAL / LLM_WITH_FALLBACK)
+        //    날짜별로 확정되는 즉시 진행 이벤트 전송 (전체 배치가 끝날 때까지 기다리지 않음)
+        PlanScheduleResult scheduleResult = planScheduleService.schedule(dayPlans, startDate, duration,
+                planProgressPublisher.dayPublisher(userId, placeInfoMap));
+
+        // 3~5) 저장 트랜잭션 (쓰기만)
+        long persistStart = System.nanoTime();
+        Persisted persisted = transactionTemplate.execute(status ->
+                persist(userId, startDate, duration, scheduleResult, placeInfoMap));
+        planStageMetrics.record(PlanStageMetrics.PERSIST, persistStart);
+        planStageMetrics.candidates(PlanStageMetrics.PERSIST, placeInfoMap.size(), persisted.planPlaces().size());
+
+        // 6) 스냅샷 (방금 저장한 엔티티로 JSON 생성, 커밋 후 별도 트랜잭션)
+        planStageMetrics.time(PlanStageMetrics.SNAPSHOT, () -> {
+            try {
+                PlanSnapshot snapShot = planSnapshotService.savePlanSnapshot(
+                        persisted.plan(), persisted.days(), persisted.planPlaces());
+                log.info("  스냅샷 저장 - version {}", snapShot.getVersionNo());
+            } catch (Exception e) {
+                log.warn("  스냅샷 저장 실패 planId={}", persisted.plan().getId(), e);
+            }
+        });
 
-        // 3) PlanDays 생성 및 저장
-        List<PlanDay> days = createPlanDayEntity(startDate, plan.getId(), scheduleResult);
-        planDayDao.insertPlanDayBatch(days);
-        List<Long> planDaysIds = planDayDao.selectPlanDayIdsByPlanId(plan.getId());
-        log.info(days.toString() + "<< <<<<");
-        
-
-        // 4) 각 날짜 엔티티 생성
-        List<PlanPlace> planPlaces = createPlanPlaceEntity(planDaysIds, scheduleResult, startDate, placeInfoMap);
-        // for(PlanPlace planPlace : scheduledPlanPlaces){
-        //     System.out.println(planPlace.toString());
-        //     System.err.println(" >>>");
-        // }
-
-        planPlaceDao.insertPlanPlaceBatch(planPlaces);
-
-        try {
-            days = planDayDao.selectPlanDaysByPlanId(plan.getId());
-            PlanSnapshot snapShot = planSnapshotService.savePlanSnapshot(plan, days, planPlaces);
-            log.info(snapShot+"..,.,.,.,");
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+        // 7) 응답도 메모리의 엔티티로 구성 (다시 조회하지 않음)
+        return PlanDetailResponse.fromEntities(
+                persisted.plan(), persisted.days(), persisted.planPlaces(), persisted.placeIds());
+    }
 
-        List<PlanScheduleRow> planScheduleRows = planDao.selectPlanWithAllByPlanId(plan.getId());
-        PlanDetailResponse reponse = PlanDetailResponse.fromRows(planScheduleRows);
-        return reponse;
+    private record Persisted(Plan plan, List<PlanDay> days, List<PlanPlace> planPlaces, List<Long> placeIds) {
     }
 
+    private Persisted persist(
+            Long userId,
+            LocalDate startDate,
+            int duration,
+            PlanScheduleResult scheduleResult,
+            Map<Long, TravelPlaces> placeInfoMap) {
 
-    // --------------------------------------------------------
-    // JSON 파싱
-    // --------------------------------------------------------
-    private PlanScheduleResult parseScheduleJson(String scheduleJson) {
-        try {
-            return objectMapper.readValue(scheduleJson, PlanScheduleResult.class);
-        } catch (Exception e) {
-            throw new RuntimeException("일정 JSON 파싱 실패", e);
-        }
+        // 3) Plan 생성 및 저장 (id는 useGeneratedKeys)
+        Plan plan = createPlanEntity(userId, startDate, duration);
+        planDao.insertPlan(plan);
+
+        // 4) PlanDays 저장 (RETURNING으로 생성된 id까지 받음)
+        List<PlanDay> days = planDayDao.insertPlanDayBatchReturning(
+                createPlanDayEntity(startDate, plan.getId(), scheduleResult));
+        Map<Integer, Long> dayIds = days.stream()
+                .collect(Collectors.toMap(PlanDay::getDayIndex, PlanDay::getId));
+
+        // 5) PlanPlaces 저장 (생성 id는 planPlaces와 같은 순서, RETURNING 행 순서에 기대지 않음)
+        List<PlanPlace> planPlaces = createPlanPlaceEntity(dayIds, scheduleResult, startDate, placeInfoMap);
+        List<Long> placeIds = planPlaces.isEmpty()
+                ? List.of()
+                : planPlaceDao.insertPlanPlaceBatchReturningIds(planPlaces);
+
+        return new Persisted(plan, days, planPlaces, placeIds);
     }
 
+
     // --------------------------------------------------------
     // Plan 생성
     // --------------------------------------------------------
@@ -152,7 +165,7 @@ public class PlanAssemblerService {
     // PlanPlace 생성
     // --------------------------------------------------------
     private List<PlanPlace> createPlanPlaceEntity(
-            List<Long> planDayIds,
+            Map<Integer, Long> planDayIds,
             PlanScheduleResult schedule,
             LocalDate startDate,
             Map<Long, TravelPlaces> placeInfoMap) {
@@ -162,7 +175,7 @@ public class PlanAssemblerService {
 
             int dayIndex = d.getDayIndex();
 
-            Long planDayId = planDayIds.get(dayIndex - 1);
+            Long planDayId = planDayIds.get(dayIndex);
 
             for (PlanScheduleResult.Item item : d.getItems()) {
 
@@ -0,0 +1,174 @@
+package com.example.demo.planner.plan.service.create;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.planner.plan.metrics.PlanStageMetrics;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 일정 생성 응답 시간 제한 (planner.sla.*)
+ * - 요청 전체 예산(budget-ms) 중 LLM 단계마다 비율(share)만큼 시간을 배정
+ * - 배정 시간 안에 끝나지 않거나 실패/잘못된 응답이면 규칙 기반 결과로 대체하고 단계 이름을 기록
+ *   normalize: DurationParser / DateParser, seed_query: 템플릿 쿼리, schedule_llm: LocalScheduleService
+ * - 같은 단계의 호출이 여러 번이면 처음 호출 시점부터 잰 같은 마감을 공유
+ * - 비활성화 상태면 LLM 결과를 그대로 기다림 (기존 동작)
+ *
+ * 마감 정보는 begin() 호출 스레드에 묶임 (PlanStageMetrics와 같은 방식)
+ */
+@Component
+@Slf4j
+public class PlanDeadline {
+
+    private final PlanStageMetrics planStageMetrics;
+    private final boolean enabled;
+    private final long budgetMs;
+    private final Map<String, Double> shares;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ThreadLocal<Run> current = new ThreadLocal<>();
+
+    private static class Run {
+        final long deadlineNanos;
+        final Map<String, Long> stageDeadlines = new HashMap<>();
+        final Set<String> degraded = new LinkedHashSet<>();
+
+        Run(long budgetMs) {
+            this.deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budgetMs);
+        }
+    }
+
+    public PlanDeadline(
+            PlanStageMetrics planStageMetrics,
+            @Value("${planner.sla.enabled:false}") boolean enabled,
+            @Value("${planner.sla.budget-ms:5000}") long budgetMs,
+            @Value("${planner.sla.share.normalize:0.15}") double normalizeShare,
+            @Value("${planner.sla.share.seed-query:0.15}") double seedQueryShare,
+            @Value("${planner.sla.share.schedule:0.4}") double scheduleShare) {
+        this.planStageMetrics = planStageMetrics;
+        this.enabled = enabled;
+        this.budgetMs = budgetMs;
+        this.shares = Map.of(
+                PlanStageMetrics.NORMALIZE, normalizeShare,
+                PlanStageMetrics.SEED_QUERY, seedQueryShare,
+                PlanStageMetrics.SCHEDULE_LLM, scheduleShare);
+    }
+
+    public void begin() {
+        if (enabled) {
+            current.set(new Run(budgetMs));
+        }
+    }
+
+    /** 요청 종료 (성공/실패 모두 호출) */
+    public void end() {
+        current.remove();
+    }
+
+    public boolean isActive() {
+        return current.get() != null;
+    }
+
+    /**
+     * 단계에 남은 시간(ms) - 단계 배정 시간과 전체 남은 시간 중 작은 값
+     * 비활성화 상태면 Long.MAX_VALUE
+     */
+    public long remainingMs(String stage) {
+        Run run = current.get();
+        if (run == null) {
+            return Long.MAX_VALUE;
+        }
+        long stageDeadline = run.stageDeadlines.computeIfAbsent(stage, s -> System.nanoTime()
+                + TimeUnit.MILLISECONDS.toNanos((long) (budgetMs * shares.getOrDefault(s, 0.0))));
+        long deadline = Math.min(stageDeadline, run.deadlineNanos);
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()));
+    }
+
+    /**
+     * LLM 단계 실행
+     * - 비활성화: llm 결과를 그대로 반환 (예외도 그대로)
+     * - 활성화: 남은 시간만큼만 기다리고, 타임아웃/실패면 fallback 결과 반환 + 대체 단계로 기록
+     *   llm 안에서 던진 예외(파싱/검증 실패 포함)도 대체 대상
+     */
+    public <T> T call(String stage, Supplier<T> llm, Supplier<T> fallback) {
+        if (!isActive()) {
+            return llm.get();
+        }
+        long timeoutMs = remainingMs(stage);
+        if (timeoutMs == 0) {
+            log.warn("  [SLA] {} 단계 시간 없음 → 규칙 기반으로 대체", stage);
+            degraded(stage);
+            return fallback.get();
+        }
+
+        Future<T> future = executor.submit(llm::get);
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            log.warn("  [SLA] {} 단계 타임아웃 ({}ms) → 규칙 기반으로 대체", stage, timeoutMs);
+        } catch (ExecutionException e) {
+            log.warn("  [SLA] {} 단계 실패 → 규칙 기반으로 대체: {}", stage, e.getCause().toString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new IllegalStateException("일정 생성이 중단되었습니다.", e);
+        }
+        degraded(stage);
+        return fallback.get();
+    }
+
+    /** 규칙 기반으로 대체된 단계 기록 (비활성화 상태면 무시) */
+    public void degraded(String stage) {
+        Run run = current.get();
+        if (run != null && run.degraded.add(stage)) {
+            planStageMetrics.degraded(stage);
+        }
+    }
+
+    /** 이번 요청에서 대체된 단계 (호출 순서) */
+    public List<String> degradedStages() {
+        Run run = current.get();
+        return run == null ? List.of() : new ArrayList<>(run.degraded);
+    }
+
+    /** 응답 메시지 뒤에 붙일 안내 (대체된 단계가 없으면 빈 문자열) */
+    public String degradedNotice() {
+        List<String> stages = degradedStages();
+        if (stages.isEmpty()) {
+            return "";
+        }
+        List<String> labels = stages.stream().map(PlanDeadline::label).toList();
+        return " (빠른 생성을 위해 " + String.join(", ", labels) + " 단계는 기본 규칙으로 처리했습니다.)";
+    }
+
+    private static String label(String stage) {
+        return switch (stage) {
+            case PlanStageMetrics.NORMALIZE -> "기간/출발일 해석";
+            case PlanStageMetrics.SEED_QUERY -> "검색어 생성";
+            case PlanStageMetrics.SCHEDULE_LLM -> "시간 배치";
+            default -> stage;
+        };
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
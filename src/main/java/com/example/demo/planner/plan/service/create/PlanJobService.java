@@ -0,0 +1,280 @@
+package com.example.demo.planner.plan.service.create;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.demo.common.chat.intent.dto.IntentCommand;
+import com.example.demo.common.chat.pipeline.AiAgentResponse;
+import com.example.demo.common.global.exception.BusinessException;
+import com.example.demo.common.global.exception.errorcode.GlobalErrorCode;
+import com.example.demo.common.sse.service.SseService;
+import com.example.demo.planner.plan.dto.response.PlanJobResponse;
+import com.example.demo.planner.plan.dto.response.PlanJobStatus;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 비동기 일정 생성 작업
+ * - 요청 스레드는 jobId만 받고 바로 반환, 파이프라인은 고정 크기 풀에서 실행
+ * - 사용자당 진행 중인 작업은 하나 (중복 요청은 기존 작업을 돌려줌)
+ * - 제한 시간을 넘기거나 취소되면 작업 스레드를 interrupt하고 결과는 버림
+ * - 끝난 작업은 retention 동안 조회 가능, 완료 시 SSE plan-job 이벤트 전송
+ */
+@Service
+@Slf4j
+public class PlanJobService {
+
+    public static final String EVENT_NAME = "plan-job";
+
+    private final TravelPlannerService travelPlannerService;
+    private final SseService sseService;
+    private final long timeoutSec;
+    private final long retentionSec;
+
+    private final ThreadPoolExecutor executor;
+    private final ScheduledExecutorService watchdog;
+
+    private final Map<String, PlanJob> jobs = new ConcurrentHashMap<>();
+    // userId → 진행 중인 jobId
+    private final Map<Long, String> activeByUser = new ConcurrentHashMap<>();
+
+    public PlanJobService(
+            TravelPlannerService travelPlannerService,
+            SseService sseService,
+            @Value("${planner.job.max-concurrency:4}") int maxConcurrency,
+            @Value("${planner.job.queue-capacity:20}") int queueCapacity,
+            @Value("${planner.job.timeout-sec:120}") long timeoutSec,
+            @Value("${planner.job.retention-sec:600}") long retentionSec) {
+        this.travelPlannerService = travelPlannerService;
+        this.sseService = sseService;
+        this.timeoutSec = timeoutSec;
+        this.retentionSec = retentionSec;
+
+        AtomicInteger seq = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                maxConcurrency, maxConcurrency, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                r -> new Thread(r, "plan-job-" + seq.incrementAndGet()),
+                new ThreadPoolExecutor.AbortPolicy());
+        ScheduledThreadPoolExecutor watchdog = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread t = new Thread(r, "plan-job-watchdog");
+            t.setDaemon(true);
+            return t;
+        });
+        // 취소한 감시 예약은 큐에서 바로 제거
+        watchdog.setRemoveOnCancelPolicy(true);
+        this.watchdog = watchdog;
+    }
+
+    /** 작업 내부 상태 (상태 전이는 synchronized로 한 번만) */
+    private static class PlanJob {
+        final String id;
+        final Long userId;
+        final OffsetDateTime submittedAt = OffsetDateTime.now();
+        volatile Future<?> future;
+        volatile ScheduledFuture<?> timeout;
+        volatile PlanJobStatus status = PlanJobStatus.QUEUED;
+        volatile OffsetDateTime startedAt;
+        volatile OffsetDateTime finishedAt;
+        volatile AiAgentResponse result;
+        volatile String error;
+
+        PlanJob(String id, Long userId) {
+            this.id = id;
+            this.userId = userId;
+        }
+
+        synchronized boolean start() {
+            if (status != PlanJobStatus.QUEUED) {
+                return false;
+            }
+            status = PlanJobStatus.RUNNING;
+            startedAt = OffsetDateTime.now();
+            return true;
+        }
+
+        synchronized boolean finish(PlanJobStatus next, AiAgentResponse result, String error) {
+            if (status.isFinished()) {
+                return false;
+            }
+            this.status = next;
+            this.result = result;
+            this.error = error;
+            this.finishedAt = OffsetDateTime.now();
+            return true;
+        }
+
+        PlanJobResponse toResponse() {
+            return PlanJobResponse.builder()
+                    .jobId(id)
+                    .userId(userId)
+                    .status(status)
+                    .submittedAt(submittedAt)
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .result(result)
+                    .error(error)
+                    .build();
+        }
+    }
+
+    /**
+     * 일정 생성 작업 등록
+     * @return 새 작업, 또는 이미 진행 중인 같은 사용자의 작업
+     */
+    public PlanJobResponse submit(IntentCommand command, Long userId) {
+        purgeExpired();
+
+        // jobs에 먼저 넣은 뒤 activeByUser에 공개 (다른 요청이 id를 보고 jobs에서 못 찾는 일이 없도록)
+        PlanJob job = new PlanJob(UUID.randomUUID().toString(), userId);
+        jobs.put(job.id, job);
+
+        // 진행 중인 작업 확인과 교체를 사용자 키 하나에서 원자적으로
+        PlanJob[] active = { job };
+        activeByUser.compute(userId, (key, currentId) -> {
+            PlanJob current = currentId == null ? null : jobs.get(currentId);
+            if (current != null && !current.status.isFinished()) {
+                active[0] = current;
+                return currentId;
+            }
+            return job.id;
+        });
+        if (active[0] != job) {
+            jobs.remove(job.id);
+            log.info("[PlanJob] 진행 중인 작업 재사용 userId={} jobId={}", userId, active[0].id);
+            return active[0].toResponse();
+        }
+
+        try {
+            job.future = executor.submit(() -> run(job, command));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            activeByUser.remove(userId, job.id);
+            log.warn("[PlanJob] 대기열 초과로 거절 userId={}", userId);
+            throw new BusinessException(GlobalErrorCode.TOO_MANY_REQUESTS);
+        }
+
+        job.timeout = watchdog.schedule(() -> {
+            if (complete(job, PlanJobStatus.TIMED_OUT, null, "제한 시간(" + timeoutSec + "초)을 초과했습니다.")) {
+                interrupt(job);
+                log.warn("[PlanJob] 시간 초과 jobId={}", job.id);
+            }
+        }, timeoutSec, TimeUnit.SECONDS);
+        // 등록 전에 이미 끝난 작업 (complete에서 취소하지 못함)
+        if (job.status.isFinished()) {
+            job.timeout.cancel(false);
+        }
+
+        log.info("[PlanJob] 등록 userId={} jobId={} (대기 {}건)", userId, job.id, executor.getQueue().size());
+        return job.toResponse();
+    }
+
+    /** 작업 조회 (본인 작업만) */
+    public PlanJobResponse get(String jobId, Long userId) {
+        return findOwned(jobId, userId).toResponse();
+    }
+
+    public List<PlanJobResponse> findByUser(Long userId) {
+        return jobs.values().stream()
+                .filter(j -> j.userId.equals(userId))
+                .sorted((a, b) -> b.submittedAt.compareTo(a.submittedAt))
+                .map(PlanJob::toResponse)
+                .toList();
+    }
+
+    /**
+     * 작업 취소 (본인 작업만)
+     * - 이미 끝난 작업이면 상태만 돌려줌
+     */
+    public PlanJobResponse cancel(String jobId, Long userId) {
+        PlanJob job = findOwned(jobId, userId);
+        if (complete(job, PlanJobStatus.CANCELLED, null, null)) {
+            interrupt(job);
+            log.info("[PlanJob] 취소 jobId={}", jobId);
+        }
+        return job.toResponse();
+    }
+
+    // ==================== 내부 ====================
+
+    private void run(PlanJob job, IntentCommand command) {
+        if (!job.start()) {
+            return;
+        }
+        try {
+            AiAgentResponse response = travelPlannerService.execute(command, job.userId);
+            complete(job, PlanJobStatus.SUCCEEDED, response, null);
+        } catch (Exception e) {
+            if (!complete(job, PlanJobStatus.FAILED, null, e.getMessage())) {
+                // 취소/시간 초과로 interrupt된 경우
+                return;
+            }
+            log.warn("[PlanJob] 실패 jobId={}", job.id, e);
+        }
+    }
+
+    private boolean complete(PlanJob job, PlanJobStatus status, AiAgentResponse result, String error) {
+        if (!job.finish(status, result, error)) {
+            return false;
+        }
+        activeByUser.remove(job.userId, job.id);
+        // 끝난 작업의 감시 예약은 바로 제거 (timeout-sec 동안 작업을 붙잡지 않도록)
+        ScheduledFuture<?> timeout = job.timeout;
+        if (timeout != null) {
+            timeout.cancel(false);
+        }
+        sseService.sendIfSubscribed(String.valueOf(job.userId), EVENT_NAME, job.toResponse());
+        log.info("[PlanJob] 종료 jobId={} status={}", job.id, status);
+        return true;
+    }
+
+    private void interrupt(PlanJob job) {
+        Future<?> future = job.future;
+        if (future != null) {
+            future.cancel(true);
+        }
+    }
+
+    private PlanJob find(String jobId) {
+        PlanJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new BusinessException(GlobalErrorCode.NOT_FOUND);
+        }
+        return job;
+    }
+
+    private PlanJob findOwned(String jobId, Long userId) {
+        PlanJob job = find(jobId);
+        if (!job.userId.equals(userId)) {
+            throw new BusinessException(GlobalErrorCode.FORBIDDEN);
+        }
+        return job;
+    }
+
+    private void purgeExpired() {
+        OffsetDateTime cutoff = OffsetDateTime.now().minusSeconds(retentionSec);
+        jobs.values().removeIf(j -> j.finishedAt != null && j.finishedAt.isBefore(cutoff));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        watchdog.shutdownNow();
+        executor.shutdownNow();
+    }
+}
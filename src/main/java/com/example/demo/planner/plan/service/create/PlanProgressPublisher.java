@@ -0,0 +1,121 @@
+package com.example.demo.planner.plan.service.create;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.springframework.stereotype.Service;
+
+import com.example.demo.common.sse.service.SseService;
+import com.example.demo.planner.plan.dto.ClusterBundle;
+import com.example.demo.planner.plan.dto.entity.TravelPlaces;
+import com.example.demo.planner.plan.dto.response.PlanDetailResponse;
+import com.example.demo.planner.plan.dto.response.PlanProgressEvent;
+import com.example.demo.planner.plan.dto.response.PlanProgressEvent.ClusterSummary;
+import com.example.demo.planner.plan.dto.response.PlanProgressEvent.ScheduledDay;
+import com.example.demo.planner.plan.dto.response.PlanProgressEvent.ScheduledPlace;
+import com.example.demo.planner.plan.dto.response.PlanProgressStage;
+import com.example.demo.planner.plan.dto.response.PlanScheduleResult;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 일정 생성 파이프라인 진행 상황을 사용자의 SSE 채널로 전송
+ * - 이벤트 이름: plan-progress
+ * - 구독하지 않은 사용자에게는 보내지 않으며, 전송 실패가 일정 생성을 막지 않음
+ * - 경과 시간은 실행별 시작 시각 기준: started() 호출 스레드(파이프라인)에 묶음
+ *   같은 사용자의 실행이 동시에 돌아도(동기 경로는 중복을 막지 않음) 서로의 시작 시각을 덮어쓰지 않음
+ * - 날짜별 이벤트는 LLM 작업 스레드에서 전송되므로 dayPublisher()가 파이프라인 스레드에서 시작 시각을 미리 잡아 둠
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PlanProgressPublisher {
+
+    public static final String EVENT_NAME = "plan-progress";
+
+    private final SseService sseService;
+
+    private final ThreadLocal<Long> startedAt = new ThreadLocal<>();
+
+    public void started(Long userId) {
+        startedAt.set(System.nanoTime());
+        publish(userId, PlanProgressStage.STARTED, "일정 생성을 시작합니다.", null);
+    }
+
+    public void seedQueriesReady(Long userId, List<String> seedQueries) {
+        publish(userId, PlanProgressStage.SEED_QUERIES_READY,
+                "검색 키워드 " + seedQueries.size() + "개를 만들었습니다.", seedQueries);
+    }
+
+    public void candidatesFound(Long userId, int count) {
+        publish(userId, PlanProgressStage.CANDIDATES_FOUND,
+                "후보 장소 " + count + "곳을 찾았습니다.", count);
+    }
+
+    public void clustersFormed(Long userId, ClusterBundle clusters) {
+        List<ClusterSummary> summaries = clusters.getClusters().stream()
+                .map(c -> new ClusterSummary(c.getId(), c.getCenterLat(), c.getCenterLng(), c.size()))
+                .toList();
+        publish(userId, PlanProgressStage.CLUSTERS_FORMED,
+                "동선 기준으로 " + summaries.size() + "개 권역을 나눴습니다.", summaries);
+    }
+
+    /** 파이프라인 스레드에서 호출: 반환한 콜백은 다른 스레드에서 불려도 이 실행의 시작 시각 기준 */
+    public Consumer<PlanScheduleResult.Day> dayPublisher(Long userId, Map<Long, TravelPlaces> placeInfoMap) {
+        Long start = startedAt.get();
+        return day -> dayScheduled(userId, start, day, placeInfoMap);
+    }
+
+    private void dayScheduled(Long userId, Long start, PlanScheduleResult.Day day,
+            Map<Long, TravelPlaces> placeInfoMap) {
+        List<ScheduledPlace> places = new ArrayList<>();
+        for (PlanScheduleResult.Item item : day.getItems()) {
+            TravelPlaces p = placeInfoMap.get(item.getId());
+            places.add(new ScheduledPlace(
+                    item.getId(),
+                    p != null ? p.getTitle() : null,
+                    p != null ? p.getNormalizedCategory() : null,
+                    p != null ? p.getLat() : null,
+                    p != null ? p.getLng() : null,
+                    item.getStart(),
+                    item.getEnd(),
+                    item.getOrder()));
+        }
+        publish(userId, start, PlanProgressStage.DAY_SCHEDULED,
+                day.getDayIndex() + "일차 일정을 배치했습니다.",
+                new ScheduledDay(day.getDayIndex(), places));
+    }
+
+    public void planSaved(Long userId, PlanDetailResponse response) {
+        publish(userId, PlanProgressStage.PLAN_SAVED, "일정이 저장되었습니다.", response);
+        startedAt.remove();
+    }
+
+    public void failed(Long userId, Exception e) {
+        publish(userId, PlanProgressStage.FAILED, "일정 생성에 실패했습니다.", e.getMessage());
+        startedAt.remove();
+    }
+
+    private void publish(Long userId, PlanProgressStage stage, String message, Object data) {
+        publish(userId, startedAt.get(), stage, message, data);
+    }
+
+    private void publish(Long userId, Long start, PlanProgressStage stage, String message, Object data) {
+        if (userId == null) {
+            return;
+        }
+        PlanProgressEvent event = PlanProgressEvent.builder()
+                .stage(stage)
+                .message(message)
+                .data(data)
+                .elapsedMs(start == null ? 0 : (System.nanoTime() - start) / 1_000_000)
+                .build();
+
+        if (!sseService.sendIfSubscribed(String.valueOf(userId), EVENT_NAME, event)) {
+            log.debug("  진행 이벤트 미전송 (구독 없음) userId={} stage={}", userId, stage);
+        }
+    }
+}
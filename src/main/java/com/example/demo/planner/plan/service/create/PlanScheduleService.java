@@ -0,0 +1,426 @@
+package com.example.demo.planner.plan.service.create;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.demo.planner.plan.agent.PlanSchedulerAgent;
+import com.example.demo.planner.plan.dto.ClusterPlace;
+import com.example.demo.planner.plan.dto.response.DayPlanResult;
+import com.example.demo.planner.plan.dto.response.PlanScheduleResult;
+import com.example.demo.planner.plan.metrics.PlanStageMetrics;
+import com.example.demo.planner.plan.utils.DateTimeUtil;
+import com.example.demo.planner.plan.utils.ScheduleDsl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 날짜별 장소 목록 → PlanScheduleResult (순서 + 시작/종료 시각)
+ * - 방문 순서는 DayRouteOptimizerService가 먼저 정함
+ * - 시간 배치는 planner.schedule.mode로 선택
+ *   LLM: PlanSchedulerAgent 결과만 사용 (실패하면 일정 생성 실패)
+ *   LOCAL: LocalScheduleService로 즉시 계산
+ *   LLM_WITH_FALLBACK: LLM을 llm-timeout-ms까지 기다리고, 타임아웃/실패/잘못된 응답이면 LOCAL 결과 사용
+ * - llm-per-day=true면 날짜마다 따로 LLM을 호출해 llm-day-parallelism개까지 동시에 실행
+ *   (전체 소요 시간 ≈ 가장 긴 하루, LLM_WITH_FALLBACK에서는 실패한 날짜만 LOCAL로 대체)
+ * - LLM 응답 형식은 planner.schedule.llm-format으로 선택
+ *   JSON: 항목별 JSON (Jackson 파싱)
+ *   LINES: 한 줄 형식 d1|12|15:00|16:30 (ScheduleDsl, 스트리밍으로 받으며 해석하고 누락/겹침은 로컬 보정)
+ *   받은 줄이 입력 장소의 lines-min-parsed-ratio 미만이면 (날짜별/전체) 잘못된 응답으로 처리
+ * - 날짜별 결과는 확정되는 즉시 onDay로 넘김 (날짜별 호출은 그 날짜 검증 직후, LINES는 다음 날짜 줄이 나오는 순간)
+ *   대체할 때는 이미 넘긴 LLM 날짜는 그대로 두고 나머지 날짜만 LOCAL로 채움
+ * - 응답 시간 제한(PlanDeadline) 중이면 LLM 모드도 LLM_WITH_FALLBACK처럼 동작하고,
+ *   기다리는 시간은 schedule 단계 남은 시간까지로 줄어듦 (LOCAL 결과를 쓰면 대체 단계로 기록)
+ */
+@Service
+@Slf4j
+public class PlanScheduleService {
+
+    public enum Mode {
+        LLM, LOCAL, LLM_WITH_FALLBACK
+    }
+
+    public enum Format {
+        JSON, LINES
+    }
+
+    private final PlanSchedulerAgent planSchedulerAgent;
+    private final LocalScheduleService localScheduleService;
+    private final DayRouteOptimizerService dayRouteOptimizerService;
+    private final PlanStageMetrics planStageMetrics;
+    private final PlanDeadline planDeadline;
+    private final ObjectMapper objectMapper;
+
+    private final Mode mode;
+    private final long llmTimeoutMs;
+    private final boolean llmPerDay;
+    private final int llmDayParallelism;
+    private final Format llmFormat;
+    private final double linesMinParsedRatio;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public PlanScheduleService(
+            PlanSchedulerAgent planSchedulerAgent,
+            LocalScheduleService localScheduleService,
+            DayRouteOptimizerService dayRouteOptimizerService,
+            PlanStageMetrics planStageMetrics,
+            PlanDeadline planDeadline,
+            ObjectMapper objectMapper,
+            @Value("${planner.schedule.mode:LLM_WITH_FALLBACK}") Mode mode,
+            @Value("${planner.schedule.llm-timeout-ms:30000}") long llmTimeoutMs,
+            @Value("${planner.schedule.llm-per-day:false}") boolean llmPerDay,
+            @Value("${planner.schedule.llm-day-parallelism:4}") int llmDayParallelism,
+            @Value("${planner.schedule.llm-format:LINES}") Format llmFormat,
+            @Value("${planner.schedule.lines-min-parsed-ratio:0.8}") double linesMinParsedRatio) {
+        this.planSchedulerAgent = planSchedulerAgent;
+        this.localScheduleService = localScheduleService;
+        this.dayRouteOptimizerService = dayRouteOptimizerService;
+        this.planStageMetrics = planStageMetrics;
+        this.planDeadline = planDeadline;
+        this.objectMapper = objectMapper;
+        this.mode = mode;
+        this.llmTimeoutMs = llmTimeoutMs;
+        this.llmPerDay = llmPerDay;
+        this.llmDayParallelism = Math.max(1, llmDayParallelism);
+        this.llmFormat = llmFormat;
+        this.linesMinParsedRatio = linesMinParsedRatio;
+    }
+
+    /**
+     * @param onDay 날짜별 확정 결과 (날짜마다 한 번, LLM 작업 스레드에서 호출될 수 있음)
+     *              반환 결과에는 onDay로 넘긴 날짜가 그대로 들어감
+     */
+    public PlanScheduleResult schedule(List<DayPlanResult> dayPlans, LocalDate startDate, int totalDays,
+            Consumer<PlanScheduleResult.Day> onDay) {
+
+        // 1) 날짜별 방문 순서 최적화 (좌표 기반)
+        boolean keepOrder = planStageMetrics.time(PlanStageMetrics.ROUTE,
+                () -> dayRouteOptimizerService.optimize(dayPlans, totalDays));
+
+        // 2) 시간 배치
+        DaySink sink = new DaySink(onDay);
+        Mode effective = mode == Mode.LLM && planDeadline.isActive() ? Mode.LLM_WITH_FALLBACK : mode;
+        return switch (effective) {
+            case LOCAL -> sink.acceptAll(scheduleLocal(dayPlans, totalDays));
+            case LLM -> planStageMetrics.time(PlanStageMetrics.SCHEDULE_LLM, () -> llmPerDay
+                    ? scheduleDays(dayPlans, startDate, totalDays, keepOrder, sink)
+                    : sink.acceptAll(validate(
+                            requestSchedule(dayPlans, startDate, totalDays, keepOrder, sink), dayPlans)));
+            case LLM_WITH_FALLBACK -> scheduleWithFallback(dayPlans, startDate, totalDays, keepOrder, sink);
+        };
+    }
+
+    private PlanScheduleResult scheduleLocal(List<DayPlanResult> dayPlans, int totalDays) {
+        return planStageMetrics.time(PlanStageMetrics.SCHEDULE_LOCAL,
+                () -> localScheduleService.schedule(dayPlans, totalDays));
+    }
+
+    private PlanScheduleResult scheduleWithFallback(
+            List<DayPlanResult> dayPlans, LocalDate startDate, int totalDays, boolean keepOrder, DaySink sink) {
+
+        long timeoutMs = Math.min(llmTimeoutMs, planDeadline.remainingMs(PlanStageMetrics.SCHEDULE_LLM));
+        if (timeoutMs == 0) {
+            log.warn("  일정 LLM 시간 없음 → 로컬 배치로 대체");
+            return fillLocal(dayPlans, totalDays, sink);
+        }
+        if (llmPerDay) {
+            return scheduleDaysWithFallback(dayPlans, startDate, totalDays, keepOrder, timeoutMs, sink);
+        }
+
+        long llmStart = System.nanoTime();
+        Future<PlanScheduleResult> future = executor.submit(
+                () -> requestSchedule(dayPlans, startDate, totalDays, keepOrder, sink));
+        try {
+            PlanScheduleResult result = validate(future.get(timeoutMs, TimeUnit.MILLISECONDS), dayPlans);
+            planStageMetrics.record(PlanStageMetrics.SCHEDULE_LLM, llmStart);
+            return sink.acceptAll(result);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            log.warn("  일정 LLM 타임아웃 ({}ms) → 로컬 배치로 대체", timeoutMs);
+        } catch (ExecutionException e) {
+            log.warn("  일정 LLM 호출 실패 → 로컬 배치로 대체", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new IllegalStateException("일정 생성이 중단되었습니다.", e);
+        } catch (RuntimeException e) {
+            log.warn("  일정 LLM 응답 오류 → 로컬 배치로 대체: {}", e.getMessage());
+        }
+        return fillLocal(dayPlans, totalDays, sink);
+    }
+
+    // 날짜별 호출 (LLM 모드: 하루라도 실패하면 전체 실패)
+    private PlanScheduleResult scheduleDays(
+            List<DayPlanResult> dayPlans, LocalDate startDate, int totalDays, boolean keepOrder, DaySink sink) {
+
+        List<Future<PlanScheduleResult.Day>> futures = submitDays(dayPlans, startDate, totalDays, keepOrder, sink);
+        List<PlanScheduleResult.Day> days = new ArrayList<>(futures.size());
+        try {
+            for (Future<PlanScheduleResult.Day> future : futures) {
+                days.add(future.get());
+            }
+        } catch (ExecutionException e) {
+            futures.forEach(f -> f.cancel(true));
+            throw new RuntimeException("일정 LLM 호출 실패", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.forEach(f -> f.cancel(true));
+            throw new IllegalStateException("일정 생성이 중단되었습니다.", e);
+        }
+        return merge(days);
+    }
+
+    // 날짜별 호출 (LLM_WITH_FALLBACK: 전체 타임아웃 안에 못 받은 날짜만 로컬 배치)
+    private PlanScheduleResult scheduleDaysWithFallback(List<DayPlanResult> dayPlans, LocalDate startDate,
+            int totalDays, boolean keepOrder, long timeoutMs, DaySink sink) {
+
+        long llmStart = System.nanoTime();
+        long deadline = llmStart + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        List<Future<PlanScheduleResult.Day>> futures = submitDays(dayPlans, startDate, totalDays, keepOrder, sink);
+
+        boolean anyLlm = false;
+        for (int i = 0; i < futures.size(); i++) {
+            anyLlm |= awaitDay(futures.get(i), deadline, dayPlans.get(i).getDayNumber());
+        }
+        if (anyLlm) {
+            planStageMetrics.record(PlanStageMetrics.SCHEDULE_LLM, llmStart);
+        }
+        return fillLocal(dayPlans, totalDays, sink);
+    }
+
+    // 각 작업은 검증을 통과하면 바로 sink로 넘김 (기다리는 쪽 순서와 무관하게 끝난 날짜부터 전송)
+    private List<Future<PlanScheduleResult.Day>> submitDays(List<DayPlanResult> dayPlans, LocalDate startDate,
+            int totalDays, boolean keepOrder, DaySink sink) {
+
+        Semaphore permits = new Semaphore(llmDayParallelism);
+        List<Future<PlanScheduleResult.Day>> futures = new ArrayList<>(dayPlans.size());
+        for (DayPlanResult dayPlan : dayPlans) {
+            futures.add(executor.submit(() -> {
+                permits.acquire();
+                try {
+                    PlanScheduleResult result = requestDaySchedule(dayPlan, startDate, totalDays, keepOrder);
+                    PlanScheduleResult.Day day = validate(result, List.of(dayPlan)).getDays().get(0);
+                    sink.accept(day);
+                    return day;
+                } finally {
+                    permits.release();
+                }
+            }));
+        }
+        return futures;
+    }
+
+    // 마감까지 기다리고, 타임아웃/실패면 false (결과는 작업이 sink에 넘김)
+    private boolean awaitDay(Future<PlanScheduleResult.Day> future, long deadlineNanos, int dayIndex) {
+        try {
+            future.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+            return true;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            log.warn("  {}일차 일정 LLM 타임아웃 → 로컬 배치로 대체", dayIndex);
+        } catch (ExecutionException e) {
+            log.warn("  {}일차 일정 LLM 실패 → 로컬 배치로 대체: {}", dayIndex, e.getCause().toString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new IllegalStateException("일정 생성이 중단되었습니다.", e);
+        }
+        return false;
+    }
+
+    private static PlanScheduleResult merge(List<PlanScheduleResult.Day> days) {
+        PlanScheduleResult result = new PlanScheduleResult();
+        result.setDays(days);
+        return result;
+    }
+
+    // sink에 넘어간 LLM 날짜는 그대로 쓰고 나머지만 로컬 배치 (하나라도 대체하면 대체 단계로 기록)
+    private PlanScheduleResult fillLocal(List<DayPlanResult> dayPlans, int totalDays, DaySink sink) {
+        Map<Integer, PlanScheduleResult.Day> done = sink.close();
+        List<DayPlanResult> missing = dayPlans.stream()
+                .filter(d -> !done.containsKey(d.getDayNumber()))
+                .toList();
+        if (!missing.isEmpty()) {
+            if (missing.size() < dayPlans.size()) {
+                log.info("  {}일 중 {}일은 LLM 결과 사용, 나머지 로컬 배치", dayPlans.size(), dayPlans.size() - missing.size());
+            }
+            planDeadline.degraded(PlanStageMetrics.SCHEDULE_LLM);
+            for (PlanScheduleResult.Day day : scheduleLocal(missing, totalDays).getDays()) {
+                done.put(day.getDayIndex(), day);
+                sink.publish(day);
+            }
+        }
+        List<PlanScheduleResult.Day> days = new ArrayList<>(dayPlans.size());
+        for (DayPlanResult dayPlan : dayPlans) {
+            days.add(done.get(dayPlan.getDayNumber()));
+        }
+        return merge(days);
+    }
+
+    // 날짜 수/장소 id가 입력과 같아야 저장 단계에서 깨지지 않음 (날짜마다 입력 장소가 정확히 한 번씩)
+    private PlanScheduleResult validate(PlanScheduleResult result, List<DayPlanResult> dayPlans) {
+        if (result.getDays() == null || result.getDays().size() != dayPlans.size()) {
+            throw new IllegalStateException("일정 날짜 수 불일치");
+        }
+        Map<Integer, DayPlanResult> byDay = byDayNumber(dayPlans);
+        Set<Integer> seen = new HashSet<>();
+        for (PlanScheduleResult.Day day : result.getDays()) {
+            DayPlanResult dayPlan = byDay.get(day.getDayIndex());
+            if (dayPlan == null || !seen.add(day.getDayIndex())) {
+                throw new IllegalStateException("잘못된 dayIndex: " + day.getDayIndex());
+            }
+            validateDay(day, dayPlan);
+        }
+        return result;
+    }
+
+    private void validateDay(PlanScheduleResult.Day day, DayPlanResult dayPlan) {
+        if (day.getDayIndex() != dayPlan.getDayNumber() || day.getItems() == null) {
+            throw new IllegalStateException("잘못된 dayIndex: " + day.getDayIndex());
+        }
+        Set<Long> expected = new HashSet<>();
+        for (ClusterPlace p : dayPlan.getPlaces()) {
+            expected.add(p.getOriginal().getId());
+        }
+        for (PlanScheduleResult.Item item : day.getItems()) {
+            // 확인한 id는 지움 → 같은 id가 두 번 나오면 여기서 걸림
+            if (!expected.remove(item.getId()) || item.getStart() == null || item.getEnd() == null) {
+                throw new IllegalStateException("입력에 없거나 중복된 장소 또는 시간 누락: id=" + item.getId());
+            }
+            // HH:mm 형식 확인 (아니면 DateTimeParseException)
+            DateTimeUtil.toOffsetDate(item.getStart());
+            DateTimeUtil.toOffsetDate(item.getEnd());
+        }
+        if (!expected.isEmpty()) {
+            throw new IllegalStateException(day.getDayIndex() + "일차 일정에 빠진 장소: " + expected);
+        }
+    }
+
+    private static Map<Integer, DayPlanResult> byDayNumber(List<DayPlanResult> dayPlans) {
+        Map<Integer, DayPlanResult> byDay = new HashMap<>();
+        for (DayPlanResult dayPlan : dayPlans) {
+            byDay.put(dayPlan.getDayNumber(), dayPlan);
+        }
+        return byDay;
+    }
+
+    // 전체 일정 LLM 호출 + 응답 해석 (LINES는 끝난 날짜를 검증 후 바로 sink로)
+    private PlanScheduleResult requestSchedule(List<DayPlanResult> dayPlans, LocalDate startDate,
+            int totalDays, boolean keepOrder, DaySink sink) {
+        if (llmFormat == Format.LINES) {
+            Map<Integer, DayPlanResult> byDay = byDayNumber(dayPlans);
+            ScheduleDsl.Parser parser = new ScheduleDsl.Parser(ScheduleDsl.Input.of(dayPlans, totalDays), done -> {
+                PlanScheduleResult.Day day = done.day();
+                requireParsed(done.parsed(), done.places(), day.getDayIndex() + "일차");
+                validateDay(day, byDay.get(day.getDayIndex()));
+                sink.accept(day);
+            });
+            planSchedulerAgent.streamTravelPlanLines(dayPlans, startDate, keepOrder, parser::feed);
+            return finishLines(parser);
+        }
+        return parseScheduleJson(planSchedulerAgent.createTravelPlan(dayPlans, startDate, keepOrder));
+    }
+
+    // 하루치 LLM 호출 + 응답 해석
+    private PlanScheduleResult requestDaySchedule(
+            DayPlanResult dayPlan, LocalDate startDate, int totalDays, boolean keepOrder) {
+        if (llmFormat == Format.LINES) {
+            ScheduleDsl.Parser parser = new ScheduleDsl.Parser(ScheduleDsl.Input.of(List.of(dayPlan), totalDays));
+            planSchedulerAgent.streamDayPlanLines(dayPlan, startDate, totalDays, keepOrder, parser::feed);
+            return finishLines(parser);
+        }
+        return parseScheduleJson(planSchedulerAgent.createDayPlan(dayPlan, startDate, totalDays, keepOrder));
+    }
+
+    private PlanScheduleResult finishLines(ScheduleDsl.Parser parser) {
+        ScheduleDsl.Result result = parser.finish();
+        requireParsed(result.parsed(), result.places(), "전체 (버린 줄 " + result.dropped() + ")");
+        if (result.dropped() > 0 || result.repaired() > 0) {
+            log.info("  일정 응답 보정 - 버린 줄 {}개, 보정 {}개", result.dropped(), result.repaired());
+        }
+        return result.schedule();
+    }
+
+    // 받은 줄이 적으면 보정 결과가 사실상 로컬 배치 → 잘못된 응답으로 처리
+    // (LLM_WITH_FALLBACK이면 그 날짜부터 로컬 배치 + 대체 단계로 기록, LLM이면 실패)
+    private void requireParsed(int parsed, int places, String scope) {
+        int required = places == 0 ? 0 : Math.max(1, (int) Math.ceil(places * linesMinParsedRatio - 1e-9));
+        if (parsed < required) {
+            throw new IllegalStateException(
+                    "일정 응답 유효 줄 부족 " + scope + ": " + parsed + "/" + places + " (최소 " + required + ")");
+        }
+    }
+
+    private PlanScheduleResult parseScheduleJson(String scheduleJson) {
+        try {
+            return objectMapper.readValue(scheduleJson, PlanScheduleResult.class);
+        } catch (Exception e) {
+            throw new RuntimeException("일정 JSON 파싱 실패", e);
+        }
+    }
+
+    /**
+     * 날짜별 확정 결과 모음
+     * - LLM 작업 스레드(accept)와 대체 처리(close)가 경쟁해도 날짜마다 한 번만 확정/전송
+     * - close 이후 도착한 LLM 결과는 버림 (그 날짜는 LOCAL로 채움)
+     */
+    private static final class DaySink {
+        private final Consumer<PlanScheduleResult.Day> onDay;
+        private final Map<Integer, PlanScheduleResult.Day> days = new HashMap<>();
+        private boolean closed;
+
+        DaySink(Consumer<PlanScheduleResult.Day> onDay) {
+            this.onDay = onDay;
+        }
+
+        synchronized boolean accept(PlanScheduleResult.Day day) {
+            if (closed || days.containsKey(day.getDayIndex())) {
+                return false;
+            }
+            days.put(day.getDayIndex(), day);
+            publish(day);
+            return true;
+        }
+
+        PlanScheduleResult acceptAll(PlanScheduleResult result) {
+            result.getDays().forEach(this::accept);
+            return result;
+        }
+
+        synchronized Map<Integer, PlanScheduleResult.Day> close() {
+            closed = true;
+            return new HashMap<>(days);
+        }
+
+        // 전송 실패가 일정 생성을 막지 않음
+        void publish(PlanScheduleResult.Day day) {
+            try {
+                onDay.accept(day);
+            } catch (RuntimeException e) {
+                log.warn("  {}일차 진행 알림 실패", day.getDayIndex(), e);
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -31,21 +31,31 @@ public class RegionService {
             return new ArrayList<>(candidates);
         }
 
+        // 지역 중심까지 거리는 한 번만 계산해 가중치/반경 필터에서 같이 사용
+        double[] distances = distancesFromRegion(candidates, region);
+
         // 가중치 적용
-        applyScoreWeight(candidates, region);
+        applyScoreWeight(candidates, region, distances);
 
         // 반경 필터링 + fallback
-        return applyRadiusWithFallback(candidates, region, duration);
+        return applyRadiusWithFallback(candidates, distances, duration);
+    }
+
+    private double[] distancesFromRegion(List<TravelPlaceCandidate> candidates, SeoulRegion region) {
+        int n = candidates.size();
+        double[] lats = new double[n];
+        double[] lngs = new double[n];
+        for (int i = 0; i < n; i++) {
+            lats[i] = candidates.get(i).getTravelPlacesLat();
+            lngs[i] = candidates.get(i).getTravelPlacesLng();
+        }
+        return GeoUtils.distancesFrom(region.lat, region.lng, lats, lngs);
     }
 
-    private void applyScoreWeight(List<TravelPlaceCandidate> candidates, SeoulRegion region) {
-        for (TravelPlaceCandidate p : candidates) {
-            double d = GeoUtils.haversine(
-                p.getTravelPlacesLat(),
-                p.getTravelPlacesLng(),
-                region.lat,
-                region.lng
-            );
+    private void applyScoreWeight(List<TravelPlaceCandidate> candidates, SeoulRegion region, double[] distances) {
+        for (int i = 0; i < candidates.size(); i++) {
+            TravelPlaceCandidate p = candidates.get(i);
+            double d = distances[i];
 
             double bonus = 0.0;
 
@@ -68,15 +78,15 @@ public class RegionService {
 
     private List<TravelPlaceCandidate> applyRadiusWithFallback(
             List<TravelPlaceCandidate> list,
-            SeoulRegion region,
+            double[] distances,
             int duration
     ) {
         int min = duration * 6;
 
-        List<TravelPlaceCandidate> r1 = filterByRadius(list, region, 6.0);
+        List<TravelPlaceCandidate> r1 = filterByRadius(list, distances, 6.0);
         if (r1.size() >= min) return sortAndLimit(r1);
 
-        List<TravelPlaceCandidate> r2 = filterByRadius(list, region, 8.0);
+        List<TravelPlaceCandidate> r2 = filterByRadius(list, distances, 8.0);
         if (r2.size() >= min) return sortAndLimit(r2);
 
         return sortAndLimit(list); // fallback
@@ -84,18 +94,12 @@ public class RegionService {
 
     private List<TravelPlaceCandidate> filterByRadius(
             List<TravelPlaceCandidate> list,
-            SeoulRegion region,
+            double[] distances,
             double radius
     ) {
         List<TravelPlaceCandidate> result = new ArrayList<>();
-        for (TravelPlaceCandidate p : list) {
-            double d = GeoUtils.haversine(
-                p.getTravelPlacesLat(),
-                p.getTravelPlacesLng(),
-                region.lat,
-                region.lng
-            );
-            if (d <= radius) result.add(p);
+        for (int i = 0; i < list.size(); i++) {
+            if (distances[i] <= radius) result.add(list.get(i));
         }
         return result;
     }
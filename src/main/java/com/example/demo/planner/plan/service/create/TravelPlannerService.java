@@ -1,14 +1,13 @@
 package com.example.demo.planner.plan.service.create;
 
 import java.time.LocalDate;
-import java.util.Collections;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
-import org.springframework.ai.embedding.EmbeddingModel;
 import org.springframework.stereotype.Component;
 
 import com.example.demo.common.chat.intent.agent.ResponseAgent;
@@ -27,9 +26,12 @@ import com.example.demo.planner.plan.dto.TravelPlaceCandidate;
 import com.example.demo.planner.plan.dto.entity.PlanSnapshot;
 import com.example.demo.planner.plan.dto.response.DayPlanResult;
 import com.example.demo.planner.plan.dto.response.PlanDetailResponse;
+import com.example.demo.planner.plan.metrics.PlanStageMetrics;
 import com.example.demo.planner.plan.service.PlanFacade;
 import com.example.demo.planner.plan.strategy.StandardTravelStrategy;
 import com.example.demo.planner.plan.strategy.TravelPlanStrategy;
+import com.example.demo.planner.plan.utils.DateParser;
+import com.example.demo.planner.plan.utils.DurationParser;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -39,16 +41,19 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class TravelPlannerService implements AiAgent {
 
-    private final EmbeddingModel embeddingModel;
     private final SeedQueryAgent seedQueryAgent;
     private final DurationNormalizerAgent durationNormalizerAgent;
     private final PlanDao planDao;
+    private final PlaceRetrievalService placeRetrievalService;
     private final KMeansClusterService kMeansClusterService;
     private final CategoryFillService categoryFillService;
     private final DaySplitService daySplitService;
     private final RegionService regionService;
     private final StartDateNormalizerAgent startDateNormalizerAgent;
     private final PlanAssemblerService planAssemblerService;
+    private final PlanProgressPublisher planProgressPublisher;
+    private final PlanStageMetrics planStageMetrics;
+    private final PlanDeadline planDeadline;
     private final PlanFacade planFacade;
     private final PlanSnapshotDao planSnapshotDao;
     private final ResponseAgent responseAgent;
@@ -57,15 +62,34 @@ public class TravelPlannerService implements AiAgent {
     public AiAgentResponse execute(IntentCommand command, Long userId) {
 
         log.info("▷▷ 1. TravelPlannerAgent 시작");
+        planProgressPublisher.started(userId);
+        planStageMetrics.begin((String) command.getArguments().get("location"));
+        planDeadline.begin();
+
+        boolean success = false;
+        try {
+            AiAgentResponse result = generatePlan(command, userId);
+            success = true;
+            return result;
+        } catch (RuntimeException e) {
+            planProgressPublisher.failed(userId, e);
+            throw e;
+        } finally {
+            planStageMetrics.end(success);
+            planDeadline.end();
+        }
+    }
 
+    private AiAgentResponse generatePlan(IntentCommand command, Long userId) {
         Map<String, Object> arguments = command.getArguments();
 
         // 전략 선택
         TravelPlanStrategy strategy = selectStrategy(arguments);
 
         // Duration 정규화
-        normalizeDuration(arguments);
+        planStageMetrics.time(PlanStageMetrics.NORMALIZE, () -> normalizeDuration(arguments));
         int duration = (int) arguments.get("duration");
+        planStageMetrics.durationDays(duration);
         String location = (String) arguments.getOrDefault("location", "서울");
 
         int minSpot = strategy.getTotalMinSpot(duration);
@@ -73,27 +97,24 @@ public class TravelPlannerService implements AiAgent {
 
         //  변경됨: 멀티 SeedQuery 생성
         log.info("▷▷ 3. SeedQuery 생성 (Multi Query)");
-        List<String> seedQueries = seedQueryAgent.generateMultiSeedQueries(arguments);
+        List<String> seedQueries = planStageMetrics.time(PlanStageMetrics.SEED_QUERY,
+                () -> seedQueryAgent.generateMultiSeedQueries(arguments, planDeadline.call(PlanStageMetrics.SEED_QUERY,
+                        () -> seedQueryAgent.generateSeedQuery(arguments),
+                        () -> seedQueryAgent.templateSeedQuery(arguments))));
         seedQueries.forEach(q -> log.info("  SeedQuery: {}", q));
+        planProgressPublisher.seedQueriesReady(userId, seedQueries);
 
         //  변경됨: 멀티 벡터 검색 + 병합
         log.info("▷▷ 4. 벡터 검색 (Multi Search) & 병합");
-        List<TravelPlaceCandidate> candidates = seedQueries.stream()
-                .flatMap(q -> {
-                    float[] embedding = embeddingModel.embed(q);
-                    return searchAndShuffle(embedding).stream();
-                })
-                .distinct()
-                .toList();
-
-        //  중복 제거
-        candidates = candidates.stream()
-                .collect(Collectors.toMap(
-                        c -> c.getTravelPlaces().getId(),
-                        c -> c,
-                        (c1, c2) -> c1))
-                .values().stream()
-                .collect(Collectors.toList());
+        // 검색 + 카테고리 보강에 필요한 쿼리를 한 번에 임베딩
+        List<String> allQueries = new ArrayList<>(seedQueries);
+        allQueries.addAll(categoryFillService.reinforcementQueries(arguments));
+        Map<String, float[]> queryEmbeddings = planStageMetrics.time(PlanStageMetrics.EMBEDDING,
+                () -> placeRetrievalService.embedAll(allQueries));
+
+        List<TravelPlaceCandidate> candidates = planStageMetrics.time(PlanStageMetrics.VECTOR_SEARCH,
+                () -> placeRetrievalService.search(seedQueries, queryEmbeddings));
+        planStageMetrics.candidates(PlanStageMetrics.VECTOR_SEARCH, seedQueries.size(), candidates.size());
 
         log.info("  멀티 검색 후보 총 {}개", candidates.size());
 
@@ -106,36 +127,52 @@ public class TravelPlannerService implements AiAgent {
                     .collect(Collectors.toList());
 
             log.info("  방문 이력 제외 - {}개 → {}개", beforeSize, candidates.size());
+            planStageMetrics.candidates(PlanStageMetrics.VISITED_FILTER, beforeSize, candidates.size());
         }
 
         // 지역 필터링
         log.info("▷▷ 5. 지역 필터링");
-        List<TravelPlaceCandidate> filtered = regionService.applyRegionPreference(
-                candidates, location, duration);
+        List<TravelPlaceCandidate> regionInput = candidates;
+        List<TravelPlaceCandidate> filtered = planStageMetrics.time(PlanStageMetrics.REGION_FILTER,
+                () -> regionService.applyRegionPreference(regionInput, location, duration));
+        planStageMetrics.candidates(PlanStageMetrics.REGION_FILTER, candidates.size(), filtered.size());
 
         log.info("  필터 후: {}개 ({}개 제거)",
                 filtered.size(), candidates.size() - filtered.size());
 
         // 카테고리 보강
         log.info("▷▷ 6. 카테고리 보강");
-        Map<String, List<TravelPlaceCandidate>> categoryMap = categoryFillService.fill(filtered, arguments, minFood,
-                minSpot);
+        Map<String, List<TravelPlaceCandidate>> categoryMap = planStageMetrics.time(PlanStageMetrics.CATEGORY_FILL,
+                () -> categoryFillService.fill(filtered, arguments, minFood, minSpot, queryEmbeddings));
 
         // 병합
         log.info("▷▷ 7. 카테고리 병합");
         List<TravelPlaceCandidate> merged = categoryFillService.merge(categoryMap);
+        planStageMetrics.candidates(PlanStageMetrics.CATEGORY_FILL, filtered.size(), merged.size());
+        planProgressPublisher.candidatesFound(userId, merged.size());
 
         // 클러스터링
         log.info("▷▷ 8. KMeans 클러스터링");
-        ClusterBundle clusters = kMeansClusterService.cluster(merged, duration);
+        ClusterBundle clusters = planStageMetrics.time(PlanStageMetrics.CLUSTER,
+                () -> kMeansClusterService.cluster(merged, duration));
+        planStageMetrics.candidates(PlanStageMetrics.CLUSTER, merged.size(), clusters.placeCount());
+        planProgressPublisher.clustersFormed(userId, clusters);
 
         // Day 분할
         log.info("▷▷ 9. 일정 분배");
-        List<DayPlanResult> dayPlans = daySplitService.split(clusters, duration, strategy, merged);
+        List<DayPlanResult> dayPlans = planStageMetrics.time(PlanStageMetrics.DAY_SPLIT,
+                () -> daySplitService.split(clusters, duration, strategy, merged));
+        planStageMetrics.candidates(PlanStageMetrics.DAY_SPLIT, merged.size(),
+                dayPlans.stream().mapToInt(d -> d.getPlaces().size()).sum());
 
         // 저장
         log.info("▷▷ 10. 최종 일정 배치 후 저장");
         PlanDetailResponse response = planAssemblerService.createAndSavePlan(dayPlans, arguments, userId);
+        List<String> degradedStages = planDeadline.degradedStages();
+        if (response != null && !degradedStages.isEmpty()) {
+            response.setDegradedStages(degradedStages);
+        }
+        planProgressPublisher.planSaved(userId, response);
 
         log.info("▷▷ 11. TravelPlannerAgent 완료");
 
@@ -148,7 +185,8 @@ public class TravelPlannerService implements AiAgent {
 
 
         // return AiAgentResponse.of(buildResponse(dayPlans));
-        return AiAgentResponse.ofData("일정이 생성되었습니다.", command.getRequiredUrl(), response);
+        return AiAgentResponse.ofData("일정이 생성되었습니다." + planDeadline.degradedNotice(),
+                command.getRequiredUrl(), response);
 
     }
 
@@ -172,24 +210,21 @@ public class TravelPlannerService implements AiAgent {
         return new StandardTravelStrategy();
     }
 
-    // 정규화
+    // 정규화 (응답 시간 제한 중이면 LLM이 늦거나 형식이 틀릴 때 규칙 기반 파싱으로 대체)
     private void normalizeDuration(Map<String, Object> arguments) {
-        String duration = durationNormalizerAgent.normalized(arguments);
-        String startDate = arguments.containsKey("startDate") != false ? startDateNormalizerAgent.normalized(arguments)
+        int duration = planDeadline.call(PlanStageMetrics.NORMALIZE,
+                () -> Integer.parseInt(durationNormalizerAgent.normalized(arguments).trim()),
+                () -> DurationParser.parse((String) arguments.get("duration")));
+        String startDate = arguments.containsKey("startDate")
+                ? planDeadline.call(PlanStageMetrics.NORMALIZE,
+                        () -> LocalDate.parse(startDateNormalizerAgent.normalized(arguments).trim()).toString(),
+                        () -> DateParser.parse((String) arguments.get("startDate")).toString())
                 : (LocalDate.now().plusDays(7)).toString();
-        arguments.put("duration", Integer.parseInt(duration));
+        arguments.put("duration", duration);
         arguments.put("startDate", startDate);
         return;
     }
 
-    // 벡터 검색 & 셔플
-    private List<TravelPlaceCandidate> searchAndShuffle(float[] embedding) {
-        List<TravelPlaceCandidate> results = planDao.searchByVector(embedding, 100);
-        int shuffleRange = Math.min(80, results.size());
-        Collections.shuffle(results.subList(0, shuffleRange));
-        return results;
-    }
-
     private void logClusterResults(ClusterBundle clusters) {
         log.info("  클러스터 수: {}", clusters.getClusters().size());
         for (Cluster c : clusters.getClusters()) {
@@ -0,0 +1,153 @@
+package com.example.demo.planner.plan.service.search;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.planner.plan.dao.PlanDao;
+import com.example.demo.planner.plan.dto.entity.PlaceCoordinateRow;
+import com.example.demo.planner.plan.utils.KnnTravelMatrix;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * travel_places 장소 간 거리/이동시간 캐시 (장소별 k-최근접 이웃, KnnTravelMatrix)
+ * - 시작 시 파일을 매핑해서 바로 사용하고, 마지막으로 반영한 (updated_at, id) 이후 변경분만 증분 반영
+ * - 파일이 없거나 형식/k가 바뀌었으면 전체 계산
+ * - 적재 전/모르는 장소면 조회 결과가 없음(NaN, -1) → 호출하는 쪽에서 직접 계산
+ * - 삭제된 장소는 증분 갱신으로 감지되지 않음 → 파일을 지우고 재시작하면 반영
+ */
+@Component
+@Slf4j
+public class PlaceTravelMatrix {
+
+    private final PlanDao planDao;
+    private final boolean enabled;
+    private final Path file;
+    private final int k;
+    private final long refreshIntervalSec;
+
+    private ScheduledExecutorService scheduler;
+    private volatile KnnTravelMatrix matrix;
+
+    public PlaceTravelMatrix(
+            PlanDao planDao,
+            @Value("${planner.travel-matrix.enabled:false}") boolean enabled,
+            @Value("${planner.travel-matrix.file:cache/travel-matrix.bin}") String file,
+            @Value("${planner.travel-matrix.k:32}") int k,
+            @Value("${planner.travel-matrix.refresh-interval-sec:600}") long refreshIntervalSec) {
+        this.planDao = planDao;
+        this.enabled = enabled;
+        this.file = Path.of(file);
+        this.k = k;
+        this.refreshIntervalSec = refreshIntervalSec;
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            KnnTravelMatrix loaded = KnnTravelMatrix.load(file);
+            if (loaded != null && loaded.k() == k) {
+                matrix = loaded;
+                log.info("[TravelMatrix] 파일 적재 {}개 (k={}) - {}", loaded.size(), k, file);
+            }
+        } catch (Exception e) {
+            log.warn("[TravelMatrix] 파일 적재 실패 → 다시 계산 - {}", file, e);
+        }
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "place-travel-matrix");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::refresh, 0, refreshIntervalSec, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    public boolean isReady() {
+        return matrix != null;
+    }
+
+    /** 두 장소 거리(km), 적재 전이거나 모르는 장소면 NaN */
+    public double distanceKm(long fromId, long toId) {
+        KnnTravelMatrix m = matrix;
+        return m == null ? Double.NaN : m.distanceKm(fromId, toId);
+    }
+
+    /** 두 장소 이동시간(분), 적재 전이거나 모르는 장소면 -1 */
+    public int travelMinutes(long fromId, long toId) {
+        KnnTravelMatrix m = matrix;
+        return m == null ? -1 : m.travelMinutes(fromId, toId);
+    }
+
+    void refresh() {
+        try {
+            KnnTravelMatrix current = matrix;
+            boolean full = current == null || current.maxUpdatedAt() == Long.MIN_VALUE;
+            OffsetDateTime since = full
+                    ? null
+                    : OffsetDateTime.ofInstant(Instant.EPOCH.plus(current.maxUpdatedAt(), ChronoUnit.MICROS), ZoneOffset.UTC);
+            Long sinceId = full ? null : current.maxUpdatedId();
+
+            long start = System.nanoTime();
+            List<PlaceCoordinateRow> rows = planDao.selectPlaceCoordinatesUpdatedAfter(since, sinceId);
+            if (rows.isEmpty()) {
+                return;
+            }
+
+            int n = rows.size();
+            long[] ids = new long[n];
+            double[] lat = new double[n];
+            double[] lng = new double[n];
+            long maxUpdatedAt = Long.MIN_VALUE;
+            long maxUpdatedId = Long.MIN_VALUE;
+            for (int i = 0; i < n; i++) {
+                PlaceCoordinateRow row = rows.get(i);
+                ids[i] = row.getId();
+                lat[i] = row.getLat();
+                lng[i] = row.getLng();
+                if (row.getUpdatedAt() != null) {
+                    // PostgreSQL timestamp 정밀도(µs) 그대로 → 경계 행을 다시 읽지 않음
+                    long updatedAt = ChronoUnit.MICROS.between(Instant.EPOCH, row.getUpdatedAt().toInstant());
+                    if (updatedAt > maxUpdatedAt || (updatedAt == maxUpdatedAt && ids[i] > maxUpdatedId)) {
+                        maxUpdatedAt = updatedAt;
+                        maxUpdatedId = ids[i];
+                    }
+                }
+            }
+
+            matrix = current == null
+                    ? KnnTravelMatrix.build(ids, lat, lng, k, maxUpdatedAt, maxUpdatedId, file)
+                    : current.update(ids, lat, lng, maxUpdatedAt, maxUpdatedId, file);
+
+            if (current == null || matrix != current) {
+                log.info("[TravelMatrix] {} {}건 반영 → 총 {}개 (k={}, {}ms)",
+                        current == null ? "전체 계산" : "증분 갱신", n, matrix.size(), k,
+                        (System.nanoTime() - start) / 1_000_000);
+            }
+
+        } catch (Exception e) {
+            log.warn("[TravelMatrix] 갱신 실패 → 기존 행렬 유지", e);
+        }
+    }
+}
@@ -0,0 +1,581 @@
+package com.example.demo.planner.plan.service.search;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.common.global.exception.BusinessException;
+import com.example.demo.common.global.exception.errorcode.VectorIndexErrorCode;
+import com.example.demo.planner.plan.dao.PlanDao;
+import com.example.demo.planner.plan.dto.TravelPlaceCandidate;
+import com.example.demo.planner.plan.dto.entity.PlaceVectorRow;
+import com.example.demo.planner.plan.dto.entity.TravelPlaces;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * travel_places 임베딩 인메모리 인덱스
+ * - 시작 시 전체 적재, 이후 (updated_at, id)가 마지막으로 반영한 행보다 큰 행만 증분 갱신
+ * - 벡터는 적재 시 정규화해 두므로 검색은 내적 한 번으로 cosine 유사도가 됨
+ * - 갱신은 새 스냅샷을 만들어 교체 (검색 중인 스레드는 이전 스냅샷을 그대로 사용)
+ * - 삭제된 장소는 증분 갱신으로 감지되지 않음 → 재시작 시 반영
+ *
+ * 검색 모드
+ * - exact: 전체 차원 float 벡터를 힙에 두고 flat scan
+ * - quantized: 앞 N차원만 잘라(Matryoshka) 재정규화한 int8 코드로 1차 검색 →
+ *   상위 rerank개만 전체 벡터로 정확한 cosine 재정렬.
+ *   전체 벡터는 메모리 매핑 파일에 두고 재정렬 대상만 읽으므로 힙에는 장소당 N바이트만 남음
+ */
+@Component
+@Slf4j
+public class PlaceVectorIndex {
+
+    private static final float INT8_SCALE = 127f;
+    // recall 측정용으로 보관하는 최근 검색 쿼리 수
+    private static final int RECENT_QUERIES = 200;
+
+    private final PlanDao planDao;
+    private final boolean enabled;
+    private final long refreshIntervalSec;
+    private final boolean quantized;
+    private final int quantizedDims;
+    private final int rerankSize;
+
+    private ScheduledExecutorService scheduler;
+    private volatile Snapshot snapshot;
+
+    // 실제 검색 쿼리 벡터 (정규화된 복사본, 링 버퍼)
+    private final AtomicReferenceArray<float[]> recentQueries = new AtomicReferenceArray<>(RECENT_QUERIES);
+    private final AtomicLong recentQueryCount = new AtomicLong();
+
+    public PlaceVectorIndex(
+            PlanDao planDao,
+            @Value("${planner.vector-index.enabled:false}") boolean enabled,
+            @Value("${planner.vector-index.refresh-interval-sec:300}") long refreshIntervalSec,
+            @Value("${planner.vector-index.quantized.enabled:false}") boolean quantized,
+            @Value("${planner.vector-index.quantized.dims:256}") int quantizedDims,
+            @Value("${planner.vector-index.quantized.rerank:300}") int rerankSize) {
+        this.planDao = planDao;
+        this.enabled = enabled;
+        this.refreshIntervalSec = refreshIntervalSec;
+        this.quantized = quantized;
+        this.quantizedDims = quantizedDims;
+        this.rerankSize = rerankSize;
+    }
+
+    /** 검색 필터 (null 필드는 조건 없음) */
+    public record PlaceFilter(String category, String zoneId, Set<Long> excludedIds) {
+        public static final PlaceFilter NONE = new PlaceFilter(null, null, null);
+
+        boolean accept(TravelPlaces p) {
+            if (category != null && !category.equals(p.getNormalizedCategory())) return false;
+            if (zoneId != null && !zoneId.equals(p.getZoneId())) return false;
+            return excludedIds == null || !excludedIds.contains(p.getId());
+        }
+    }
+
+    /**
+     * quantized 모드 recall@k 측정 결과
+     * - querySource: recent-queries(최근 실제 검색 쿼리) / held-out(카탈로그 벡터, 자기 자신은 정답/결과에서 제외)
+     */
+    public record RecallReport(int k, int samples, String querySource, int codeDims, double recall,
+            double avgExactMs, double avgQuantizedMs, long codeBytes, long fullBytes) {
+    }
+
+    /**
+     * 불변 스냅샷
+     * - i번째 장소의 전체 벡터: full[i*dim .. (i+1)*dim)
+     * - quantized 모드면 codes[i*codeDim .. (i+1)*codeDim)에 int8 코드가 추가됨
+     * - (maxUpdatedAt, maxUpdatedId): 마지막으로 반영한 행, 다음 갱신은 이 행 이후만 조회
+     */
+    private record Snapshot(TravelPlaces[] places, FloatBuffer full, int dim,
+            byte[] codes, int codeDim,
+            Map<Long, Integer> positions, OffsetDateTime maxUpdatedAt, Long maxUpdatedId) {
+        int size() {
+            return places.length;
+        }
+
+        boolean quantized() {
+            return codes != null;
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "place-vector-index");
+            t.setDaemon(true);
+            return t;
+        });
+        // 첫 적재는 백그라운드에서 → 적재 전까지는 pgvector로 검색
+        scheduler.scheduleWithFixedDelay(this::refresh, 0, refreshIntervalSec, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    public boolean isReady() {
+        return snapshot != null;
+    }
+
+    public int size() {
+        Snapshot s = snapshot;
+        return s == null ? 0 : s.size();
+    }
+
+    // ==================== 적재 / 증분 갱신 ====================
+
+    void refresh() {
+        try {
+            Snapshot current = snapshot;
+            OffsetDateTime since = current == null ? null : current.maxUpdatedAt();
+            Long sinceId = current == null ? null : current.maxUpdatedId();
+
+            long start = System.nanoTime();
+            List<PlaceVectorRow> rows = planDao.selectPlaceVectorsUpdatedAfter(since, sinceId);
+            if (rows.isEmpty()) {
+                return;
+            }
+
+            snapshot = merge(current, rows);
+            log.info("[VectorIndex] {} {}건 반영 → 총 {}개, 모드={} ({}ms)",
+                    current == null ? "전체 적재" : "증분 갱신",
+                    rows.size(), snapshot.size(),
+                    snapshot.quantized() ? "quantized(" + snapshot.codeDim() + ")" : "exact",
+                    (System.nanoTime() - start) / 1_000_000);
+
+            if (current == null && snapshot.quantized()) {
+                log.info("[VectorIndex] {}", recallAtK(20, 100));
+            }
+
+        } catch (Exception e) {
+            log.warn("[VectorIndex] 갱신 실패 → 기존 인덱스 유지", e);
+        }
+    }
+
+    /**
+     * 이전 스냅샷 + 변경 행 → 새 스냅샷
+     * - 새 버퍼(exact: 힙 배열, quantized: 매핑 파일)를 최종 크기로 한 번만 만들고,
+     *   기존 행은 버퍼 간 통째 복사 후 바뀐 행만 위치에 맞게 덮어씀
+     * - quantized 모드는 전체 벡터가 힙을 거치지 않음 (행 하나 크기의 임시 배열만 사용)
+     * - int8 코드도 기존 배열을 복사하고 바뀐 행만 다시 인코딩
+     */
+    private Snapshot merge(Snapshot current, List<PlaceVectorRow> rows) throws IOException {
+        int dim = current != null ? current.dim() : rows.get(0).getEmbedding().length;
+        int oldSize = current != null ? current.size() : 0;
+
+        List<TravelPlaces> places = new ArrayList<>(oldSize + rows.size());
+        Map<Long, Integer> positions = new HashMap<>();
+        OffsetDateTime maxUpdatedAt = null;
+        Long maxUpdatedId = null;
+        if (current != null) {
+            places.addAll(Arrays.asList(current.places()));
+            positions.putAll(current.positions());
+            maxUpdatedAt = current.maxUpdatedAt();
+            maxUpdatedId = current.maxUpdatedId();
+        }
+
+        // 1) 위치 배정 (신규 id는 뒤에 추가) → 최종 크기 확정
+        List<PlaceVectorRow> accepted = new ArrayList<>(rows.size());
+        int[] rowPositions = new int[rows.size()];
+        for (PlaceVectorRow row : rows) {
+            float[] embedding = row.getEmbedding();
+            TravelPlaces place = row.getPlace();
+
+            if (embedding == null || embedding.length != dim) {
+                log.warn("[VectorIndex] 차원 불일치로 제외 id={} dim={}", place.getId(),
+                        embedding == null ? null : embedding.length);
+                continue;
+            }
+
+            Integer pos = positions.get(place.getId());
+            if (pos == null) {
+                pos = places.size();
+                places.add(place);
+                positions.put(place.getId(), pos);
+            } else {
+                places.set(pos, place);
+            }
+            rowPositions[accepted.size()] = pos;
+            accepted.add(row);
+
+            OffsetDateTime updatedAt = place.getUpdatedAt();
+            if (updatedAt != null && (maxUpdatedAt == null || updatedAt.isAfter(maxUpdatedAt)
+                    || (updatedAt.isEqual(maxUpdatedAt) && place.getId() > maxUpdatedId))) {
+                maxUpdatedAt = updatedAt;
+                maxUpdatedId = place.getId();
+            }
+        }
+        int n = places.size();
+
+        // 2) 기존 행 복사 + 바뀐 행만 덮어쓰기
+        FloatBuffer full = quantized ? mapNewFile((long) n * dim) : FloatBuffer.wrap(new float[n * dim]);
+        if (oldSize > 0) {
+            full.put(0, current.full(), 0, oldSize * dim);
+        }
+
+        int codeDim = Math.min(quantizedDims, dim);
+        byte[] codes = null;
+        if (quantized) {
+            codes = current != null && current.quantized()
+                    ? Arrays.copyOf(current.codes(), n * codeDim)
+                    : new byte[n * codeDim];
+        }
+
+        float[] normalized = new float[dim];
+        for (int r = 0; r < accepted.size(); r++) {
+            int pos = rowPositions[r];
+            writeNormalized(accepted.get(r).getEmbedding(), 0, dim, normalized, 0);
+            full.put(pos * dim, normalized);
+            if (codes != null) {
+                encode(normalized, 0, codeDim, codes, pos * codeDim);
+            }
+        }
+
+        return new Snapshot(places.toArray(new TravelPlaces[0]), full, dim,
+                codes, codes != null ? codeDim : 0, Map.copyOf(positions), maxUpdatedAt, maxUpdatedId);
+    }
+
+    private static void writeNormalized(float[] src, int srcOffset, int len, float[] dst, int dstOffset) {
+        double norm = 0;
+        for (int i = 0; i < len; i++) {
+            float v = src[srcOffset + i];
+            norm += v * v;
+        }
+        float inv = norm == 0 ? 0f : (float) (1.0 / Math.sqrt(norm));
+        for (int i = 0; i < len; i++) {
+            dst[dstOffset + i] = src[srcOffset + i] * inv;
+        }
+    }
+
+    // 앞 codeDim 차원만 잘라 재정규화 → [-1, 1] 범위를 int8로 양자화
+    private static void encode(float[] src, int srcOffset, int codeDim, byte[] dst, int dstOffset) {
+        float[] truncated = new float[codeDim];
+        writeNormalized(src, srcOffset, codeDim, truncated, 0);
+        for (int d = 0; d < codeDim; d++) {
+            dst[dstOffset + d] = (byte) Math.max(-127, Math.min(127, Math.round(truncated[d] * INT8_SCALE)));
+        }
+    }
+
+    // 전체 벡터용 임시 파일을 만들어 매핑 (힙 밖, OS 페이지 캐시 사용) - 호출 쪽이 매핑에 직접 씀
+    private static FloatBuffer mapNewFile(long floats) throws IOException {
+        Path file = Files.createTempFile("place-vectors", ".f32");
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // READ_WRITE 매핑은 파일을 매핑 크기까지 늘림
+            return ch.map(FileChannel.MapMode.READ_WRITE, 0, floats * Float.BYTES)
+                    .order(ByteOrder.nativeOrder())
+                    .asFloatBuffer();
+        } finally {
+            // 매핑은 파일 삭제 후에도 유지됨
+            try {
+                Files.delete(file);
+            } catch (IOException e) {
+                file.toFile().deleteOnExit();
+            }
+        }
+    }
+
+    // ==================== 검색 ====================
+
+    /**
+     * cosine 유사도 top-k
+     * @return score(=1 - cosine distance) 내림차순 후보 (pgvector 검색 결과와 같은 형태)
+     */
+    public List<TravelPlaceCandidate> search(float[] query, int k, PlaceFilter filter) {
+        Snapshot s = requireSnapshot(query);
+        float[] q = new float[s.dim()];
+        writeNormalized(query, 0, s.dim(), q, 0);
+        recentQueries.set((int) (recentQueryCount.getAndIncrement() % RECENT_QUERIES), q);
+
+        TopK top = s.quantized() ? searchQuantized(s, q, k, filter) : searchExact(s, q, k, filter);
+        return toCandidates(s, top);
+    }
+
+    /**
+     * 쿼리 여러 개 검색 (searchByVectors SQL과 같은 규칙)
+     * - 쿼리별 top-k → id 중복은 score가 가장 높은 쪽만 남김 → queryIndex, score 순 정렬
+     */
+    public List<TravelPlaceCandidate> searchMany(List<float[]> queries, int k, PlaceFilter filter) {
+        Map<Long, TravelPlaceCandidate> best = new HashMap<>();
+
+        for (int qi = 0; qi < queries.size(); qi++) {
+            for (TravelPlaceCandidate c : search(queries.get(qi), k, filter)) {
+                c.setQueryIndex(qi);
+                best.merge(c.getId(), c, (a, b) -> b.getScore() > a.getScore() ? b : a);
+            }
+        }
+
+        List<TravelPlaceCandidate> result = new ArrayList<>(best.values());
+        result.sort((a, b) -> a.getQueryIndex() != b.getQueryIndex()
+                ? Integer.compare(a.getQueryIndex(), b.getQueryIndex())
+                : Double.compare(b.getScore(), a.getScore()));
+        return result;
+    }
+
+    private Snapshot requireSnapshot(float[] query) {
+        Snapshot s = snapshot;
+        if (s == null) {
+            throw new IllegalStateException("벡터 인덱스가 아직 적재되지 않았습니다.");
+        }
+        if (query.length != s.dim()) {
+            throw new IllegalArgumentException("쿼리 차원 불일치: " + query.length + " != " + s.dim());
+        }
+        return s;
+    }
+
+    private static TopK searchExact(Snapshot s, float[] q, int k, PlaceFilter filter) {
+        TopK top = new TopK(k);
+        for (int i = 0; i < s.size(); i++) {
+            if (filter.accept(s.places()[i])) {
+                top.offer(i, dot(q, s.full(), i * s.dim(), s.dim()));
+            }
+        }
+        return top;
+    }
+
+    private TopK searchQuantized(Snapshot s, float[] q, int k, PlaceFilter filter) {
+        int codeDim = s.codeDim();
+        byte[] qCode = new byte[codeDim];
+        encode(q, 0, codeDim, qCode, 0);
+
+        // 1차: int8 코드 내적으로 후보 추림
+        TopK coarse = new TopK(Math.max(k, rerankSize));
+        for (int i = 0; i < s.size(); i++) {
+            if (filter.accept(s.places()[i])) {
+                coarse.offer(i, dotInt8(qCode, s.codes(), i * codeDim, codeDim));
+            }
+        }
+
+        // 2차: 후보만 전체 벡터로 정확히 재정렬
+        int n = coarse.size();
+        int[] idx = new int[n];
+        coarse.drainDesc(idx, new float[n]);
+
+        TopK top = new TopK(k);
+        for (int i : idx) {
+            top.offer(i, dot(q, s.full(), i * s.dim(), s.dim()));
+        }
+        return top;
+    }
+
+    private static List<TravelPlaceCandidate> toCandidates(Snapshot s, TopK top) {
+        int n = top.size();
+        int[] idx = new int[n];
+        float[] scores = new float[n];
+        top.drainDesc(idx, scores);
+
+        List<TravelPlaceCandidate> result = new ArrayList<>(n);
+        for (int r = 0; r < n; r++) {
+            result.add(toCandidate(s.places()[idx[r]], scores[r]));
+        }
+        return result;
+    }
+
+    private static float dot(float[] q, FloatBuffer vectors, int offset, int dim) {
+        // 누산기 4개로 나눠 의존성 사슬을 끊음
+        float s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+        int d = 0;
+        for (; d + 3 < dim; d += 4) {
+            s0 += q[d] * vectors.get(offset + d);
+            s1 += q[d + 1] * vectors.get(offset + d + 1);
+            s2 += q[d + 2] * vectors.get(offset + d + 2);
+            s3 += q[d + 3] * vectors.get(offset + d + 3);
+        }
+        for (; d < dim; d++) {
+            s0 += q[d] * vectors.get(offset + d);
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    private static float dotInt8(byte[] q, byte[] codes, int offset, int dim) {
+        int sum = 0;
+        for (int d = 0; d < dim; d++) {
+            sum += q[d] * codes[offset + d];
+        }
+        return sum / (INT8_SCALE * INT8_SCALE);
+    }
+
+    private static TravelPlaceCandidate toCandidate(TravelPlaces place, double score) {
+        TravelPlaceCandidate c = new TravelPlaceCandidate();
+        c.setTravelPlaces(place);
+        c.setScore(score);
+        return c;
+    }
+
+    // ==================== recall 측정 ====================
+
+    /**
+     * quantized 검색의 recall@k를 exact 검색과 비교해 측정
+     * - 쿼리: 최근 실제 검색 쿼리 벡터 (최대 samples개, 최신 순)
+     * - 아직 검색이 없으면 카탈로그 장소 벡터를 균등 간격으로 골라 held-out으로 사용
+     *   (쿼리로 쓴 장소는 exact/quantized 결과 모두에서 제외 → 자기 자신 1위로 recall이 부풀지 않음)
+     * - quantized 모드가 꺼져 있으면 400, 적재 전이면 503
+     */
+    public RecallReport recallAtK(int k, int samples) {
+        if (!enabled || !quantized) {
+            throw new BusinessException(VectorIndexErrorCode.QUANTIZED_DISABLED);
+        }
+        Snapshot s = snapshot;
+        if (s == null || !s.quantized()) {
+            throw new BusinessException(VectorIndexErrorCode.INDEX_NOT_READY);
+        }
+
+        List<float[]> queries = recentQueries(s.dim(), samples);
+        boolean heldOut = queries.isEmpty();
+        int n = heldOut ? Math.min(samples, s.size()) : queries.size();
+        int step = Math.max(1, s.size() / Math.max(1, n));
+        double recallSum = 0;
+        long exactNanos = 0;
+        long quantizedNanos = 0;
+
+        for (int r = 0; r < n; r++) {
+            float[] q;
+            PlaceFilter filter;
+            if (heldOut) {
+                q = new float[s.dim()];
+                s.full().get(r * step * s.dim(), q, 0, s.dim());
+                filter = new PlaceFilter(null, null, Set.of(s.places()[r * step].getId()));
+            } else {
+                q = queries.get(r);
+                filter = PlaceFilter.NONE;
+            }
+
+            long t0 = System.nanoTime();
+            TopK exact = searchExact(s, q, k, filter);
+            long t1 = System.nanoTime();
+            TopK approx = searchQuantized(s, q, k, filter);
+            long t2 = System.nanoTime();
+            exactNanos += t1 - t0;
+            quantizedNanos += t2 - t1;
+
+            Set<Integer> truth = drainIds(exact);
+            Set<Integer> found = drainIds(approx);
+            found.retainAll(truth);
+            recallSum += truth.isEmpty() ? 1.0 : (double) found.size() / truth.size();
+        }
+
+        return new RecallReport(k, n, heldOut ? "held-out" : "recent-queries", s.codeDim(),
+                n == 0 ? 0 : recallSum / n,
+                n == 0 ? 0 : exactNanos / 1e6 / n,
+                n == 0 ? 0 : quantizedNanos / 1e6 / n,
+                (long) s.size() * s.codeDim(),
+                (long) s.size() * s.dim() * Float.BYTES);
+    }
+
+    // 최근 검색 쿼리 (최신 순, 차원이 다른 쿼리는 제외)
+    private List<float[]> recentQueries(int dim, int limit) {
+        long count = recentQueryCount.get();
+        List<float[]> queries = new ArrayList<>();
+        for (long c = count - 1; c >= Math.max(0, count - RECENT_QUERIES) && queries.size() < limit; c--) {
+            float[] q = recentQueries.get((int) (c % RECENT_QUERIES));
+            if (q != null && q.length == dim) {
+                queries.add(q);
+            }
+        }
+        return queries;
+    }
+
+    private static Set<Integer> drainIds(TopK top) {
+        int[] idx = new int[top.size()];
+        top.drainDesc(idx, new float[idx.length]);
+        Set<Integer> ids = new HashSet<>();
+        for (int i : idx) {
+            ids.add(i);
+        }
+        return ids;
+    }
+
+    /** 점수 상위 k개를 유지하는 최소 힙 (박싱 없이 index/score 배열로 관리) */
+    static final class TopK {
+        private final int[] idx;
+        private final float[] score;
+        private int size;
+
+        TopK(int k) {
+            this.idx = new int[Math.max(1, k)];
+            this.score = new float[Math.max(1, k)];
+        }
+
+        int size() {
+            return size;
+        }
+
+        void offer(int i, float s) {
+            if (size < idx.length) {
+                idx[size] = i;
+                score[size] = s;
+                siftUp(size++);
+            } else if (s > score[0]) {
+                idx[0] = i;
+                score[0] = s;
+                siftDown(0);
+            }
+        }
+
+        /** 점수 내림차순으로 꺼내 담음 (호출 후 힙은 비워짐) */
+        void drainDesc(int[] outIdx, float[] outScore) {
+            for (int n = size - 1; n >= 0; n--) {
+                outIdx[n] = idx[0];
+                outScore[n] = score[0];
+                idx[0] = idx[size - 1];
+                score[0] = score[size - 1];
+                size--;
+                siftDown(0);
+            }
+        }
+
+        private void siftUp(int c) {
+            while (c > 0) {
+                int p = (c - 1) >>> 1;
+                if (score[p] <= score[c]) break;
+                swap(p, c);
+                c = p;
+            }
+        }
+
+        private void siftDown(int p) {
+            while (true) {
+                int l = 2 * p + 1, r = l + 1, m = p;
+                if (l < size && score[l] < score[m]) m = l;
+                if (r < size && score[r] < score[m]) m = r;
+                if (m == p) return;
+                swap(p, m);
+                p = m;
+            }
+        }
+
+        private void swap(int a, int b) {
+            int ti = idx[a]; idx[a] = idx[b]; idx[b] = ti;
+            float ts = score[a]; score[a] = score[b]; score[b] = ts;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.demo.planner.plan.service.search;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.stereotype.Service;
+
+import com.example.demo.planner.plan.dao.PlanDao;
+import com.example.demo.planner.plan.dto.TravelPlaceCandidate;
+import com.example.demo.planner.plan.service.search.PlaceVectorIndex.PlaceFilter;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 장소 벡터 검색 진입점
+ * - 인메모리 인덱스(planner.vector-index.enabled)가 적재되어 있으면 인덱스로,
+ *   아니면 pgvector(PlanDao)로 검색합니다.
+ */
+@Service
+@RequiredArgsConstructor
+public class PlaceVectorSearchService {
+
+    private final PlanDao planDao;
+    private final PlaceVectorIndex placeVectorIndex;
+
+    public boolean useIndex() {
+        return placeVectorIndex.isReady();
+    }
+
+    public List<TravelPlaceCandidate> searchByVector(float[] embedding, int limit) {
+        if (useIndex()) {
+            return placeVectorIndex.search(embedding, limit, PlaceFilter.NONE);
+        }
+        return planDao.searchByVector(embedding, limit);
+    }
+
+    public List<TravelPlaceCandidate> searchByVectors(List<float[]> embeddings, int limit) {
+        if (useIndex()) {
+            return placeVectorIndex.searchMany(embeddings, limit, PlaceFilter.NONE);
+        }
+        return planDao.searchByVectors(embeddings, limit);
+    }
+
+    public List<TravelPlaceCandidate> searchMissingCategoryByVector(
+            String category, float[] embedding, List<Long> excludedIds, int limit) {
+        if (useIndex()) {
+            return placeVectorIndex.search(embedding, limit,
+                    new PlaceFilter(category, null, new HashSet<>(excludedIds)));
+        }
+        return planDao.searchMissingCategoryByVector(
+                Map.of("category", category, "embedding", embedding, "excludedIds", excludedIds, "limit", limit));
+    }
+}
@@ -0,0 +1,298 @@
+package com.example.demo.planner.plan.utils;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+/**
+ * 용량 제한 k-means (좌표 + 카테고리 할당량)
+ * - 클러스터마다 전체 용량 ceil(n/k), 카테고리별 용량 ceil(n_c/k)를 넘지 않도록 배정
+ *   → 하루치 장소 수와 FOOD/SPOT 비율이 날짜별로 고르게 나뉨
+ * - 배정: (점, 클러스터) 쌍을 거리순으로 보며 용량이 남은 곳에 탐욕적으로 배정
+ * - 갱신: 구성원 평균으로 중심 이동, 배정이 바뀌지 않거나 maxIterations까지 반복
+ * - 초기 중심은 k-means++ (seed + restart 번호로 고정) → 같은 입력이면 같은 결과
+ * - restart들은 공용 fork-join 풀에서 병렬 실행, 비용(제곱거리 합)이 가장 낮은 결과 채택
+ *
+ * 좌표는 서울 위도 기준 등장방형 투영(km)으로 계산하므로 도시 규모에서 haversine과 거의 같음
+ */
+public final class CapacitatedKMeans {
+
+    private static final double KM_PER_DEG_LAT = 110.574;
+    private static final double KM_PER_DEG_LNG_EQUATOR = 111.320;
+
+    private CapacitatedKMeans() {
+    }
+
+    /**
+     * @param assignment i번째 점의 클러스터 (0 ~ k-1)
+     * @param centerLat  클러스터 중심 위도
+     * @param centerLng  클러스터 중심 경도
+     * @param cost       제곱거리(km²) 합
+     */
+    public record Result(int[] assignment, double[] centerLat, double[] centerLng, double cost, int iterations) {
+    }
+
+    /**
+     * @param lat           점 위도
+     * @param lng           점 경도
+     * @param category      점 카테고리 코드 (0 ~ categoryCount-1)
+     * @param categoryCount 카테고리 종류 수
+     * @param k             클러스터 수 (n 이하)
+     */
+    public static Result cluster(double[] lat, double[] lng, int[] category, int categoryCount,
+            int k, int restarts, int maxIterations, long seed) {
+
+        int n = lat.length;
+        if (k <= 0 || k > n) {
+            throw new IllegalArgumentException("k는 1 이상 점 개수 이하여야 합니다: k=" + k + ", n=" + n);
+        }
+
+        double lat0 = Arrays.stream(lat).average().orElse(0);
+        double kmPerDegLng = KM_PER_DEG_LNG_EQUATOR * Math.cos(Math.toRadians(lat0));
+
+        double[] x = new double[n];
+        double[] y = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = lng[i] * kmPerDegLng;
+            y[i] = lat[i] * KM_PER_DEG_LAT;
+        }
+
+        int capacity = (n + k - 1) / k;
+        int[] categoryCapacity = new int[categoryCount];
+        for (int c : category) {
+            categoryCapacity[c]++;
+        }
+        for (int c = 0; c < categoryCount; c++) {
+            categoryCapacity[c] = (categoryCapacity[c] + k - 1) / k;
+        }
+
+        Problem problem = new Problem(x, y, category, categoryCount, k, capacity, categoryCapacity, maxIterations);
+
+        Run best = IntStream.range(0, Math.max(1, restarts))
+                .parallel()
+                .mapToObj(r -> problem.solve(new Random(seed + 31L * r)))
+                .reduce((a, b) -> b.cost < a.cost ? b : a)
+                .orElseThrow();
+
+        double[] centerLat = new double[k];
+        double[] centerLng = new double[k];
+        for (int j = 0; j < k; j++) {
+            centerLat[j] = best.cy[j] / KM_PER_DEG_LAT;
+            centerLng[j] = best.cx[j] / kmPerDegLng;
+        }
+        return new Result(best.assign, centerLat, centerLng, best.cost, best.iterations);
+    }
+
+    private record Run(int[] assign, double[] cx, double[] cy, double cost, int iterations) {
+    }
+
+    private record Problem(double[] x, double[] y, int[] category, int categoryCount,
+            int k, int capacity, int[] categoryCapacity, int maxIterations) {
+
+        Run solve(Random random) {
+            int n = x.length;
+            double[] cx = new double[k];
+            double[] cy = new double[k];
+            seedCenters(random, cx, cy);
+
+            int[] assign = new int[n];
+            Arrays.fill(assign, -1);
+            int[] next = new int[n];
+
+            // 재사용 버퍼
+            double[] pairDist = new double[n * k];
+            long[] order = new long[n * k];
+            int[] size = new int[k];
+            int[] categorySize = new int[k * categoryCount];
+
+            int iter = 0;
+            while (iter < maxIterations) {
+                iter++;
+                assign(cx, cy, next, pairDist, order, size, categorySize);
+                fixEmpty(next, cx, cy, size);
+                boolean changed = !Arrays.equals(assign, next);
+                System.arraycopy(next, 0, assign, 0, n);
+                updateCenters(assign, cx, cy);
+                if (!changed) {
+                    break;
+                }
+            }
+
+            double cost = 0;
+            for (int i = 0; i < n; i++) {
+                cost += dist2(x[i], y[i], cx[assign[i]], cy[assign[i]]);
+            }
+            return new Run(assign, cx, cy, cost, iter);
+        }
+
+        // k-means++ 초기화
+        private void seedCenters(Random random, double[] cx, double[] cy) {
+            int n = x.length;
+            double[] d2 = new double[n];
+            Arrays.fill(d2, Double.MAX_VALUE);
+
+            int first = random.nextInt(n);
+            cx[0] = x[first];
+            cy[0] = y[first];
+
+            for (int j = 1; j < k; j++) {
+                double total = 0;
+                for (int i = 0; i < n; i++) {
+                    d2[i] = Math.min(d2[i], dist2(x[i], y[i], cx[j - 1], cy[j - 1]));
+                    total += d2[i];
+                }
+
+                int pick = n - 1;
+                if (total > 0) {
+                    double r = random.nextDouble() * total;
+                    for (int i = 0; i < n; i++) {
+                        r -= d2[i];
+                        if (r <= 0) {
+                            pick = i;
+                            break;
+                        }
+                    }
+                } else {
+                    pick = random.nextInt(n);
+                }
+                cx[j] = x[pick];
+                cy[j] = y[pick];
+            }
+        }
+
+        /**
+         * 용량 제한 탐욕 배정
+         * - 가까운 (점, 클러스터) 쌍부터 전체/카테고리 용량이 남아 있으면 배정
+         * - 끝까지 못 들어간 점은 카테고리 제한을 먼저 풀고, 그래도 없으면 가장 가까운 곳에 배정
+         */
+        private void assign(double[] cx, double[] cy, int[] out, double[] pairDist, long[] order,
+                int[] size, int[] categorySize) {
+            int n = x.length;
+            Arrays.fill(out, -1);
+            Arrays.fill(size, 0);
+            Arrays.fill(categorySize, 0);
+
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < k; j++) {
+                    int p = i * k + j;
+                    pairDist[p] = dist2(x[i], y[i], cx[j], cy[j]);
+                    order[p] = p;
+                }
+            }
+            sortByDistance(order, pairDist);
+
+            int remaining = n;
+            for (int o = 0; o < order.length && remaining > 0; o++) {
+                int p = (int) order[o];
+                int i = p / k;
+                int j = p % k;
+                if (out[i] >= 0 || size[j] >= capacity
+                        || categorySize[j * categoryCount + category[i]] >= categoryCapacity[category[i]]) {
+                    continue;
+                }
+                out[i] = j;
+                size[j]++;
+                categorySize[j * categoryCount + category[i]]++;
+                remaining--;
+            }
+
+            if (remaining == 0) {
+                return;
+            }
+            for (int i = 0; i < n; i++) {
+                if (out[i] >= 0) {
+                    continue;
+                }
+                int j = nearest(i, cx, cy, size, categorySize, false, true);
+                if (j < 0) j = nearest(i, cx, cy, size, categorySize, true, false);
+                if (j < 0) j = nearest(i, cx, cy, size, categorySize, false, false);
+                out[i] = j;
+                size[j]++;
+                categorySize[j * categoryCount + category[i]]++;
+            }
+        }
+
+        private int nearest(int i, double[] cx, double[] cy, int[] size, int[] categorySize,
+                boolean needCategoryRoom, boolean needRoom) {
+            int best = -1;
+            double bestD = Double.MAX_VALUE;
+            for (int j = 0; j < k; j++) {
+                if (needRoom && size[j] >= capacity) continue;
+                if (needCategoryRoom
+                        && categorySize[j * categoryCount + category[i]] >= categoryCapacity[category[i]]) continue;
+                double d = dist2(x[i], y[i], cx[j], cy[j]);
+                if (d < bestD) {
+                    bestD = d;
+                    best = j;
+                }
+            }
+            return best;
+        }
+
+        // 빈 클러스터는 2개 이상인 클러스터에서 중심과 가장 먼 점을 데려옴
+        private void fixEmpty(int[] assign, double[] cx, double[] cy, int[] size) {
+            for (int j = 0; j < k; j++) {
+                if (size[j] > 0) {
+                    continue;
+                }
+                int far = -1;
+                double farD = -1;
+                for (int i = 0; i < assign.length; i++) {
+                    int from = assign[i];
+                    if (size[from] < 2) continue;
+                    double d = dist2(x[i], y[i], cx[from], cy[from]);
+                    if (d > farD) {
+                        farD = d;
+                        far = i;
+                    }
+                }
+                if (far < 0) {
+                    return;
+                }
+                size[assign[far]]--;
+                assign[far] = j;
+                size[j]++;
+                cx[j] = x[far];
+                cy[j] = y[far];
+            }
+        }
+
+        private void updateCenters(int[] assign, double[] cx, double[] cy) {
+            double[] sx = new double[k];
+            double[] sy = new double[k];
+            int[] cnt = new int[k];
+            for (int i = 0; i < assign.length; i++) {
+                sx[assign[i]] += x[i];
+                sy[assign[i]] += y[i];
+                cnt[assign[i]]++;
+            }
+            for (int j = 0; j < k; j++) {
+                if (cnt[j] > 0) {
+                    cx[j] = sx[j] / cnt[j];
+                    cy[j] = sy[j] / cnt[j];
+                }
+            }
+        }
+    }
+
+    // (거리 비트, 쌍 번호)를 long 하나로 묶어 정렬 → 박싱/Comparator 없이 거리순 + 동률은 번호순
+    private static void sortByDistance(long[] order, double[] dist) {
+        int bits = 64 - Long.numberOfLeadingZeros(Math.max(1, order.length - 1));
+        // 거리는 float 정밀도로 충분 (양수 float 비트는 크기 순서를 보존)
+        for (int p = 0; p < order.length; p++) {
+            long key = Float.floatToRawIntBits((float) dist[p]) & 0xFFFFFFFFL;
+            order[p] = (key << bits) | p;
+        }
+        Arrays.sort(order);
+        long mask = (1L << bits) - 1;
+        for (int p = 0; p < order.length; p++) {
+            order[p] &= mask;
+        }
+    }
+
+    private static double dist2(double x1, double y1, double x2, double y2) {
+        double dx = x1 - x2;
+        double dy = y1 - y2;
+        return dx * dx + dy * dy;
+    }
+}
@@ -1,4 +1,4 @@
-package com.example.demo.planner.plan.agent.test.date;
+package com.example.demo.planner.plan.utils;
 
 import java.time.DayOfWeek;
 import java.time.LocalDate;
@@ -0,0 +1,223 @@
+package com.example.demo.planner.plan.utils;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 날짜별 장소 배정 (최소 비용 유량)
+ *
+ * 네트워크
+ *   source → 장소 p (용량 1)
+ *   장소 p → 필수 칸 (날짜 d, 분류 c) (용량 1, 비용 = 날짜 중심까지 거리 m, 소속 날짜가 아니면 + FOREIGN)
+ *   장소 p → 추가 칸 (날짜 d, 분류 c) (용량 1, 비용 m) : 날짜 d가 장소의 소속 날짜(home)일 때만
+ *   필수 칸 (d, c) → 날짜 d : 용량 min_c (비용 -REQUIRED), 추가 칸 (d, c) → 날짜 d : 용량 max_c - min_c (비용 -EXTRA)
+ *   날짜 d → sink (용량 maxPlaces)
+ *
+ * - 장소 → source 용량이 1이라 한 장소는 최대 한 날짜에만 들어감 (중복 불가)
+ * - REQUIRED ≫ EXTRA ≫ 거리 이므로 최소 요구량을 가장 먼저 채우고, 남는 칸은 채울 수 있는 만큼 채우며,
+ *   같은 조건에서는 전체 거리 합이 가장 작은 배정을 고름
+ * - 다른 날짜(클러스터) 장소나 전역 후보는 SPOT/FOOD 최소 요구량에만 쓰임
+ *   남는 칸과 OPTIONAL은 그 날짜 소속 장소로만 채움 (멀리 있는 후보가 빈 칸을 메우지 않도록)
+ * - FOREIGN > EXTRA 라서 소속 장소로 최소 요구량을 채울 수 있으면 외부 장소가 필수 칸을 차지하지 않음
+ *   (외부 장소를 필수 칸에, 소속 장소를 추가 칸에 넣어 개수만 늘리는 배정 방지)
+ * - 최단 경로 증가(SPFA) 방식, 후보 수백 개 × 7일 기준 수 ms
+ */
+public final class DayAssignmentSolver {
+
+    public static final int SPOT = 0;
+    public static final int FOOD = 1;
+    public static final int OPTIONAL = 2;
+    private static final int CLASSES = 3;
+
+    private static final long REQUIRED = 1_000_000_000L;
+    private static final long EXTRA = 10_000_000L;
+    private static final long FOREIGN = 2 * EXTRA;
+
+    private DayAssignmentSolver() {
+    }
+
+    /** 날짜 하나의 중심/요구량 */
+    public record Day(double centerLat, double centerLng,
+            int minSpot, int minFood, int maxFood, int minOptional, int maxPlaces) {
+
+        int min(int c) {
+            return switch (c) {
+                case SPOT -> minSpot;
+                case FOOD -> minFood;
+                default -> minOptional;
+            };
+        }
+
+        int max(int c) {
+            int cap = c == FOOD ? Math.max(minFood, maxFood) : maxPlaces;
+            return Math.min(cap, maxPlaces);
+        }
+    }
+
+    /** 소속 제한 없이 배정 (모든 장소가 어느 날짜의 칸이든 채울 수 있음) */
+    public static int[] solve(double[] lat, double[] lng, int[] category, List<Day> days) {
+        return solve(lat, lng, category, null, days);
+    }
+
+    /**
+     * @param category 장소 분류 (SPOT / FOOD / OPTIONAL, 음수면 배정 제외)
+     * @param home     장소별 소속 날짜 인덱스 (-1이면 전역 후보, null이면 소속 제한 없음)
+     * @return 장소별 배정 날짜 인덱스 (배정 안 되면 -1)
+     */
+    public static int[] solve(double[] lat, double[] lng, int[] category, int[] home, List<Day> days) {
+        int p = lat.length;
+        int d = days.size();
+
+        // 노드: source, 장소 p개, (날짜, 분류, 필수/추가) d*3*2개, 날짜 d개, sink
+        int source = 0;
+        int placeBase = 1;
+        int slotBase = placeBase + p;
+        int dayBase = slotBase + d * CLASSES * 2;
+        int sink = dayBase + d;
+        Graph g = new Graph(sink + 1, p * (2 * d + 1) + d * (CLASSES * 2 + 1));
+
+        for (int i = 0; i < p; i++) {
+            if (category[i] >= 0) {
+                g.addEdge(source, placeBase + i, 1, 0);
+            }
+        }
+
+        // 장소별 날짜 j의 필수 칸 간선 [2j], 추가 칸 간선 [2j+1] (없으면 -1)
+        int[][] placeEdge = new int[p][2 * d];
+        for (int[] edges : placeEdge) {
+            Arrays.fill(edges, -1);
+        }
+        for (int j = 0; j < d; j++) {
+            Day day = days.get(j);
+            double[] dist = GeoUtils.distancesFrom(day.centerLat(), day.centerLng(), lat, lng);
+            for (int i = 0; i < p; i++) {
+                int c = category[i];
+                if (c < 0) {
+                    continue;
+                }
+                boolean own = home == null || home[i] == j;
+                long cost = Math.round(dist[i] * 1000);
+                int slot = slotBase + (j * CLASSES + c) * 2;
+                if (own) {
+                    placeEdge[i][2 * j] = g.addEdge(placeBase + i, slot, 1, cost);
+                } else if (c != OPTIONAL) {
+                    placeEdge[i][2 * j] = g.addEdge(placeBase + i, slot, 1, cost + FOREIGN);
+                }
+                if (own) {
+                    placeEdge[i][2 * j + 1] = g.addEdge(placeBase + i, slot + 1, 1, cost);
+                }
+            }
+            for (int c = 0; c < CLASSES; c++) {
+                int slot = slotBase + (j * CLASSES + c) * 2;
+                int min = Math.min(day.min(c), day.max(c));
+                if (min > 0) {
+                    g.addEdge(slot, dayBase + j, min, -REQUIRED);
+                }
+                if (day.max(c) > min) {
+                    g.addEdge(slot + 1, dayBase + j, day.max(c) - min, -EXTRA);
+                }
+            }
+            g.addEdge(dayBase + j, sink, day.maxPlaces(), 0);
+        }
+
+        g.minCostFlow(source, sink);
+
+        int[] assignment = new int[p];
+        Arrays.fill(assignment, -1);
+        for (int i = 0; i < p; i++) {
+            for (int k = 0; k < 2 * d; k++) {
+                int e = placeEdge[i][k];
+                if (e >= 0 && g.cap[e] == 0) {
+                    assignment[i] = k / 2;
+                    break;
+                }
+            }
+        }
+        return assignment;
+    }
+
+    /** 잔여 그래프 (간선 e와 e^1이 정/역방향 쌍) */
+    private static final class Graph {
+        final int n;
+        final int[] head;
+        int[] next;
+        int[] to;
+        int[] cap;
+        long[] cost;
+        int size;
+
+        Graph(int n, int expectedEdges) {
+            this.n = n;
+            this.head = new int[n];
+            Arrays.fill(head, -1);
+            int m = expectedEdges * 2;
+            this.next = new int[m];
+            this.to = new int[m];
+            this.cap = new int[m];
+            this.cost = new long[m];
+        }
+
+        int addEdge(int u, int v, int c, long w) {
+            if (size + 2 > to.length) {
+                int m = to.length * 2 + 2;
+                next = Arrays.copyOf(next, m);
+                to = Arrays.copyOf(to, m);
+                cap = Arrays.copyOf(cap, m);
+                cost = Arrays.copyOf(cost, m);
+            }
+            int e = size;
+            link(u, v, c, w);
+            link(v, u, 0, -w);
+            return e;
+        }
+
+        private void link(int u, int v, int c, long w) {
+            to[size] = v;
+            cap[size] = c;
+            cost[size] = w;
+            next[size] = head[u];
+            head[u] = size++;
+        }
+
+        // 비용이 음수인 최단 경로가 남아 있는 동안 1씩 증가 (모든 source 간선 용량이 1)
+        void minCostFlow(int s, int t) {
+            long[] dist = new long[n];
+            int[] prevEdge = new int[n];
+            boolean[] inQueue = new boolean[n];
+            ArrayDeque<Integer> queue = new ArrayDeque<>();
+
+            while (true) {
+                Arrays.fill(dist, Long.MAX_VALUE);
+                Arrays.fill(prevEdge, -1);
+                dist[s] = 0;
+                queue.add(s);
+                inQueue[s] = true;
+                while (!queue.isEmpty()) {
+                    int u = queue.poll();
+                    inQueue[u] = false;
+                    for (int e = head[u]; e >= 0; e = next[e]) {
+                        if (cap[e] <= 0) continue;
+                        int v = to[e];
+                        long nd = dist[u] + cost[e];
+                        if (nd < dist[v]) {
+                            dist[v] = nd;
+                            prevEdge[v] = e;
+                            if (!inQueue[v]) {
+                                inQueue[v] = true;
+                                queue.add(v);
+                            }
+                        }
+                    }
+                }
+                if (dist[t] == Long.MAX_VALUE || dist[t] >= 0) {
+                    return;
+                }
+                for (int v = t; v != s; v = to[prevEdge[v] ^ 1]) {
+                    cap[prevEdge[v]]--;
+                    cap[prevEdge[v] ^ 1]++;
+                }
+            }
+        }
+    }
+}
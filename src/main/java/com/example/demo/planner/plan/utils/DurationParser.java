@@ -1,4 +1,4 @@
-package com.example.demo.planner.plan.agent.test.date;
+package com.example.demo.planner.plan.utils;
 
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
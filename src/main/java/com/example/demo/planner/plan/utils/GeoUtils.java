@@ -3,6 +3,7 @@ package com.example.demo.planner.plan.utils;
 public class GeoUtils {
 
     private static final double EARTH_RADIUS_KM = 6371.0;
+    private static final double DEG_TO_RAD = Math.PI / 180.0;
 
     public static double haversine(double lat1, double lon1, double lat2, double lon2) {
         double dLat = Math.toRadians(lat2 - lat1);
@@ -14,4 +15,95 @@ public class GeoUtils {
         double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
         return EARTH_RADIUS_KM * c;
     }
-}
\ No newline at end of file
+
+    // ==================== 배치 거리 계산 ====================
+    //
+    // 한 점 → 여러 점, 여러 점 ↔ 여러 점 거리(km)를 double[] 배열로 계산
+    // - 근사(exact=false): 등장방형 근사. cos(기준 위도)를 한 번만 계산하고
+    //   나머지는 곱셈/제곱근뿐인 분기 없는 루프라 JIT가 SIMD로 자동 벡터화함.
+    //   서울 범위(수십 km)에서 haversine 대비 오차 0.1% 미만
+    // - 정확(exact=true): haversine. 각 점의 cos(위도)를 미리 계산해 호출당 삼각함수 수를 줄임
+
+    /**
+     * 한 점에서 여러 점까지 거리(km)
+     * @param out 결과 배열 (lats.length 이상), 새로 만들지 않고 재사용 가능
+     */
+    public static double[] distancesFrom(double lat, double lng, double[] lats, double[] lngs,
+            double[] out, boolean exact) {
+        int n = lats.length;
+        if (out == null || out.length < n) {
+            out = new double[n];
+        }
+        if (exact) {
+            haversineFrom(lat, lng, lats, lngs, cosLatitudes(lats), out);
+        } else {
+            equirectangularFrom(lat, lng, lats, lngs, Math.cos(lat * DEG_TO_RAD), out, n);
+        }
+        return out;
+    }
+
+    public static double[] distancesFrom(double lat, double lng, double[] lats, double[] lngs) {
+        return distancesFrom(lat, lng, lats, lngs, null, false);
+    }
+
+    /**
+     * 모든 점 쌍 거리 행렬(km), 행 우선 평탄화: matrix[i * n + j] = dist(i, j)
+     * - 근사 모드의 기준 위도는 전체 평균 (행렬 전체가 같은 축척이라 대칭이 유지됨)
+     */
+    public static double[] distanceMatrix(double[] lats, double[] lngs, boolean exact) {
+        int n = lats.length;
+        double[] matrix = new double[n * n];
+        double[] row = new double[n];
+
+        if (exact) {
+            double[] cosLat = cosLatitudes(lats);
+            for (int i = 0; i < n; i++) {
+                haversineFrom(lats[i], lngs[i], lats, lngs, cosLat, row);
+                System.arraycopy(row, 0, matrix, i * n, n);
+            }
+            return matrix;
+        }
+
+        double meanLat = 0;
+        for (double v : lats) {
+            meanLat += v;
+        }
+        double cosRef = Math.cos((n == 0 ? 0 : meanLat / n) * DEG_TO_RAD);
+        for (int i = 0; i < n; i++) {
+            equirectangularFrom(lats[i], lngs[i], lats, lngs, cosRef, row, n);
+            System.arraycopy(row, 0, matrix, i * n, n);
+        }
+        return matrix;
+    }
+
+    // 분기/메서드 호출 없는 본문 → C2 superword 자동 벡터화 대상
+    private static void equirectangularFrom(double lat, double lng, double[] lats, double[] lngs,
+            double cosRef, double[] out, int n) {
+        double ky = EARTH_RADIUS_KM * DEG_TO_RAD;
+        double kx = ky * cosRef;
+        for (int i = 0; i < n; i++) {
+            double dx = (lngs[i] - lng) * kx;
+            double dy = (lats[i] - lat) * ky;
+            out[i] = Math.sqrt(dx * dx + dy * dy);
+        }
+    }
+
+    private static void haversineFrom(double lat, double lng, double[] lats, double[] lngs,
+            double[] cosLat, double[] out) {
+        double cos0 = Math.cos(lat * DEG_TO_RAD);
+        for (int i = 0; i < lats.length; i++) {
+            double sLat = Math.sin((lats[i] - lat) * DEG_TO_RAD * 0.5);
+            double sLng = Math.sin((lngs[i] - lng) * DEG_TO_RAD * 0.5);
+            double a = sLat * sLat + cos0 * cosLat[i] * sLng * sLng;
+            out[i] = 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+        }
+    }
+
+    private static double[] cosLatitudes(double[] lats) {
+        double[] cos = new double[lats.length];
+        for (int i = 0; i < lats.length; i++) {
+            cos[i] = Math.cos(lats[i] * DEG_TO_RAD);
+        }
+        return cos;
+    }
+}
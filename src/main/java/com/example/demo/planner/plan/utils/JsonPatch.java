@@ -0,0 +1,204 @@
+package com.example.demo.planner.plan.utils;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * JSON Patch (RFC 6902) 중 add / remove / replace만 사용하는 diff/적용
+ * - 스냅샷 델타용: 이전 버전 JSON → 다음 버전 JSON 차이만 저장
+ * - 객체: 키 단위 비교, 양쪽 모두 객체/배열이면 안으로 들어가서 비교
+ * - 배열: 앞뒤 공통 부분을 건너뛰고 가운데만 비교
+ *   (일정 중간에 장소 하나 추가/삭제 시 뒤 장소 전체가 replace로 바뀌지 않도록)
+ * - diff 결과는 순서대로 적용해야 함 (배열 인덱스가 앞 연산 결과 기준)
+ */
+public final class JsonPatch {
+
+    private static final JsonNodeFactory NODES = JsonNodeFactory.instance;
+
+    private JsonPatch() {
+    }
+
+    /** from → to 패치 (같으면 빈 배열) */
+    public static ArrayNode diff(JsonNode from, JsonNode to) {
+        ArrayNode ops = NODES.arrayNode();
+        diff(from, to, "", ops);
+        return ops;
+    }
+
+    /** target에 패치 적용 (target이 바뀔 수 있으므로 반환값 사용) */
+    public static JsonNode apply(JsonNode target, JsonNode patch) {
+        JsonNode root = target;
+        for (JsonNode op : patch) {
+            String kind = op.path("op").asText();
+            List<String> tokens = parse(op.path("path").asText());
+            if (tokens.isEmpty()) {
+                if (!"replace".equals(kind) && !"add".equals(kind)) {
+                    throw new IllegalArgumentException("루트에 적용할 수 없는 연산: " + kind);
+                }
+                root = op.get("value").deepCopy();
+                continue;
+            }
+            JsonNode parent = root;
+            for (int i = 0; i < tokens.size() - 1; i++) {
+                parent = child(parent, tokens.get(i));
+            }
+            String last = tokens.get(tokens.size() - 1);
+            switch (kind) {
+                case "add" -> add(parent, last, op.get("value").deepCopy());
+                case "remove" -> remove(parent, last);
+                case "replace" -> {
+                    remove(parent, last);
+                    add(parent, last, op.get("value").deepCopy());
+                }
+                default -> throw new IllegalArgumentException("지원하지 않는 연산: " + kind);
+            }
+        }
+        return root;
+    }
+
+    // --------------------------------------------------------
+    // diff
+    // --------------------------------------------------------
+    private static void diff(JsonNode from, JsonNode to, String path, ArrayNode ops) {
+        if (from.equals(to)) {
+            return;
+        }
+        if (from.isObject() && to.isObject()) {
+            diffObject(from, to, path, ops);
+        } else if (from.isArray() && to.isArray()) {
+            diffArray(from, to, path, ops);
+        } else {
+            op(ops, "replace", path, to);
+        }
+    }
+
+    private static void diffObject(JsonNode from, JsonNode to, String path, ArrayNode ops) {
+        Iterator<String> names = from.fieldNames();
+        while (names.hasNext()) {
+            String name = names.next();
+            if (!to.has(name)) {
+                op(ops, "remove", path + "/" + escape(name), null);
+            }
+        }
+        Iterator<String> toNames = to.fieldNames();
+        while (toNames.hasNext()) {
+            String name = toNames.next();
+            String childPath = path + "/" + escape(name);
+            if (from.has(name)) {
+                diff(from.get(name), to.get(name), childPath, ops);
+            } else {
+                op(ops, "add", childPath, to.get(name));
+            }
+        }
+    }
+
+    private static void diffArray(JsonNode from, JsonNode to, String path, ArrayNode ops) {
+        int n = from.size();
+        int m = to.size();
+        int prefix = 0;
+        while (prefix < n && prefix < m && from.get(prefix).equals(to.get(prefix))) {
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < n - prefix && suffix < m - prefix
+                && from.get(n - 1 - suffix).equals(to.get(m - 1 - suffix))) {
+            suffix++;
+        }
+        int fromMid = n - prefix - suffix;
+        int toMid = m - prefix - suffix;
+        int common = Math.min(fromMid, toMid);
+
+        for (int i = 0; i < common; i++) {
+            diff(from.get(prefix + i), to.get(prefix + i), path + "/" + (prefix + i), ops);
+        }
+        // 남는 이전 항목은 같은 위치에서 반복 삭제, 새 항목은 뒤 공통 부분 앞에 차례로 삽입
+        for (int i = common; i < fromMid; i++) {
+            op(ops, "remove", path + "/" + (prefix + common), null);
+        }
+        for (int i = common; i < toMid; i++) {
+            op(ops, "add", path + "/" + (prefix + i), to.get(prefix + i));
+        }
+    }
+
+    private static void op(ArrayNode ops, String kind, String path, JsonNode value) {
+        ObjectNode op = ops.addObject();
+        op.put("op", kind);
+        op.put("path", path);
+        if (value != null) {
+            op.set("value", value);
+        }
+    }
+
+    // --------------------------------------------------------
+    // apply
+    // --------------------------------------------------------
+    private static JsonNode child(JsonNode parent, String token) {
+        JsonNode child = parent.isArray() ? parent.get(index(parent, token, false)) : parent.get(token);
+        if (child == null) {
+            throw new IllegalArgumentException("경로를 찾을 수 없음: " + token);
+        }
+        return child;
+    }
+
+    private static void add(JsonNode parent, String token, JsonNode value) {
+        if (parent instanceof ObjectNode object) {
+            object.set(token, value);
+        } else if (parent instanceof ArrayNode array) {
+            if ("-".equals(token)) {
+                array.add(value);
+            } else {
+                array.insert(index(array, token, true), value);
+            }
+        } else {
+            throw new IllegalArgumentException("값 노드에는 추가할 수 없음: " + token);
+        }
+    }
+
+    private static void remove(JsonNode parent, String token) {
+        if (parent instanceof ObjectNode object) {
+            if (object.remove(token) == null) {
+                throw new IllegalArgumentException("삭제할 키가 없음: " + token);
+            }
+        } else if (parent instanceof ArrayNode array) {
+            array.remove(index(array, token, false));
+        } else {
+            throw new IllegalArgumentException("값 노드에서는 삭제할 수 없음: " + token);
+        }
+    }
+
+    private static int index(JsonNode array, String token, boolean allowEnd) {
+        int index;
+        try {
+            index = Integer.parseInt(token);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("배열 인덱스가 아님: " + token);
+        }
+        int max = allowEnd ? array.size() : array.size() - 1;
+        if (index < 0 || index > max) {
+            throw new IllegalArgumentException("배열 인덱스 범위 밖: " + token);
+        }
+        return index;
+    }
+
+    // JSON Pointer (RFC 6901): ~ → ~0, / → ~1
+    private static String escape(String name) {
+        return name.replace("~", "~0").replace("/", "~1");
+    }
+
+    private static List<String> parse(String path) {
+        List<String> tokens = new ArrayList<>();
+        if (path.isEmpty()) {
+            return tokens;
+        }
+        for (String token : path.substring(1).split("/", -1)) {
+            tokens.add(token.replace("~1", "/").replace("~0", "~"));
+        }
+        return tokens;
+    }
+}
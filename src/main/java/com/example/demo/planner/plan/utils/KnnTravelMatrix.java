@@ -0,0 +1,690 @@
+package com.example.demo.planner.plan.utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 장소별 k-최근접 이웃 거리/이동시간 희소 행렬 (메모리 매핑 바이너리 파일)
+ * - 행 i: 장소 i에서 가까운 k개 이웃의 (인덱스, 거리 km, 이동시간 분)
+ * - 조회: id → 인덱스 해시 O(1) + 행 k칸 스캔, 이웃이 아니면 저장된 좌표로 등장방형 근사
+ * - 갱신: 좌표가 바뀌거나 새로 생긴 장소와, 그 장소 때문에 이웃 목록이 달라질 수 있는 장소 행만 재계산
+ *   (변경이 전체의 5%를 넘으면 전체 재계산)
+ *
+ * 파일 형식 (little-endian)
+ *   header 32B: magic, version, n, k (int), maxUpdatedAt epoch µs (long), maxUpdatedId (long)
+ *   (maxUpdatedAt, maxUpdatedId): 마지막으로 반영한 travel_places 행, 증분 갱신은 이 행 이후만 조회
+ *   ids long[n] (오름차순) | lat double[n] | lng double[n]
+ *   neighbor int[n*k] (-1 = 없음) | distKm float[n*k] | minutes short[n*k]
+ *
+ * 인스턴스는 불변. 파일은 임시 파일에 쓴 뒤 원자적으로 교체하므로
+ * 이전 인스턴스의 매핑은 교체 후에도 그대로 유효함
+ */
+public final class KnnTravelMatrix {
+
+    private static final int MAGIC = 0x50544d31; // "PTM1"
+    private static final int VERSION = 2;
+    private static final int HEADER_BYTES = 32;
+    private static final int MAX_UPDATED_OFFSET = 16;
+    private static final int MAX_UPDATED_ID_OFFSET = 24;
+
+    private static final double KM_PER_DEG_LAT = 110.574;
+    private static final double KM_PER_DEG_LNG_EQUATOR = 111.320;
+    private static final double GRID_CELL_KM = 1.0;
+    private static final double FULL_REBUILD_RATIO = 0.05;
+    // 반경 비교 시 haversine(저장값)과 등장방형(검사값) 차이 여유
+    private static final double RADIUS_MARGIN = 1.01;
+
+    private final int n;
+    private final int k;
+    private final long maxUpdatedAt;
+    private final long maxUpdatedId;
+    private final LongBuffer ids;
+    private final DoubleBuffer lat;
+    private final DoubleBuffer lng;
+    private final IntBuffer neighbor;
+    private final FloatBuffer distKm;
+    private final ShortBuffer minutes;
+    private final double kmPerDegLng;
+    private final LongIntHash positions;
+
+    private KnnTravelMatrix(int n, int k, long maxUpdatedAt, long maxUpdatedId, LongBuffer ids, DoubleBuffer lat,
+            DoubleBuffer lng, IntBuffer neighbor, FloatBuffer distKm, ShortBuffer minutes) {
+        this.n = n;
+        this.k = k;
+        this.maxUpdatedAt = maxUpdatedAt;
+        this.maxUpdatedId = maxUpdatedId;
+        this.ids = ids;
+        this.lat = lat;
+        this.lng = lng;
+        this.neighbor = neighbor;
+        this.distKm = distKm;
+        this.minutes = minutes;
+
+        double latSum = 0;
+        this.positions = new LongIntHash(n);
+        for (int i = 0; i < n; i++) {
+            latSum += lat.get(i);
+            positions.put(ids.get(i), i);
+        }
+        this.kmPerDegLng = KM_PER_DEG_LNG_EQUATOR * Math.cos(Math.toRadians(n == 0 ? 37.5665 : latSum / n));
+    }
+
+    // 좌표 변경 없이 maxUpdatedAt만 바뀐 경우: 매핑과 id 해시를 그대로 공유
+    private KnnTravelMatrix(KnnTravelMatrix base, long maxUpdatedAt, long maxUpdatedId) {
+        this.n = base.n;
+        this.k = base.k;
+        this.maxUpdatedAt = maxUpdatedAt;
+        this.maxUpdatedId = maxUpdatedId;
+        this.ids = base.ids;
+        this.lat = base.lat;
+        this.lng = base.lng;
+        this.neighbor = base.neighbor;
+        this.distKm = base.distKm;
+        this.minutes = base.minutes;
+        this.kmPerDegLng = base.kmPerDegLng;
+        this.positions = base.positions;
+    }
+
+    // ==================== 조회 ====================
+
+    public int size() {
+        return n;
+    }
+
+    public int k() {
+        return k;
+    }
+
+    /** 마지막으로 반영한 travel_places.updated_at (epoch µs, 없으면 Long.MIN_VALUE) */
+    public long maxUpdatedAt() {
+        return maxUpdatedAt;
+    }
+
+    /** maxUpdatedAt 행 중 마지막으로 반영한 id (같은 updated_at 행 구분용) */
+    public long maxUpdatedId() {
+        return maxUpdatedId;
+    }
+
+    public boolean contains(long id) {
+        return positions.get(id) >= 0;
+    }
+
+    /** 두 장소 거리(km), 모르는 id면 NaN */
+    public double distanceKm(long fromId, long toId) {
+        int a = positions.get(fromId);
+        int b = positions.get(toId);
+        if (a < 0 || b < 0) {
+            return Double.NaN;
+        }
+        if (a == b) {
+            return 0;
+        }
+        int slot = findSlot(a, b);
+        if (slot < 0) slot = findSlot(b, a);
+        return slot >= 0 ? distKm.get(slot) : approxKm(a, b);
+    }
+
+    /** 두 장소 이동시간(분), 모르는 id면 -1 */
+    public int travelMinutes(long fromId, long toId) {
+        int a = positions.get(fromId);
+        int b = positions.get(toId);
+        if (a < 0 || b < 0) {
+            return -1;
+        }
+        if (a == b) {
+            return 0;
+        }
+        int slot = findSlot(a, b);
+        if (slot < 0) slot = findSlot(b, a);
+        return slot >= 0 ? minutes.get(slot) : ScheduleRules.travelMinutes(approxKm(a, b));
+    }
+
+    /** 가까운 순 이웃 id (최대 k개) */
+    public long[] neighborIds(long id) {
+        int a = positions.get(id);
+        if (a < 0) {
+            return new long[0];
+        }
+        long[] out = new long[k];
+        int m = 0;
+        for (int j = 0; j < k; j++) {
+            int nb = neighbor.get(a * k + j);
+            if (nb < 0) break;
+            out[m++] = ids.get(nb);
+        }
+        return Arrays.copyOf(out, m);
+    }
+
+    private int findSlot(int a, int b) {
+        int base = a * k;
+        for (int j = 0; j < k; j++) {
+            int nb = neighbor.get(base + j);
+            if (nb == b) return base + j;
+            if (nb < 0) return -1;
+        }
+        return -1;
+    }
+
+    private double approxKm(int a, int b) {
+        double dx = (lng.get(a) - lng.get(b)) * kmPerDegLng;
+        double dy = (lat.get(a) - lat.get(b)) * KM_PER_DEG_LAT;
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+
+    // ==================== 생성 / 적재 ====================
+
+    /** 전체 계산 후 file에 저장하고 매핑해서 반환 */
+    public static KnnTravelMatrix build(long[] ids, double[] lat, double[] lng, int k,
+            long maxUpdatedAt, long maxUpdatedId, Path file) throws IOException {
+        long[] sortedIds = ids.clone();
+        double[] sortedLat = new double[ids.length];
+        double[] sortedLng = new double[ids.length];
+        sortById(ids, lat, lng, sortedIds, sortedLat, sortedLng);
+
+        Rows rows = new Rows(sortedIds.length, k);
+        Grid grid = new Grid(sortedLat, sortedLng);
+        for (int i = 0; i < sortedIds.length; i++) {
+            rows.compute(i, grid);
+        }
+        return write(file, sortedIds, sortedLat, sortedLng, rows, maxUpdatedAt, maxUpdatedId);
+    }
+
+    /** 파일이 없거나 형식이 다르면 null */
+    public static KnnTravelMatrix load(Path file) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (ch.size() < HEADER_BYTES) {
+                return null;
+            }
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            buf.order(ByteOrder.LITTLE_ENDIAN);
+            if (buf.getInt(0) != MAGIC || buf.getInt(4) != VERSION) {
+                return null;
+            }
+            int n = buf.getInt(8);
+            int k = buf.getInt(12);
+            long maxUpdatedAt = buf.getLong(MAX_UPDATED_OFFSET);
+            long maxUpdatedId = buf.getLong(MAX_UPDATED_ID_OFFSET);
+            if (ch.size() != fileBytes(n, k)) {
+                return null;
+            }
+
+            int off = HEADER_BYTES;
+            LongBuffer ids = slice(buf, off, n * 8).asLongBuffer();
+            off += n * 8;
+            DoubleBuffer lat = slice(buf, off, n * 8).asDoubleBuffer();
+            off += n * 8;
+            DoubleBuffer lng = slice(buf, off, n * 8).asDoubleBuffer();
+            off += n * 8;
+            IntBuffer neighbor = slice(buf, off, n * k * 4).asIntBuffer();
+            off += n * k * 4;
+            FloatBuffer dist = slice(buf, off, n * k * 4).asFloatBuffer();
+            off += n * k * 4;
+            ShortBuffer minutes = slice(buf, off, n * k * 2).asShortBuffer();
+
+            return new KnnTravelMatrix(n, k, maxUpdatedAt, maxUpdatedId, ids, lat, lng, neighbor, dist, minutes);
+        }
+    }
+
+    /**
+     * 변경된 장소 좌표 반영 (삭제는 감지하지 않음)
+     * - 좌표 변경이 없으면 재계산/재해시 없이 파일 헤더의 maxUpdatedAt/maxUpdatedId만 고쳐서 반환 (그것도 같으면 this)
+     */
+    public KnnTravelMatrix update(long[] updIds, double[] updLat, double[] updLng,
+            long newMaxUpdatedAt, long newMaxUpdatedId, Path file) throws IOException {
+
+        // 워터마크는 (updated_at, id) 순서로 큰 쪽
+        boolean advance = newMaxUpdatedAt > maxUpdatedAt
+                || (newMaxUpdatedAt == maxUpdatedAt && newMaxUpdatedId > maxUpdatedId);
+        long mergedAt = advance ? newMaxUpdatedAt : maxUpdatedAt;
+        long mergedId = advance ? newMaxUpdatedId : maxUpdatedId;
+
+        if (!hasCoordinateChange(updIds, updLat, updLng)) {
+            if (!advance) {
+                return this;
+            }
+            patchMaxUpdated(file, mergedAt, mergedId);
+            return new KnnTravelMatrix(this, mergedAt, mergedId);
+        }
+
+        Map<Long, Integer> updates = new HashMap<>();
+        for (int u = 0; u < updIds.length; u++) {
+            updates.put(updIds[u], u);
+        }
+
+        // 1) 기존 + 신규 id 합치기 (정렬 유지)
+        long[] added = Arrays.stream(updIds).filter(id -> positions.get(id) < 0).distinct().sorted().toArray();
+        int m = n + added.length;
+        long[] newIds = new long[m];
+        double[] newLat = new double[m];
+        double[] newLng = new double[m];
+        int[] oldToNew = new int[n];
+        boolean[] changed = new boolean[m];
+        int changedCount = 0;
+
+        int o = 0;
+        int a = 0;
+        for (int i = 0; i < m; i++) {
+            boolean takeOld = a >= added.length || (o < n && ids.get(o) < added[a]);
+            long id = takeOld ? ids.get(o) : added[a];
+            newIds[i] = id;
+            Integer u = updates.get(id);
+            if (takeOld) {
+                oldToNew[o] = i;
+                newLat[i] = lat.get(o);
+                newLng[i] = lng.get(o);
+                o++;
+                if (u != null && (newLat[i] != updLat[u] || newLng[i] != updLng[u])) {
+                    newLat[i] = updLat[u];
+                    newLng[i] = updLng[u];
+                    changed[i] = true;
+                    changedCount++;
+                }
+            } else {
+                newLat[i] = updLat[u];
+                newLng[i] = updLng[u];
+                changed[i] = true;
+                changedCount++;
+                a++;
+            }
+        }
+
+        if (n == 0 || changedCount > m * FULL_REBUILD_RATIO) {
+            return build(newIds, newLat, newLng, k, mergedAt, mergedId, file);
+        }
+
+        // 2) 다시 계산할 행 찾기
+        boolean[] oldChanged = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            oldChanged[i] = changed[oldToNew[i]];
+        }
+        int[] changedIdx = new int[changedCount];
+        for (int i = 0, c = 0; i < m; i++) {
+            if (changed[i]) changedIdx[c++] = i;
+        }
+
+        Grid grid = new Grid(newLat, newLng);
+        Rows rows = new Rows(m, k);
+        boolean[] recompute = changed.clone();
+
+        for (int old = 0; old < n; old++) {
+            int i = oldToNew[old];
+            if (recompute[i]) {
+                continue;
+            }
+            int base = old * k;
+            int last = -1;
+            for (int j = 0; j < k; j++) {
+                int nb = neighbor.get(base + j);
+                if (nb < 0) break;
+                last = j;
+                // 이웃이 옮겨졌으면 목록이 달라질 수 있음
+                if (oldChanged[nb]) {
+                    recompute[i] = true;
+                    break;
+                }
+            }
+            if (recompute[i]) {
+                continue;
+            }
+            // 이웃이 k개 미만이었거나, 바뀐 장소가 k번째 이웃보다 가까워졌으면 재계산
+            double radius = last < k - 1 ? Double.MAX_VALUE : distKm.get(base + last) * RADIUS_MARGIN;
+            double r2 = radius == Double.MAX_VALUE ? radius : radius * radius;
+            for (int c : changedIdx) {
+                if (grid.dist2(i, c) <= r2) {
+                    recompute[i] = true;
+                    break;
+                }
+            }
+        }
+
+        // 3) 재계산 / 기존 행 복사 (인덱스는 새 위치로 변환)
+        for (int old = 0; old < n; old++) {
+            int i = oldToNew[old];
+            if (recompute[i]) {
+                continue;
+            }
+            for (int j = 0; j < k; j++) {
+                int src = old * k + j;
+                int nb = neighbor.get(src);
+                rows.set(i, j, nb < 0 ? -1 : oldToNew[nb], distKm.get(src), minutes.get(src));
+            }
+        }
+        for (int i = 0; i < m; i++) {
+            if (recompute[i]) {
+                rows.compute(i, grid);
+            }
+        }
+
+        return write(file, newIds, newLat, newLng, rows, mergedAt, mergedId);
+    }
+
+    // 새 장소가 있거나 기존 장소 좌표가 달라졌는지 (변경분 크기만큼만 확인)
+    private boolean hasCoordinateChange(long[] updIds, double[] updLat, double[] updLng) {
+        for (int u = 0; u < updIds.length; u++) {
+            int i = positions.get(updIds[u]);
+            if (i < 0 || lat.get(i) != updLat[u] || lng.get(i) != updLng[u]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // ==================== 파일 ====================
+
+    private static long fileBytes(int n, int k) {
+        return HEADER_BYTES + (long) n * 24 + (long) n * k * 10;
+    }
+
+    private static ByteBuffer slice(MappedByteBuffer buf, int offset, int length) {
+        return buf.slice(offset, length).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static KnnTravelMatrix write(Path file, long[] ids, double[] lat, double[] lng, Rows rows,
+            long maxUpdatedAt, long maxUpdatedId) throws IOException {
+        int n = ids.length;
+        int k = rows.k;
+        Path dir = file.toAbsolutePath().getParent();
+        if (dir != null) {
+            Files.createDirectories(dir);
+        }
+        Path tmp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+            ChunkWriter w = new ChunkWriter(ch);
+            w.putInt(MAGIC).putInt(VERSION).putInt(n).putInt(k).putLong(maxUpdatedAt).putLong(maxUpdatedId);
+            for (long v : ids) w.putLong(v);
+            for (double v : lat) w.putDouble(v);
+            for (double v : lng) w.putDouble(v);
+            for (int v : rows.neighbor) w.putInt(v);
+            for (float v : rows.dist) w.putFloat(v);
+            for (short v : rows.minutes) w.putShort(v);
+            w.flush();
+            ch.force(true);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return load(file);
+    }
+
+    private static void patchMaxUpdated(Path file, long maxUpdatedAt, long maxUpdatedId) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            ByteBuffer b = ByteBuffer.allocate(2 * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN)
+                    .putLong(maxUpdatedAt).putLong(maxUpdatedId).flip();
+            ch.write(b, MAX_UPDATED_OFFSET);
+        }
+    }
+
+    private static final class ChunkWriter {
+        private final FileChannel ch;
+        private final ByteBuffer buf = ByteBuffer.allocate(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+
+        ChunkWriter(FileChannel ch) {
+            this.ch = ch;
+        }
+
+        private ChunkWriter ensure(int bytes) throws IOException {
+            if (buf.remaining() < bytes) flush();
+            return this;
+        }
+
+        ChunkWriter putInt(int v) throws IOException { ensure(4).buf.putInt(v); return this; }
+        ChunkWriter putLong(long v) throws IOException { ensure(8).buf.putLong(v); return this; }
+        ChunkWriter putDouble(double v) throws IOException { ensure(8).buf.putDouble(v); return this; }
+        ChunkWriter putFloat(float v) throws IOException { ensure(4).buf.putFloat(v); return this; }
+        ChunkWriter putShort(short v) throws IOException { ensure(2).buf.putShort(v); return this; }
+
+        void flush() throws IOException {
+            buf.flip();
+            while (buf.hasRemaining()) {
+                ch.write(buf);
+            }
+            buf.clear();
+        }
+    }
+
+    private static void sortById(long[] ids, double[] lat, double[] lng,
+            long[] outIds, double[] outLat, double[] outLng) {
+        Integer[] order = new Integer[ids.length];
+        for (int i = 0; i < ids.length; i++) order[i] = i;
+        Arrays.sort(order, (x, y) -> Long.compare(ids[x], ids[y]));
+        for (int i = 0; i < ids.length; i++) {
+            outIds[i] = ids[order[i]];
+            outLat[i] = lat[order[i]];
+            outLng[i] = lng[order[i]];
+        }
+    }
+
+    // ==================== kNN 계산 ====================
+
+    /** 힙에서 만드는 행 데이터 (파일로 쓰기 전) */
+    private static final class Rows {
+        final int k;
+        final int[] neighbor;
+        final float[] dist;
+        final short[] minutes;
+        final int[] heapIdx;
+        final double[] heapD2;
+
+        Rows(int n, int k) {
+            this.k = k;
+            this.neighbor = new int[n * k];
+            this.dist = new float[n * k];
+            this.minutes = new short[n * k];
+            Arrays.fill(neighbor, -1);
+            this.heapIdx = new int[k];
+            this.heapD2 = new double[k];
+        }
+
+        void set(int i, int j, int nb, float km, short min) {
+            neighbor[i * k + j] = nb;
+            dist[i * k + j] = km;
+            minutes[i * k + j] = min;
+        }
+
+        void compute(int i, Grid grid) {
+            int found = grid.knn(i, k, heapIdx, heapD2);
+            // 가까운 순 정렬 (k가 작아서 삽입 정렬)
+            for (int x = 1; x < found; x++) {
+                int id = heapIdx[x];
+                double d = heapD2[x];
+                int y = x - 1;
+                while (y >= 0 && heapD2[y] > d) {
+                    heapIdx[y + 1] = heapIdx[y];
+                    heapD2[y + 1] = heapD2[y];
+                    y--;
+                }
+                heapIdx[y + 1] = id;
+                heapD2[y + 1] = d;
+            }
+            for (int j = 0; j < k; j++) {
+                if (j < found) {
+                    int nb = heapIdx[j];
+                    double km = GeoUtils.haversine(grid.lat[i], grid.lng[i], grid.lat[nb], grid.lng[nb]);
+                    set(i, j, nb, (float) km, (short) ScheduleRules.travelMinutes(km));
+                } else {
+                    set(i, j, -1, 0f, (short) 0);
+                }
+            }
+        }
+    }
+
+    /** 등장방형 투영 좌표의 균일 격자 (셀 1km) */
+    private static final class Grid {
+        final double[] lat;
+        final double[] lng;
+        final double[] x;
+        final double[] y;
+        final Map<Long, int[]> cells = new HashMap<>();
+        final int span;
+
+        Grid(double[] lat, double[] lng) {
+            int n = lat.length;
+            this.lat = lat;
+            this.lng = lng;
+            this.x = new double[n];
+            this.y = new double[n];
+            double lat0 = n == 0 ? 37.5665 : Arrays.stream(lat).average().orElse(37.5665);
+            double kmPerDegLng = KM_PER_DEG_LNG_EQUATOR * Math.cos(Math.toRadians(lat0));
+
+            Map<Long, int[]> building = new HashMap<>();
+            Map<Long, Integer> counts = new HashMap<>();
+            int minCx = Integer.MAX_VALUE, maxCx = Integer.MIN_VALUE;
+            int minCy = Integer.MAX_VALUE, maxCy = Integer.MIN_VALUE;
+            for (int i = 0; i < n; i++) {
+                x[i] = lng[i] * kmPerDegLng;
+                y[i] = lat[i] * KM_PER_DEG_LAT;
+                int cx = cell(x[i]);
+                int cy = cell(y[i]);
+                minCx = Math.min(minCx, cx);
+                maxCx = Math.max(maxCx, cx);
+                minCy = Math.min(minCy, cy);
+                maxCy = Math.max(maxCy, cy);
+                counts.merge(key(cx, cy), 1, Integer::sum);
+            }
+            counts.forEach((key, c) -> building.put(key, new int[c]));
+            Map<Long, Integer> fill = new HashMap<>();
+            for (int i = 0; i < n; i++) {
+                long key = key(cell(x[i]), cell(y[i]));
+                int pos = fill.merge(key, 1, Integer::sum) - 1;
+                building.get(key)[pos] = i;
+            }
+            cells.putAll(building);
+            this.span = n == 0 ? 0 : Math.max(maxCx - minCx, maxCy - minCy) + 1;
+        }
+
+        private static int cell(double v) {
+            return (int) Math.floor(v / GRID_CELL_KM);
+        }
+
+        private static long key(int cx, int cy) {
+            return ((long) cx << 32) | (cy & 0xFFFFFFFFL);
+        }
+
+        double dist2(int a, int b) {
+            double dx = x[a] - x[b];
+            double dy = y[a] - y[b];
+            return dx * dx + dy * dy;
+        }
+
+        /** i 자신을 제외한 최근접 k개 (heap에 채우고 개수 반환, 순서는 미정) */
+        int knn(int i, int k, int[] heapIdx, double[] heapD2) {
+            int size = 0;
+            int cx0 = cell(x[i]);
+            int cy0 = cell(y[i]);
+
+            for (int r = 0; r <= span; r++) {
+                if (size == k) {
+                    double ring = (r - 1) * GRID_CELL_KM;
+                    if (ring > 0 && ring * ring >= heapD2[0]) {
+                        break;
+                    }
+                }
+                for (int cx = cx0 - r; cx <= cx0 + r; cx++) {
+                    boolean edge = cx == cx0 - r || cx == cx0 + r;
+                    int step = edge ? 1 : 2 * r;
+                    for (int cy = cy0 - r; cy <= cy0 + r; cy += Math.max(1, step)) {
+                        int[] members = cells.get(key(cx, cy));
+                        if (members == null) continue;
+                        for (int p : members) {
+                            if (p == i) continue;
+                            double d = dist2(i, p);
+                            if (size < k) {
+                                heapIdx[size] = p;
+                                heapD2[size] = d;
+                                siftUp(heapIdx, heapD2, size++);
+                            } else if (d < heapD2[0]) {
+                                heapIdx[0] = p;
+                                heapD2[0] = d;
+                                siftDown(heapIdx, heapD2, 0, size);
+                            }
+                        }
+                    }
+                }
+            }
+            return size;
+        }
+
+        private static void siftUp(int[] idx, double[] d2, int c) {
+            while (c > 0) {
+                int p = (c - 1) >>> 1;
+                if (d2[p] >= d2[c]) break;
+                swap(idx, d2, p, c);
+                c = p;
+            }
+        }
+
+        private static void siftDown(int[] idx, double[] d2, int p, int size) {
+            while (true) {
+                int l = 2 * p + 1, r = l + 1, m = p;
+                if (l < size && d2[l] > d2[m]) m = l;
+                if (r < size && d2[r] > d2[m]) m = r;
+                if (m == p) return;
+                swap(idx, d2, p, m);
+                p = m;
+            }
+        }
+
+        private static void swap(int[] idx, double[] d2, int a, int b) {
+            int ti = idx[a]; idx[a] = idx[b]; idx[b] = ti;
+            double td = d2[a]; d2[a] = d2[b]; d2[b] = td;
+        }
+    }
+
+    /** long → int 오픈 어드레싱 해시 (박싱 없이 id → 인덱스) */
+    private static final class LongIntHash {
+        private final long[] keys;
+        private final int[] values; // 인덱스 + 1 (0 = 빈 칸)
+        private final int mask;
+
+        LongIntHash(int expected) {
+            int cap = Integer.highestOneBit(Math.max(4, expected * 2 - 1)) << 1;
+            this.keys = new long[cap];
+            this.values = new int[cap];
+            this.mask = cap - 1;
+        }
+
+        private int slot(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32)) & mask;
+        }
+
+        void put(long key, int value) {
+            int s = slot(key);
+            while (values[s] != 0 && keys[s] != key) {
+                s = (s + 1) & mask;
+            }
+            keys[s] = key;
+            values[s] = value + 1;
+        }
+
+        int get(long key) {
+            int s = slot(key);
+            while (values[s] != 0) {
+                if (keys[s] == key) return values[s] - 1;
+                s = (s + 1) & mask;
+            }
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,330 @@
+package com.example.demo.planner.plan.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.example.demo.planner.plan.dto.TravelPlaceCandidate;
+
+/**
+ * 후보 장소 공간 인덱스 (KD-tree, 일정 생성 요청마다 한 번 생성)
+ * - k-최근접 검색: 카테고리 필터 + 제외 id(usedIds) 지원
+ * - 카테고리별 트리는 처음 조회할 때 만듦 → 카테고리 필터 검색도 해당 카테고리 장소만 탐색
+ * - remove()로 장소를 빼면서 최근접을 반복 조회할 수 있음 (동선 정렬용)
+ *
+ * 거리는 후보 평균 위도 기준 등장방형 투영(km) 유클리드 거리
+ * → 도시 규모에서 haversine 순서와 사실상 같고, 실제 거리(km)가 필요하면 GeoUtils.haversine 사용
+ * 스레드 안전하지 않음 (요청 스레드 안에서만 사용)
+ */
+public final class PlaceSpatialIndex {
+
+    private static final double KM_PER_DEG_LAT = 110.574;
+    private static final double KM_PER_DEG_LNG_EQUATOR = 111.320;
+
+    private final List<TravelPlaceCandidate> places;
+    private final double kmPerDegLng;
+    private final double[] x;
+    private final double[] y;
+    private final boolean[] removed;
+
+    private final KdTree all;
+    private final Map<String, KdTree> byCategory = new HashMap<>();
+
+    private PlaceSpatialIndex(List<TravelPlaceCandidate> places) {
+        this.places = List.copyOf(places);
+        int n = this.places.size();
+
+        double latSum = 0;
+        for (TravelPlaceCandidate p : this.places) {
+            latSum += p.getTravelPlacesLat();
+        }
+        double lat0 = n == 0 ? 37.5665 : latSum / n;
+        this.kmPerDegLng = KM_PER_DEG_LNG_EQUATOR * Math.cos(Math.toRadians(lat0));
+
+        this.x = new double[n];
+        this.y = new double[n];
+        this.removed = new boolean[n];
+        int[] members = new int[n];
+        for (int i = 0; i < n; i++) {
+            TravelPlaceCandidate p = this.places.get(i);
+            x[i] = p.getTravelPlacesLng() * kmPerDegLng;
+            y[i] = p.getTravelPlacesLat() * KM_PER_DEG_LAT;
+            members[i] = i;
+        }
+        this.all = new KdTree(members);
+    }
+
+    public static PlaceSpatialIndex of(List<TravelPlaceCandidate> places) {
+        return new PlaceSpatialIndex(places);
+    }
+
+    public int size() {
+        return places.size();
+    }
+
+    public TravelPlaceCandidate get(int index) {
+        return places.get(index);
+    }
+
+    /**
+     * (lat, lng)에서 가까운 순으로 최대 k개
+     * @param category    null이면 전체 카테고리
+     * @param excludedIds null 가능, 포함된 id는 제외 (같은 id가 여러 번 있어도 한 번만 반환)
+     */
+    public List<TravelPlaceCandidate> nearest(double lat, double lng, int k, String category, Set<Long> excludedIds) {
+        int[] idx = nearestIndices(lat, lng, k, category, excludedIds);
+        List<TravelPlaceCandidate> result = new ArrayList<>(idx.length);
+        for (int i : idx) {
+            result.add(places.get(i));
+        }
+        return result;
+    }
+
+    /** nearest()와 같지만 입력 리스트 기준 인덱스로 반환 */
+    public int[] nearestIndices(double lat, double lng, int k, String category, Set<Long> excludedIds) {
+        if (k <= 0) {
+            return new int[0];
+        }
+        KdTree tree = category == null ? all : byCategory.computeIfAbsent(category, this::buildCategoryTree);
+        Query q = new Query(lng * kmPerDegLng, lat * KM_PER_DEG_LAT, k, excludedIds);
+        tree.search(0, tree.perm.length, 0, q);
+        return q.drainAscending();
+    }
+
+    /** 남아 있는 장소 중 최근접 하나의 인덱스 (없으면 -1) */
+    public int nearestIndex(double lat, double lng) {
+        int[] idx = nearestIndices(lat, lng, 1, null, null);
+        return idx.length == 0 ? -1 : idx[0];
+    }
+
+    /** 이후 검색에서 제외 */
+    public void remove(int index) {
+        if (removed[index]) {
+            return;
+        }
+        removed[index] = true;
+        all.decrement(index);
+        KdTree categoryTree = byCategory.get(places.get(index).getNormalizedCategory());
+        if (categoryTree != null) {
+            categoryTree.decrement(index);
+        }
+    }
+
+    private KdTree buildCategoryTree(String category) {
+        int[] members = new int[places.size()];
+        int m = 0;
+        for (int i = 0; i < places.size(); i++) {
+            if (category.equals(places.get(i).getNormalizedCategory())) {
+                members[m++] = i;
+            }
+        }
+        KdTree tree = new KdTree(Arrays.copyOf(members, m));
+        // 이미 제거된 장소 반영
+        for (int i = 0; i < m; i++) {
+            if (removed[tree.perm[i]]) {
+                tree.decrement(tree.perm[i]);
+            }
+        }
+        return tree;
+    }
+
+    /**
+     * 배열 기반 암시적 KD-tree
+     * - 구간 [lo, hi)의 노드는 mid = (lo + hi) / 2, 왼쪽 [lo, mid), 오른쪽 [mid + 1, hi)
+     * - 깊이 짝수는 x, 홀수는 y 기준 분할
+     * - live[mid]: 해당 서브트리에 남은 장소 수 (0이면 탐색 생략)
+     */
+    private final class KdTree {
+        final int[] perm;
+        final int[] live;
+        // 장소 인덱스 → perm 위치 (트리에 없으면 -1)
+        final int[] position = new int[places.size()];
+
+        KdTree(int[] members) {
+            this.perm = members;
+            this.live = new int[members.length];
+            build(0, members.length, 0);
+            Arrays.fill(position, -1);
+            for (int i = 0; i < perm.length; i++) {
+                position[perm[i]] = i;
+            }
+        }
+
+        private void build(int lo, int hi, int depth) {
+            if (lo >= hi) {
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            select(lo, hi - 1, mid, (depth & 1) == 0 ? x : y);
+            live[mid] = hi - lo;
+            build(lo, mid, depth + 1);
+            build(mid + 1, hi, depth + 1);
+        }
+
+        // quickselect: perm[lo..hi]에서 nth 위치에 중앙값이 오도록 부분 정렬
+        private void select(int lo, int hi, int nth, double[] coord) {
+            while (lo < hi) {
+                double pivot = coord[perm[(lo + hi) >>> 1]];
+                int i = lo;
+                int j = hi;
+                while (i <= j) {
+                    while (coord[perm[i]] < pivot) i++;
+                    while (coord[perm[j]] > pivot) j--;
+                    if (i <= j) {
+                        int t = perm[i]; perm[i] = perm[j]; perm[j] = t;
+                        i++;
+                        j--;
+                    }
+                }
+                if (nth <= j) {
+                    hi = j;
+                } else if (nth >= i) {
+                    lo = i;
+                } else {
+                    return;
+                }
+            }
+        }
+
+        void search(int lo, int hi, int depth, Query q) {
+            if (lo >= hi) {
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            if (live[mid] == 0) {
+                return;
+            }
+            int p = perm[mid];
+            if (!removed[p]) {
+                q.offer(p);
+            }
+
+            double diff = (depth & 1) == 0 ? q.qx - x[p] : q.qy - y[p];
+            if (diff < 0) {
+                search(lo, mid, depth + 1, q);
+                if (diff * diff < q.worst()) search(mid + 1, hi, depth + 1, q);
+            } else {
+                search(mid + 1, hi, depth + 1, q);
+                if (diff * diff < q.worst()) search(lo, mid, depth + 1, q);
+            }
+        }
+
+        // 루트에서 해당 장소 노드까지 live 감소
+        void decrement(int index) {
+            int pos = position[index];
+            if (pos < 0) {
+                return;
+            }
+            int lo = 0;
+            int hi = perm.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                live[mid]--;
+                if (pos == mid) {
+                    return;
+                }
+                if (pos < mid) {
+                    hi = mid;
+                } else {
+                    lo = mid + 1;
+                }
+            }
+        }
+    }
+
+    /** k-최근접 수집용 최대 힙 (가장 먼 후보가 루트) */
+    private final class Query {
+        final double qx;
+        final double qy;
+        final Set<Long> excludedIds;
+        final int[] idx;
+        final double[] d2;
+        int size;
+
+        Query(double qx, double qy, int k, Set<Long> excludedIds) {
+            this.qx = qx;
+            this.qy = qy;
+            this.excludedIds = excludedIds;
+            this.idx = new int[k];
+            this.d2 = new double[k];
+        }
+
+        double worst() {
+            return size < idx.length ? Double.MAX_VALUE : d2[0];
+        }
+
+        void offer(int p) {
+            double dx = x[p] - qx;
+            double dy = y[p] - qy;
+            double d = dx * dx + dy * dy;
+            if (d >= worst()) {
+                return;
+            }
+            Long id = places.get(p).getId();
+            if (excludedIds != null && excludedIds.contains(id)) {
+                return;
+            }
+            // 같은 id 중복 방지 (더 가까운 쪽 유지)
+            for (int i = 0; i < size; i++) {
+                if (places.get(idx[i]).getId().equals(id)) {
+                    if (d < d2[i]) {
+                        d2[i] = d;
+                        idx[i] = p;
+                        siftUp(i);
+                        siftDown(i);
+                    }
+                    return;
+                }
+            }
+            if (size < idx.length) {
+                idx[size] = p;
+                d2[size] = d;
+                siftUp(size++);
+            } else {
+                idx[0] = p;
+                d2[0] = d;
+                siftDown(0);
+            }
+        }
+
+        int[] drainAscending() {
+            int[] out = new int[size];
+            for (int n = size - 1; n >= 0; n--) {
+                out[n] = idx[0];
+                idx[0] = idx[size - 1];
+                d2[0] = d2[size - 1];
+                size--;
+                siftDown(0);
+            }
+            return out;
+        }
+
+        private void siftUp(int c) {
+            while (c > 0) {
+                int p = (c - 1) >>> 1;
+                if (d2[p] >= d2[c]) break;
+                swap(p, c);
+                c = p;
+            }
+        }
+
+        private void siftDown(int p) {
+            while (true) {
+                int l = 2 * p + 1, r = l + 1, m = p;
+                if (l < size && d2[l] > d2[m]) m = l;
+                if (r < size && d2[r] > d2[m]) m = r;
+                if (m == p) return;
+                swap(p, m);
+                p = m;
+            }
+        }
+
+        private void swap(int a, int b) {
+            int ti = idx[a]; idx[a] = idx[b]; idx[b] = ti;
+            double td = d2[a]; d2[a] = d2[b]; d2[b] = td;
+        }
+    }
+}
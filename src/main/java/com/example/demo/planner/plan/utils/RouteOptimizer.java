@@ -0,0 +1,174 @@
+package com.example.demo.planner.plan.utils;
+
+/**
+ * 하루 방문 순서 최적화 (열린 경로, 돌아오지 않음)
+ * - 최근접 이웃으로 초기 경로 생성 → 2-opt(구간 뒤집기) + Or-opt(1~3개 구간 이동)로 개선
+ * - 시작점이 고정되지 않으면 모든 점에서 시작해 보고 가장 짧은 경로 채택
+ * - 하루 장소 수(보통 10개 이하) 기준 수 μs 수준
+ *
+ * cost는 대칭 행렬(행 우선 n*n)이라고 가정 (GeoUtils.distanceMatrix 결과)
+ */
+public final class RouteOptimizer {
+
+    private static final double EPS = 1e-9;
+    private static final int MAX_SEGMENT = 3;
+
+    private RouteOptimizer() {
+    }
+
+    /**
+     * @param cost       n*n 이동 비용
+     * @param fixedStart 첫 방문으로 고정할 점 (-1이면 자유)
+     * @return 방문 순서 (입력 인덱스)
+     */
+    public static int[] optimize(double[] cost, int n, int fixedStart) {
+        if (n <= 0) {
+            return new int[0];
+        }
+
+        int[] best = null;
+        double bestCost = Double.MAX_VALUE;
+        int from = fixedStart >= 0 ? fixedStart : 0;
+        int to = fixedStart >= 0 ? fixedStart : n - 1;
+
+        for (int s = from; s <= to; s++) {
+            int[] route = nearestNeighbor(cost, n, s);
+            improve(route, cost, n, fixedStart >= 0);
+            double c = pathCost(route, cost, n);
+            if (c < bestCost - EPS) {
+                bestCost = c;
+                best = route;
+            }
+        }
+        return best;
+    }
+
+    public static double pathCost(int[] route, double[] cost, int n) {
+        double total = 0;
+        for (int i = 1; i < route.length; i++) {
+            total += cost[route[i - 1] * n + route[i]];
+        }
+        return total;
+    }
+
+    private static int[] nearestNeighbor(double[] cost, int n, int start) {
+        int[] route = new int[n];
+        boolean[] visited = new boolean[n];
+        route[0] = start;
+        visited[start] = true;
+        for (int step = 1; step < n; step++) {
+            int cur = route[step - 1];
+            int next = -1;
+            double nextCost = Double.MAX_VALUE;
+            for (int j = 0; j < n; j++) {
+                if (!visited[j] && cost[cur * n + j] < nextCost) {
+                    nextCost = cost[cur * n + j];
+                    next = j;
+                }
+            }
+            route[step] = next;
+            visited[next] = true;
+        }
+        return route;
+    }
+
+    // 개선이 없을 때까지 2-opt → Or-opt 반복
+    private static void improve(int[] route, double[] cost, int n, boolean keepFirst) {
+        int first = keepFirst ? 1 : 0;
+        boolean improved = true;
+        while (improved) {
+            improved = twoOpt(route, cost, n, first) | orOpt(route, cost, n, first);
+        }
+    }
+
+    /** route[i..j] 뒤집기, 양 끝 연결만 바뀌므로 변화량만 계산 */
+    private static boolean twoOpt(int[] route, double[] cost, int n, int first) {
+        boolean improved = false;
+        int last = route.length - 1;
+        for (int i = first; i < last; i++) {
+            for (int j = i + 1; j <= last; j++) {
+                double before = 0;
+                double after = 0;
+                if (i > 0) {
+                    before += cost[route[i - 1] * n + route[i]];
+                    after += cost[route[i - 1] * n + route[j]];
+                }
+                if (j < last) {
+                    before += cost[route[j] * n + route[j + 1]];
+                    after += cost[route[i] * n + route[j + 1]];
+                }
+                if (after < before - EPS) {
+                    reverse(route, i, j);
+                    improved = true;
+                }
+            }
+        }
+        return improved;
+    }
+
+    /**
+     * 길이 1~3 구간을 다른 간격(gap)으로 옮기기 (방향 유지)
+     * - gap g는 route[g-1]과 route[g] 사이 (0: 맨 앞, len: 맨 뒤)
+     * - 빼는 쪽/넣는 쪽 연결 변화량만 계산
+     */
+    private static boolean orOpt(int[] route, double[] cost, int n, int first) {
+        int len = route.length;
+        int[] moved = new int[len];
+
+        for (int seg = 1; seg <= MAX_SEGMENT && seg < len - first; seg++) {
+            for (int i = first; i + seg <= len; i++) {
+                int a = route[i];
+                int b = route[i + seg - 1];
+                int p = i > 0 ? route[i - 1] : -1;
+                int q = i + seg < len ? route[i + seg] : -1;
+
+                double removeGain = (p >= 0 ? cost[p * n + a] : 0) + (q >= 0 ? cost[b * n + q] : 0)
+                        - (p >= 0 && q >= 0 ? cost[p * n + q] : 0);
+
+                for (int g = first; g <= len; g++) {
+                    if (g >= i && g <= i + seg) {
+                        continue;
+                    }
+                    int u = g > 0 ? route[g - 1] : -1;
+                    int v = g < len ? route[g] : -1;
+                    double insertCost = (u >= 0 ? cost[u * n + a] : 0) + (v >= 0 ? cost[b * n + v] : 0)
+                            - (u >= 0 && v >= 0 ? cost[u * n + v] : 0);
+                    if (insertCost < removeGain - EPS) {
+                        moveSegment(route, moved, i, seg, g < i ? g : g - seg);
+                        System.arraycopy(moved, 0, route, 0, len);
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private static void moveSegment(int[] route, int[] out, int start, int seg, int pos) {
+        int len = route.length;
+        int o = 0;
+        int r = 0;
+        // 구간을 제외한 나머지를 순서대로 채우다가 pos 위치에 구간 삽입
+        for (int k = 0; k <= len - seg; k++) {
+            if (k == pos) {
+                System.arraycopy(route, start, out, o, seg);
+                o += seg;
+            }
+            if (k == len - seg) {
+                break;
+            }
+            if (r == start) {
+                r += seg;
+            }
+            out[o++] = route[r++];
+        }
+    }
+
+    private static void reverse(int[] route, int i, int j) {
+        while (i < j) {
+            int t = route[i];
+            route[i++] = route[j];
+            route[j--] = t;
+        }
+    }
+}
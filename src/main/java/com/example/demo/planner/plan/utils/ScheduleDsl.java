@@ -0,0 +1,423 @@
+package com.example.demo.planner.plan.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+import com.example.demo.planner.plan.dto.ClusterPlace;
+import com.example.demo.planner.plan.dto.response.DayPlanResult;
+import com.example.demo.planner.plan.dto.response.PlanScheduleResult;
+
+/**
+ * 일정 배치 한 줄 형식 (LLM 출력 토큰 절감용)
+ *
+ * 한 줄 = 한 장소: d{dayIndex}|{id}|{시작 HH:mm}|{종료 HH:mm}
+ *   d1|12|15:00|16:30
+ * - 날짜 안의 방문 순서 = 줄 순서 (order를 따로 쓰지 않음)
+ * - JSON에서 항목마다 반복되던 필드명/괄호/따옴표가 없어 출력 토큰이 절반 이하
+ *
+ * 파서
+ * - 조각(chunk) 단위로 받아 줄이 끝날 때마다 바로 해석 (스트리밍 응답을 그대로 흘려 넣을 수 있음)
+ * - 정규식/split 없이 문자 단위로 읽고 입력 장소 인덱스별 기본형 배열에만 기록
+ * - 형식이 틀린 줄, 입력에 없는 id, 이미 나온 id는 버림 (빈 줄, ``` 줄은 무시)
+ * - 다른 날짜에 적힌 id는 입력에서 배정된 날짜로 되돌림 (날짜 배정은 DaySplitService 결과가 기준)
+ * - onDay를 주면 다음 날짜 줄이 나오는 순간 앞 날짜를 보정까지 마쳐 바로 넘김 (응답이 날짜 순이라는 전제)
+ *   이미 넘긴 날짜의 id가 뒤늦게 나오면 버림 (그 장소는 넘길 때 누락으로 보정됨)
+ *
+ * 보정 (다시 묻지 않고 로컬에서 처리)
+ * - 종료 ≤ 시작: 카테고리 중간값 체류로 종료 재계산
+ * - 앞 장소와 시간이 겹치면: 앞 장소 종료 + 이동시간으로 밀고 체류 길이는 유지
+ * - 빠진 id: 그 날짜 마지막 장소 뒤에 이동시간 + 중간값 체류로 추가
+ *   (날짜에 남은 장소가 하나도 없으면 ScheduleRules.dayStart부터)
+ * - 보정한 시각은 5분 단위, 23:55를 넘지 않음
+ */
+public final class ScheduleDsl {
+
+    private static final int MAX_LINE = 64;
+    private static final int SLOT_MINUTES = 5;
+    private static final int LAST_MINUTE = 23 * 60 + 55;
+
+    private ScheduleDsl() {
+    }
+
+    /** 한 번에 받은 전체 응답 해석 */
+    public static Result parse(CharSequence text, Input input) {
+        Parser parser = new Parser(input);
+        parser.feed(text);
+        return parser.finish();
+    }
+
+    /**
+     * @param places   입력 장소 수
+     * @param parsed   그대로 받아들인 줄 수
+     * @param dropped  버린 줄 수 (형식 오류, 모르는 id, 중복)
+     * @param repaired 보정한 장소 수 (날짜 이동, 시간 재계산, 누락 추가)
+     */
+    public record Result(PlanScheduleResult schedule, int places, int parsed, int dropped, int repaired) {
+    }
+
+    /**
+     * 스트리밍 중 끝난 하루치
+     * @param places 그 날짜 입력 장소 수
+     * @param parsed 그 날짜에서 줄로 받은 장소 수 (나머지는 누락 보정)
+     */
+    public record DayResult(PlanScheduleResult.Day day, int places, int parsed) {
+    }
+
+    /** 입력 장소 (DayPlanResult 순서대로 펼침) */
+    public static final class Input {
+        final int totalDays;
+        final long[] ids;
+        final int[] day;
+        final int[] dwell;
+        final double[] lat;
+        final double[] lng;
+        final int[] dayNumbers;
+        final int[] dayFrom; // dayNumbers[k]의 장소 = [dayFrom[k], dayFrom[k + 1])
+
+        private final long[] sortedIds;
+        private final int[] sortedIndex;
+
+        public static Input of(List<DayPlanResult> dayPlans, int totalDays) {
+            return new Input(dayPlans, totalDays);
+        }
+
+        private Input(List<DayPlanResult> dayPlans, int totalDays) {
+            int n = 0;
+            for (DayPlanResult dayPlan : dayPlans) {
+                n += dayPlan.getPlaces().size();
+            }
+            this.totalDays = totalDays;
+            this.ids = new long[n];
+            this.day = new int[n];
+            this.dwell = new int[n];
+            this.lat = new double[n];
+            this.lng = new double[n];
+            this.dayNumbers = new int[dayPlans.size()];
+            this.dayFrom = new int[dayPlans.size() + 1];
+
+            int i = 0;
+            for (int k = 0; k < dayPlans.size(); k++) {
+                DayPlanResult dayPlan = dayPlans.get(k);
+                dayNumbers[k] = dayPlan.getDayNumber();
+                dayFrom[k] = i;
+                for (ClusterPlace p : dayPlan.getPlaces()) {
+                    ids[i] = p.getOriginal().getId();
+                    day[i] = dayPlan.getDayNumber();
+                    dwell[i] = ScheduleRules.dwell(p.getCategory()).mid();
+                    lat[i] = p.getLat();
+                    lng[i] = p.getLng();
+                    i++;
+                }
+            }
+            dayFrom[dayPlans.size()] = n;
+
+            // id 이진 탐색용 (장소 수가 수십 개라 삽입 정렬)
+            sortedIds = ids.clone();
+            sortedIndex = new int[n];
+            for (int a = 0; a < n; a++) {
+                long key = sortedIds[a];
+                int b = a - 1;
+                while (b >= 0 && sortedIds[b] > key) {
+                    sortedIds[b + 1] = sortedIds[b];
+                    sortedIndex[b + 1] = sortedIndex[b];
+                    b--;
+                }
+                sortedIds[b + 1] = key;
+                sortedIndex[b + 1] = a;
+            }
+        }
+
+        int size() {
+            return ids.length;
+        }
+
+        int indexOf(long id) {
+            int lo = 0;
+            int hi = sortedIds.length - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                if (sortedIds[mid] < id) lo = mid + 1;
+                else if (sortedIds[mid] > id) hi = mid - 1;
+                else return sortedIndex[mid];
+            }
+            return -1;
+        }
+    }
+
+    /** 조각 단위 파서 (한 응답당 하나, 스레드 하나에서만 사용) */
+    public static final class Parser {
+        private final Input input;
+        private final int[] start;
+        private final int[] end;
+        private final int[] seq;
+        private final Consumer<DayResult> onDay;
+        private final PlanScheduleResult.Day[] built;
+        private final int[] order;
+        private int nextDay; // 아직 넘기지 않은 첫 날짜 위치
+
+        private final char[] line = new char[MAX_LINE];
+        private int len;
+        private boolean overflow;
+
+        private int lines;
+        private int dropped;
+        private int repaired;
+
+        public Parser(Input input) {
+            this(input, null);
+        }
+
+        /** onDay: 날짜가 끝날 때마다 (보정까지 마친) 하루치 결과를 받음, 마지막 날짜는 finish에서 */
+        public Parser(Input input, Consumer<DayResult> onDay) {
+            this.input = input;
+            this.onDay = onDay;
+            int n = input.size();
+            this.start = new int[n];
+            this.end = new int[n];
+            this.seq = new int[n];
+            this.built = new PlanScheduleResult.Day[input.dayNumbers.length];
+            this.order = new int[n];
+            Arrays.fill(seq, -1);
+        }
+
+        public void feed(CharSequence chunk) {
+            for (int i = 0, m = chunk.length(); i < m; i++) {
+                char c = chunk.charAt(i);
+                if (c == '\n') {
+                    endLine();
+                } else if (c != '\r') {
+                    if (len < MAX_LINE) {
+                        line[len++] = c;
+                    } else {
+                        overflow = true;
+                    }
+                }
+            }
+        }
+
+        public Result finish() {
+            endLine();
+            completeBefore(built.length);
+            PlanScheduleResult schedule = new PlanScheduleResult();
+            schedule.setDays(new ArrayList<>(Arrays.asList(built)));
+            return new Result(schedule, input.size(), lines, dropped, repaired);
+        }
+
+        private void endLine() {
+            if (overflow) {
+                dropped++;
+            } else if (len > 0) {
+                parseLine();
+            }
+            len = 0;
+            overflow = false;
+        }
+
+        // d{day}|{id}|HH:mm|HH:mm, 앞뒤 공백 허용
+        private void parseLine() {
+            int p = 0;
+            int to = len;
+            while (p < to && line[p] <= ' ') p++;
+            while (to > p && line[to - 1] <= ' ') to--;
+            if (p == to || line[p] == '`') {
+                return;
+            }
+
+            if (line[p] != 'd' && line[p] != 'D') {
+                dropped++;
+                return;
+            }
+            p++;
+
+            long dayValue = 0;
+            int digits = 0;
+            while (p < to && isDigit(line[p]) && digits < 3) {
+                dayValue = dayValue * 10 + (line[p++] - '0');
+                digits++;
+            }
+            if (digits == 0 || p >= to || line[p++] != '|') {
+                dropped++;
+                return;
+            }
+
+            long id = 0;
+            digits = 0;
+            while (p < to && isDigit(line[p]) && digits < 18) {
+                id = id * 10 + (line[p++] - '0');
+                digits++;
+            }
+            if (digits == 0 || p >= to || line[p++] != '|') {
+                dropped++;
+                return;
+            }
+
+            int s = parseTime(p, to);
+            if (s < 0) {
+                dropped++;
+                return;
+            }
+            p += s >>> 16;
+            if (p >= to || line[p++] != '|') {
+                dropped++;
+                return;
+            }
+            int e = parseTime(p, to);
+            if (e < 0 || p + (e >>> 16) != to) {
+                dropped++;
+                return;
+            }
+
+            if (onDay != null) {
+                completeBefore(dayPosition(dayValue));
+            }
+            int idx = input.indexOf(id);
+            if (idx < 0 || seq[idx] >= 0 || idx < input.dayFrom[nextDay]) {
+                dropped++;
+                return;
+            }
+            if (dayValue != input.day[idx]) {
+                repaired++;
+            }
+            start[idx] = s & 0xFFFF;
+            end[idx] = e & 0xFFFF;
+            seq[idx] = lines++;
+        }
+
+        // H:mm 또는 HH:mm → (읽은 글자 수 << 16) | 분, 실패하면 -1
+        private int parseTime(int p, int to) {
+            int from = p;
+            int hour = 0;
+            int digits = 0;
+            while (p < to && isDigit(line[p]) && digits < 2) {
+                hour = hour * 10 + (line[p++] - '0');
+                digits++;
+            }
+            if (digits == 0 || p + 3 > to || line[p] != ':'
+                    || !isDigit(line[p + 1]) || !isDigit(line[p + 2])) {
+                return -1;
+            }
+            int minute = (line[p + 1] - '0') * 10 + (line[p + 2] - '0');
+            if (hour > 23 || minute > 59) {
+                return -1;
+            }
+            p += 3;
+            return ((p - from) << 16) | (hour * 60 + minute);
+        }
+
+        // 입력에 없는 날짜면 -1 (앞 날짜를 끝내지 않음)
+        private int dayPosition(long dayValue) {
+            for (int k = 0; k < input.dayNumbers.length; k++) {
+                if (input.dayNumbers[k] == dayValue) {
+                    return k;
+                }
+            }
+            return -1;
+        }
+
+        // 날짜 위치 [nextDay, k) 확정
+        private void completeBefore(int k) {
+            while (nextDay < k) {
+                built[nextDay] = buildDay(nextDay);
+                if (onDay != null) {
+                    int from = input.dayFrom[nextDay];
+                    int to = input.dayFrom[nextDay + 1];
+                    int parsed = 0;
+                    for (int i = from; i < to; i++) {
+                        if (seq[i] >= 0) {
+                            parsed++;
+                        }
+                    }
+                    onDay.accept(new DayResult(built[nextDay], to - from, parsed));
+                }
+                nextDay++;
+            }
+        }
+
+        private PlanScheduleResult.Day buildDay(int k) {
+            int from = input.dayFrom[k];
+            int to = input.dayFrom[k + 1];
+
+            // 받은 장소는 줄 순서대로, 빠진 장소는 입력 순서대로 뒤에
+            int count = 0;
+            for (int i = from; i < to; i++) {
+                if (seq[i] >= 0) {
+                    int j = count++;
+                    while (j > 0 && seq[order[j - 1]] > seq[i]) {
+                        order[j] = order[j - 1];
+                        j--;
+                    }
+                    order[j] = i;
+                }
+            }
+            for (int i = from; i < to; i++) {
+                if (seq[i] < 0) {
+                    order[count++] = i;
+                }
+            }
+
+            List<PlanScheduleResult.Item> items = new ArrayList<>(count);
+            int prev = -1;
+            for (int o = 0; o < count; o++) {
+                int i = order[o];
+                int s;
+                int e;
+                if (seq[i] < 0) {
+                    s = prev < 0
+                            ? ScheduleRules.dayStart(input.dayNumbers[k], input.totalDays).toSecondOfDay() / 60
+                            : roundUp(end[prev] + travel(prev, i));
+                    e = s + input.dwell[i];
+                    repaired++;
+                } else {
+                    s = start[i];
+                    e = end[i] > s ? end[i] : s + input.dwell[i];
+                    if (prev >= 0 && s < end[prev]) {
+                        int stay = e - s;
+                        s = roundUp(end[prev] + travel(prev, i));
+                        e = s + stay;
+                    }
+                    if (s != start[i] || e != end[i]) {
+                        repaired++;
+                    }
+                }
+                start[i] = Math.min(s, LAST_MINUTE);
+                end[i] = Math.min(e, LAST_MINUTE);
+
+                PlanScheduleResult.Item item = new PlanScheduleResult.Item();
+                item.setId(input.ids[i]);
+                item.setStart(format(start[i]));
+                item.setEnd(format(end[i]));
+                item.setOrder(o + 1);
+                items.add(item);
+                prev = i;
+            }
+
+            PlanScheduleResult.Day day = new PlanScheduleResult.Day();
+            day.setDayIndex(input.dayNumbers[k]);
+            day.setItems(items);
+            return day;
+        }
+
+        private int travel(int from, int to) {
+            return ScheduleRules.travelMinutes(GeoUtils.haversine(
+                    input.lat[from], input.lng[from], input.lat[to], input.lng[to]));
+        }
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static int roundUp(int minutes) {
+        return (minutes + SLOT_MINUTES - 1) / SLOT_MINUTES * SLOT_MINUTES;
+    }
+
+    private static String format(int minutes) {
+        char[] out = {
+                (char) ('0' + minutes / 600), (char) ('0' + minutes / 60 % 10), ':',
+                (char) ('0' + minutes % 60 / 10), (char) ('0' + minutes % 10)
+        };
+        return new String(out);
+    }
+}
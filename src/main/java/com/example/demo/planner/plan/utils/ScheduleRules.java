@@ -0,0 +1,70 @@
+package com.example.demo.planner.plan.utils;
+
+import java.time.LocalTime;
+
+/**
+ * 일정 시간 배치 규칙 (PlanSchedulerAgent 프롬프트 규칙을 코드로 옮긴 것)
+ * - 카테고리별 체류시간
+ * - 거리 기반 이동시간 (가까움 10~20분 / 보통 20~35분 / 멂 35~60분)
+ * - 날짜별 시작/종료 시각 (도착일 체크인 15:00, 출발일 체크아웃 11:00 / 17:00 종료)
+ */
+public class ScheduleRules {
+
+    public static final LocalTime DEFAULT_START = LocalTime.of(10, 0);
+    public static final LocalTime DEFAULT_END = LocalTime.of(21, 0);
+    public static final LocalTime CHECK_IN = LocalTime.of(15, 0);
+    public static final LocalTime CHECK_OUT = LocalTime.of(11, 0);
+    public static final LocalTime DEPARTURE_END = LocalTime.of(17, 0);
+
+    private static final int MIN_TRAVEL_MINUTES = 10;
+    private static final int MAX_TRAVEL_MINUTES = 60;
+
+    /** 체류시간 범위(분) */
+    public record Dwell(int min, int max) {
+        public int mid() {
+            return (min + max) / 2;
+        }
+    }
+
+    public static Dwell dwell(String category) {
+        if (category == null) {
+            return new Dwell(60, 90);
+        }
+        return switch (category) {
+            case CategoryNames.SPOT -> new Dwell(90, 120);
+            case CategoryNames.FOOD -> new Dwell(60, 90);
+            case CategoryNames.CAFE -> new Dwell(45, 75);
+            case CategoryNames.EVENT -> new Dwell(90, 180);
+            case CategoryNames.SHOPPING -> new Dwell(60, 120);
+            // 체크인/체크아웃만 하는 자리
+            case CategoryNames.STAY -> new Dwell(30, 30);
+            // ETC: SPOT/CAFE 사이
+            default -> new Dwell(60, 90);
+        };
+    }
+
+    /** 직선거리(km) → 이동시간(분), 2km ≈ 20분 / 5km ≈ 35분 / 10km 이상 60분 */
+    public static int travelMinutes(double km) {
+        int minutes = MIN_TRAVEL_MINUTES + (int) Math.ceil(km * 5);
+        return Math.max(MIN_TRAVEL_MINUTES, Math.min(MAX_TRAVEL_MINUTES, minutes));
+    }
+
+    /**
+     * 관광 시작 가능 시각
+     * - 1일 여행: 10:00
+     * - 도착일: 체크인 15:00 이후
+     * - 출발일: 체크아웃 11:00 이후
+     */
+    public static LocalTime dayStart(int dayIndex, int totalDays) {
+        if (totalDays <= 1) return DEFAULT_START;
+        if (dayIndex == 1) return CHECK_IN;
+        if (dayIndex == totalDays) return CHECK_OUT;
+        return DEFAULT_START;
+    }
+
+    /** 마지막 일정 종료 한계 시각 (출발일은 17:00) */
+    public static LocalTime dayEnd(int dayIndex, int totalDays) {
+        if (totalDays > 1 && dayIndex == totalDays) return DEPARTURE_END;
+        return DEFAULT_END;
+    }
+}
@@ -0,0 +1,17 @@
+-- plan_snapshots 체크포인트(FULL) + 델타(DELTA) 저장
+-- PlanSnapshotService 저장/복원 전에 한 번 적용해야 함 (자동 실행되지 않음, 다시 실행해도 안전)
+--   psql -d <db> -f src/main/resources/db/plan_snapshots_delta.sql
+--
+-- kind    : FULL = payload가 deflate 압축한 전체 JSON, DELTA = 바로 앞 버전 대비 JSON Patch
+-- payload : 기존 행은 NULL (snapshot_json을 그대로 체크포인트로 사용)
+
+ALTER TABLE plan_snapshots
+    ADD COLUMN IF NOT EXISTS kind varchar(8) NOT NULL DEFAULT 'FULL',
+    ADD COLUMN IF NOT EXISTS payload bytea;
+
+ALTER TABLE plan_snapshots
+    ALTER COLUMN snapshot_json DROP NOT NULL;
+
+-- 사용자별 버전 번호 중복 방지 (버전 할당은 advisory lock 안에서 MAX + 1)
+CREATE UNIQUE INDEX IF NOT EXISTS plan_snapshots_user_version_uq
+    ON plan_snapshots (user_id, version_no);
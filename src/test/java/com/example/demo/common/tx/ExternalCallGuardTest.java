@@ -0,0 +1,103 @@
+package com.example.demo.common.tx;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.example.demo.common.tx.config.ExternalCallGuardConfig;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * 트랜잭션 안 외부 호출 감지
+ * - 실제 DataSourceTransactionManager(리스너로 guard 등록) + ExternalCallGuardConfig 프록시
+ * - FAIL: TransactionTemplate.execute 안 호출은 실행 전에 예외, 커밋 후 같은 호출은 그대로 실행
+ * - WARN: 호출은 진행하고 tx.external.call / tx.external.held 기록
+ */
+public class ExternalCallGuardTest {
+
+    private static final String TX = "ExternalCallGuardTest";
+    private static final String BUCKET = "kosatm-aws-s3";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Connection connection = mock(Connection.class);
+    private final AmazonS3 s3 = mock(AmazonS3.class);
+
+    private ExternalCallGuard guard;
+    private TransactionTemplate transactionTemplate;
+    private AmazonS3 guardedS3;
+
+    @SuppressWarnings("unchecked")
+    private void setUp(ExternalCallGuard.Mode mode) throws Exception {
+        guard = new ExternalCallGuard(meterRegistry, mode);
+
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        transactionManager.addListener(guard);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setName(TX);
+
+        ObjectProvider<ExternalCallGuard> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(guard);
+        guardedS3 = (AmazonS3) ExternalCallGuardConfig.externalCallGuardPostProcessor(provider)
+                .postProcessAfterInitialization(s3, "amazonS3");
+    }
+
+    @Test
+    public void testFailMode_throwsInsideTransaction() throws Exception {
+        setUp(ExternalCallGuard.Mode.FAIL);
+
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> transactionTemplate.execute(status -> guardedS3.doesBucketExistV2(BUCKET)));
+
+        assertTrue(e.getMessage().contains("s3.doesBucketExistV2"));
+        // 호출 전에 예외 → 실제 S3 호출 없음, 트랜잭션은 롤백
+        verify(s3, never()).doesBucketExistV2(BUCKET);
+        verify(connection).rollback();
+        assertEquals(1.0, meterRegistry.counter("tx.external.call", "target", "s3", "tx", TX).count());
+    }
+
+    @Test
+    public void testFailMode_sameCallAfterCommitPasses() throws Exception {
+        setUp(ExternalCallGuard.Mode.FAIL);
+        when(s3.doesBucketExistV2(BUCKET)).thenReturn(true);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            // 저장만 트랜잭션 안에서
+        });
+        boolean exists = guardedS3.doesBucketExistV2(BUCKET);
+
+        assertTrue(exists);
+        verify(connection).commit();
+        verify(s3, times(1)).doesBucketExistV2(BUCKET);
+        assertEquals(0.0, meterRegistry.counter("tx.external.call", "target", "s3", "tx", TX).count());
+    }
+
+    @Test
+    public void testWarnMode_proceedsAndRecordsHeldTime() throws Exception {
+        setUp(ExternalCallGuard.Mode.WARN);
+
+        transactionTemplate.execute(status -> guardedS3.doesBucketExistV2(BUCKET));
+
+        verify(s3, times(1)).doesBucketExistV2(BUCKET);
+        verify(connection).commit();
+        assertEquals(1.0, meterRegistry.counter("tx.external.call", "target", "s3", "tx", TX).count());
+        assertEquals(1L, meterRegistry.timer("tx.external.held", "tx", TX).count());
+    }
+}
@@ -0,0 +1,222 @@
+package com.example.demo.planner.plan.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.demo.planner.plan.dao.PlanSnapshotDao;
+import com.example.demo.planner.plan.dto.entity.PlanSnapshot;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * 체크포인트 + 델타 저장/복원
+ * - max-deltas = 2 → 버전 종류 FULL, DELTA, DELTA, FULL, DELTA, DELTA
+ * - 어느 버전이든 가장 가까운 이전 체크포인트 + 델타로 저장한 JSON 그대로 복원
+ * - DAO는 mapper XML과 같은 규칙의 메모리 구현
+ */
+public class PlanSnapshotServiceTest {
+
+    private static final Long USER_ID = 10L;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private InMemoryPlanSnapshotDao planSnapshotDao;
+    private PlanSnapshotService planSnapshotService;
+
+    @BeforeEach
+    public void setUp() {
+        planSnapshotDao = new InMemoryPlanSnapshotDao();
+        planSnapshotService = new PlanSnapshotService(planSnapshotDao, 2);
+    }
+
+    @Test
+    public void testGetByVersion_rebuildsDeltaAcrossCheckpoint() throws Exception {
+        List<JsonNode> versions = saveVersions(6);
+
+        assertEquals(List.of(PlanSnapshot.FULL, PlanSnapshot.DELTA, PlanSnapshot.DELTA,
+                PlanSnapshot.FULL, PlanSnapshot.DELTA, PlanSnapshot.DELTA), planSnapshotDao.kinds());
+
+        for (int v = 1; v <= versions.size(); v++) {
+            PlanSnapshot restored = planSnapshotService.getPlanSnapshotByVersion(USER_ID, v);
+            assertEquals(v, restored.getVersionNo());
+            assertEquals(versions.get(v - 1), objectMapper.readTree(restored.getSnapshotJson()), "version " + v);
+        }
+        // 5, 6은 체크포인트 4부터 (1~3 델타는 읽지 않음)
+        assertEquals(List.of(4, 5, 6), planSnapshotDao.selectPlanSnapshotChain(USER_ID, 6).stream()
+                .map(PlanSnapshot::getVersionNo).toList());
+        assertEquals(versions.get(5),
+                objectMapper.readTree(planSnapshotService.getLatestPlanSnapshot(USER_ID).getSnapshotJson()));
+    }
+
+    @Test
+    public void testSave_returnsFullJsonForDelta() throws Exception {
+        saveVersions(1);
+        JsonNode next = plan(2);
+
+        PlanSnapshot saved = planSnapshotService.savePlanSnapshot(
+                PlanSnapshot.builder().userId(USER_ID).snapshotJson(next.toString()).build());
+
+        assertEquals(PlanSnapshot.DELTA, saved.getKind());
+        assertEquals(next, objectMapper.readTree(saved.getSnapshotJson()));
+    }
+
+    @Test
+    public void testGetByVersion_missingVersion() throws Exception {
+        saveVersions(3);
+        assertNull(planSnapshotService.getPlanSnapshotByVersion(USER_ID, 4));
+        assertNull(planSnapshotService.getPlanSnapshotByVersion(99L, 1));
+    }
+
+    private List<JsonNode> saveVersions(int count) throws Exception {
+        List<JsonNode> versions = new ArrayList<>();
+        for (int v = 1; v <= count; v++) {
+            JsonNode json = plan(v);
+            planSnapshotService.savePlanSnapshot(
+                    PlanSnapshot.builder().userId(USER_ID).snapshotJson(json.toString()).build());
+            versions.add(json);
+        }
+        return versions;
+    }
+
+    // 3일 × 6곳 일정, 버전이 오를 때마다 장소 하나씩 바뀜 (앞 버전 변경은 유지)
+    private JsonNode plan(int version) {
+        ObjectNode root = objectMapper.createObjectNode();
+        root.put("userId", USER_ID);
+        root.put("startDate", "2025-12-10");
+        root.put("endDate", "2025-12-12");
+        ArrayNode days = root.putArray("days");
+        for (int d = 0; d < 3; d++) {
+            ObjectNode day = days.addObject();
+            day.put("date", "2025-12-1" + d);
+            ArrayNode schedules = day.putArray("schedules");
+            for (int p = 0; p < 6; p++) {
+                ObjectNode place = schedules.addObject();
+                int index = d * 6 + p;
+                boolean changed = index > 0 && index < version;
+                place.put("title", changed ? "변경 장소 " + index : "서울 장소 " + index);
+                place.put("startAt", "2025-12-1" + d + (changed ? " 11:00:00" : " 10:00:00"));
+                place.put("address", "서울특별시 종로구 세종대로 " + (100 + index));
+                place.put("lat", 37.57 + index * 0.001);
+                place.put("lng", 126.97 + index * 0.001);
+                place.put("normalizedCategory", "SPOT");
+            }
+        }
+        return root;
+    }
+
+    /** mapper XML과 같은 규칙: 버전 = 사용자 최신 + 1, 복원 행 = 가장 가까운 이전 FULL ~ versionNo */
+    private static class InMemoryPlanSnapshotDao implements PlanSnapshotDao {
+        private final List<PlanSnapshot> rows = new ArrayList<>();
+        private long seq;
+
+        List<String> kinds() {
+            return rows.stream().map(PlanSnapshot::getKind).toList();
+        }
+
+        private List<PlanSnapshot> byUser(Long userId) {
+            return rows.stream()
+                    .filter(r -> r.getUserId().equals(userId))
+                    .sorted(Comparator.comparing(PlanSnapshot::getVersionNo))
+                    .toList();
+        }
+
+        private static PlanSnapshot meta(PlanSnapshot row) {
+            return row == null ? null : PlanSnapshot.builder()
+                    .id(row.getId())
+                    .userId(row.getUserId())
+                    .versionNo(row.getVersionNo())
+                    .kind(row.getKind())
+                    .createdAt(row.getCreatedAt())
+                    .build();
+        }
+
+        @Override
+        public PlanSnapshot selectPlanSnapshotById(Long id) {
+            return meta(rows.stream().filter(r -> r.getId().equals(id)).findFirst().orElse(null));
+        }
+
+        @Override
+        public List<PlanSnapshot> selectPlanSnapshotsByUserId(Long userId) {
+            return byUser(userId).reversed().stream().map(InMemoryPlanSnapshotDao::meta).toList();
+        }
+
+        @Override
+        public PlanSnapshot selectLatestPlanSnapshotByUserId(Long userId) {
+            List<PlanSnapshot> list = byUser(userId);
+            return list.isEmpty() ? null : meta(list.get(list.size() - 1));
+        }
+
+        @Override
+        public PlanSnapshot selectNextPlanSnapshot(Long userId, Integer versionNo) {
+            return meta(byUser(userId).stream()
+                    .filter(r -> r.getVersionNo() > versionNo)
+                    .findFirst().orElse(null));
+        }
+
+        @Override
+        public List<PlanSnapshot> selectPlanSnapshotChain(Long userId, Integer versionNo) {
+            List<PlanSnapshot> upTo = byUser(userId).stream()
+                    .filter(r -> versionNo == null || r.getVersionNo() <= versionNo)
+                    .toList();
+            int checkpoint = -1;
+            for (int i = 0; i < upTo.size(); i++) {
+                if (PlanSnapshot.FULL.equals(upTo.get(i).getKind())) {
+                    checkpoint = i;
+                }
+            }
+            return checkpoint < 0 ? List.of() : upTo.subList(checkpoint, upTo.size());
+        }
+
+        @Override
+        public int lockPlanSnapshots(Long userId) {
+            return 1;
+        }
+
+        @Override
+        public int insertPlanSnapshot(PlanSnapshot planSnapshot) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public PlanSnapshot insertPlanSnapshotNextVersion(PlanSnapshot planSnapshot) {
+            List<PlanSnapshot> list = byUser(planSnapshot.getUserId());
+            int versionNo = list.isEmpty() ? 1 : list.get(list.size() - 1).getVersionNo() + 1;
+            PlanSnapshot row = PlanSnapshot.builder()
+                    .id(++seq)
+                    .userId(planSnapshot.getUserId())
+                    .versionNo(versionNo)
+                    .kind(planSnapshot.getKind())
+                    .payload(planSnapshot.getPayload())
+                    .createdAt(OffsetDateTime.now())
+                    .build();
+            rows.add(row);
+            return meta(row);
+        }
+
+        @Override
+        public int updatePlanSnapshotToCheckpoint(PlanSnapshot planSnapshot) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int deletePlanSnapshot(Long id) {
+            return rows.removeIf(r -> r.getId().equals(id)) ? 1 : 0;
+        }
+
+        @Override
+        public int deletePlanSnapshotsByUserId(Long userId) {
+            int before = rows.size();
+            rows.removeIf(r -> r.getUserId().equals(userId));
+            return before - rows.size();
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.example.demo.planner.plan.service.create;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.planner.plan.dao.PlanDao;
+import com.example.demo.planner.plan.dao.PlanDayDao;
+import com.example.demo.planner.plan.dao.PlanPlaceDao;
+import com.example.demo.planner.plan.dto.ClusterPlace;
+import com.example.demo.planner.plan.dto.TravelPlaceCandidate;
+import com.example.demo.planner.plan.dto.entity.PlanDay;
+import com.example.demo.planner.plan.dto.entity.PlanSnapshot;
+import com.example.demo.planner.plan.dto.entity.TravelPlaces;
+import com.example.demo.planner.plan.dto.response.DayPlanResult;
+import com.example.demo.planner.plan.dto.response.PlanScheduleResult;
+import com.example.demo.planner.plan.metrics.PlanStageMetrics;
+import com.example.demo.planner.plan.service.PlanSnapshotService;
+
+/**
+ * 일정 생성 중 DB 커넥션 점유 확인
+ * - 커넥션 수를 세는 DataSource + 실제 DataSourceTransactionManager 사용
+ * - 시간 배치(LLM) 구간: 잡은 커넥션 0개, 트랜잭션 없음
+ * - 저장 구간: 요청당 커넥션 1개
+ */
+public class PlanAssemblerServiceConnectionTest {
+
+    private static final int POOL_SIZE = 8; // spring.datasource.hikari.maximum-pool-size
+
+    @Mock
+    private PlanScheduleService planScheduleService;
+
+    @Mock
+    private PlanSnapshotService planSnapshotService;
+
+    @Mock
+    private PlanDao planDao;
+
+    @Mock
+    private PlanDayDao planDayDao;
+
+    @Mock
+    private PlanPlaceDao planPlaceDao;
+
+    @Mock
+    private PlanProgressPublisher planProgressPublisher;
+
+    @Mock
+    private PlanStageMetrics planStageMetrics;
+
+    private final AtomicInteger openConnections = new AtomicInteger();
+    private PlanAssemblerService planAssemblerService;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenAnswer(inv -> {
+            openConnections.incrementAndGet();
+            Connection connection = mock(Connection.class);
+            doAnswer(close -> openConnections.decrementAndGet()).when(connection).close();
+            return connection;
+        });
+        TransactionTemplate transactionTemplate =
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+
+        planAssemblerService = new PlanAssemblerService(planScheduleService, planSnapshotService,
+                planDao, planDayDao, planPlaceDao, planProgressPublisher, planStageMetrics,
+                transactionTemplate);
+
+        when(planDayDao.insertPlanDayBatchReturning(anyList())).thenAnswer(inv -> {
+            List<PlanDay> days = inv.getArgument(0);
+            List<PlanDay> saved = new ArrayList<>();
+            for (PlanDay d : days) {
+                saved.add(PlanDay.builder().id(100L + d.getDayIndex()).planId(d.getPlanId())
+                        .dayIndex(d.getDayIndex()).planDate(d.getPlanDate()).build());
+            }
+            return saved;
+        });
+        when(planPlaceDao.insertPlanPlaceBatchReturningIds(anyList()))
+                .thenAnswer(inv -> List.of(1000L));
+        when(planSnapshotService.savePlanSnapshot(any(), anyList(), anyList()))
+                .thenReturn(PlanSnapshot.builder().versionNo(1).build());
+        doAnswer(inv -> {
+            ((Runnable) inv.getArgument(1)).run();
+            return null;
+        }).when(planStageMetrics).time(anyString(), any(Runnable.class));
+    }
+
+    @Test
+    public void testCreateAndSavePlan_noConnectionHeldWhileScheduling() {
+        List<Integer> heldWhileScheduling = new CopyOnWriteArrayList<>();
+        List<Integer> heldWhilePersisting = new CopyOnWriteArrayList<>();
+        List<Boolean> txWhileScheduling = new CopyOnWriteArrayList<>();
+
+        when(planScheduleService.schedule(anyList(), any(), anyInt(), any())).thenAnswer(inv -> {
+            heldWhileScheduling.add(openConnections.get());
+            txWhileScheduling.add(TransactionSynchronizationManager.isActualTransactionActive());
+            return schedule();
+        });
+        doAnswer(inv -> {
+            heldWhilePersisting.add(openConnections.get());
+            return 1;
+        }).when(planDao).insertPlan(any());
+
+        planAssemblerService.createAndSavePlan(dayPlans(), arguments(), 10L);
+
+        assertEquals(List.of(0), heldWhileScheduling);
+        assertEquals(List.of(false), txWhileScheduling);
+        assertEquals(List.of(1), heldWhilePersisting);
+        assertEquals(0, openConnections.get());
+    }
+
+    @Test
+    public void testCreateAndSavePlan_poolSizeConcurrentLlmCallsHoldNoConnection() throws Exception {
+        // 풀 크기만큼의 요청이 동시에 LLM 응답을 기다리는 순간의 커넥션 수
+        CountDownLatch allScheduling = new CountDownLatch(POOL_SIZE);
+        AtomicInteger maxHeldWhileScheduling = new AtomicInteger();
+
+        when(planScheduleService.schedule(anyList(), any(), anyInt(), any())).thenAnswer(inv -> {
+            allScheduling.countDown();
+            assertTrue(allScheduling.await(5, TimeUnit.SECONDS));
+            maxHeldWhileScheduling.accumulateAndGet(openConnections.get(), Math::max);
+            return schedule();
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(POOL_SIZE);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < POOL_SIZE; i++) {
+                long userId = i;
+                futures.add(executor.submit(() ->
+                        planAssemblerService.createAndSavePlan(dayPlans(), arguments(), userId)));
+            }
+            for (Future<?> f : futures) {
+                f.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(0, maxHeldWhileScheduling.get());
+        assertEquals(0, openConnections.get());
+    }
+
+    @Test
+    public void testCreateAndSavePlan_persistFailure_releasesConnection() {
+        when(planScheduleService.schedule(anyList(), any(), anyInt(), any())).thenReturn(schedule());
+        when(planDao.insertPlan(any())).thenThrow(new IllegalStateException("insert failed"));
+
+        // 롤백 후 예외 전파
+        assertThrows(IllegalStateException.class,
+                () -> planAssemblerService.createAndSavePlan(dayPlans(), arguments(), 10L));
+
+        assertEquals(0, openConnections.get());
+        assertFalse(TransactionSynchronizationManager.isActualTransactionActive());
+    }
+
+    private static Map<String, Object> arguments() {
+        return Map.of("startDate", LocalDate.of(2025, 12, 10).toString(), "duration", 1);
+    }
+
+    private static List<DayPlanResult> dayPlans() {
+        TravelPlaceCandidate candidate = new TravelPlaceCandidate();
+        candidate.setTravelPlaces(TravelPlaces.builder()
+                .id(1L).title("경복궁").lat(37.5796).lng(126.9770).normalizedCategory("SPOT").build());
+
+        DayPlanResult day = new DayPlanResult();
+        day.setDayNumber(1);
+        day.getPlaces().add(new ClusterPlace(candidate, 37.57, 126.98));
+        return List.of(day);
+    }
+
+    private static PlanScheduleResult schedule() {
+        PlanScheduleResult.Item item = new PlanScheduleResult.Item();
+        item.setId(1L);
+        item.setStart("09:00");
+        item.setEnd("10:30");
+        item.setOrder(1);
+
+        PlanScheduleResult.Day day = new PlanScheduleResult.Day();
+        day.setDayIndex(1);
+        day.setItems(List.of(item));
+
+        PlanScheduleResult result = new PlanScheduleResult();
+        result.setDays(List.of(day));
+        return result;
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.demo.planner.plan.service.create;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.example.demo.common.chat.pipeline.AiAgentResponse;
+import com.example.demo.common.global.exception.BusinessException;
+import com.example.demo.common.global.exception.errorcode.GlobalErrorCode;
+import com.example.demo.common.sse.service.SseService;
+import com.example.demo.planner.plan.dto.response.PlanJobResponse;
+import com.example.demo.planner.plan.dto.response.PlanJobStatus;
+
+/**
+ * 비동기 일정 생성 작업 (PlanJobService)
+ * - 사용자당 진행 중인 작업 하나: 같은 사용자의 중복 요청은 기존 작업을 돌려줌
+ * - 풀 + 대기열이 가득 차면 TOO_MANY_REQUESTS
+ * - 제한 시간 초과 / 취소: 작업 스레드 interrupt, 다른 사용자는 조회/취소 불가
+ * - 끝난 작업은 retention이 지나면 다음 등록 때 정리
+ */
+public class PlanJobServiceTest {
+
+    private static final Long USER = 10L;
+    private static final Long OTHER_USER = 20L;
+
+    @Mock
+    private TravelPlannerService travelPlannerService;
+
+    @Mock
+    private SseService sseService;
+
+    private PlanJobService planJobService;
+
+    // 파이프라인을 막아 두는 래치 (release 전까지 작업은 RUNNING)
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch interrupted = new CountDownLatch(1);
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        when(travelPlannerService.execute(any(), anyLong())).thenAnswer(inv -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw e;
+            }
+            return AiAgentResponse.of("일정 생성 완료");
+        });
+    }
+
+    @AfterEach
+    public void tearDown() {
+        release.countDown();
+        if (planJobService != null) {
+            planJobService.shutdown();
+        }
+    }
+
+    @Test
+    public void testSubmit_sameUserGetsRunningJob() throws Exception {
+        planJobService = new PlanJobService(travelPlannerService, sseService, 2, 2, 60, 600);
+
+        PlanJobResponse first = planJobService.submit(null, USER);
+        PlanJobResponse again = planJobService.submit(null, USER);
+        PlanJobResponse other = planJobService.submit(null, OTHER_USER);
+
+        assertEquals(first.getJobId(), again.getJobId());
+        assertNotEquals(first.getJobId(), other.getJobId());
+        assertEquals(1, planJobService.findByUser(USER).size());
+
+        // 끝난 뒤에는 새 작업
+        release.countDown();
+        awaitStatus(first.getJobId(), USER, PlanJobStatus.SUCCEEDED);
+        PlanJobResponse next = planJobService.submit(null, USER);
+        assertNotEquals(first.getJobId(), next.getJobId());
+        awaitStatus(next.getJobId(), USER, PlanJobStatus.SUCCEEDED);
+        verify(travelPlannerService, times(3)).execute(any(), anyLong());
+    }
+
+    @Test
+    public void testSubmit_queueFullRejectsWithTooManyRequests() {
+        // 실행 1 + 대기 1
+        planJobService = new PlanJobService(travelPlannerService, sseService, 1, 1, 60, 600);
+        planJobService.submit(null, 1L);
+        planJobService.submit(null, 2L);
+
+        BusinessException e = assertThrows(BusinessException.class, () -> planJobService.submit(null, 3L));
+
+        assertSame(GlobalErrorCode.TOO_MANY_REQUESTS, e.getBaseErrorCode());
+        // 거절된 작업은 목록에 남지 않음
+        assertTrue(planJobService.findByUser(3L).isEmpty());
+    }
+
+    @Test
+    public void testWatchdog_timeoutInterruptsJob() throws Exception {
+        planJobService = new PlanJobService(travelPlannerService, sseService, 1, 1, 1, 600);
+        PlanJobResponse job = planJobService.submit(null, USER);
+
+        PlanJobResponse timedOut = awaitStatus(job.getJobId(), USER, PlanJobStatus.TIMED_OUT);
+
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        assertTrue(timedOut.getError().contains("1초"));
+        // 시간 초과 후에는 같은 사용자가 새 작업을 등록할 수 있음
+        assertNotEquals(job.getJobId(), planJobService.submit(null, USER).getJobId());
+    }
+
+    @Test
+    public void testCancel_onlyOwnerAndInterruptsJob() throws Exception {
+        planJobService = new PlanJobService(travelPlannerService, sseService, 1, 1, 60, 600);
+        PlanJobResponse job = planJobService.submit(null, USER);
+        awaitStatus(job.getJobId(), USER, PlanJobStatus.RUNNING);
+
+        BusinessException get = assertThrows(BusinessException.class,
+                () -> planJobService.get(job.getJobId(), OTHER_USER));
+        BusinessException cancel = assertThrows(BusinessException.class,
+                () -> planJobService.cancel(job.getJobId(), OTHER_USER));
+        assertSame(GlobalErrorCode.FORBIDDEN, get.getBaseErrorCode());
+        assertSame(GlobalErrorCode.FORBIDDEN, cancel.getBaseErrorCode());
+
+        assertEquals(PlanJobStatus.CANCELLED, planJobService.cancel(job.getJobId(), USER).getStatus());
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        // 취소 후 interrupt로 끝난 파이프라인이 FAILED로 덮어쓰지 않음
+        assertEquals(PlanJobStatus.CANCELLED, planJobService.get(job.getJobId(), USER).getStatus());
+    }
+
+    @Test
+    public void testSubmit_purgesFinishedJobsAfterRetention() throws Exception {
+        planJobService = new PlanJobService(travelPlannerService, sseService, 1, 1, 60, 0);
+        release.countDown();
+        PlanJobResponse finished = planJobService.submit(null, USER);
+        awaitStatus(finished.getJobId(), USER, PlanJobStatus.SUCCEEDED);
+        Thread.sleep(5);
+
+        // 다음 등록 때 retention(0초)이 지난 작업 정리
+        planJobService.submit(null, OTHER_USER);
+
+        BusinessException e = assertThrows(BusinessException.class,
+                () -> planJobService.get(finished.getJobId(), USER));
+        assertSame(GlobalErrorCode.NOT_FOUND, e.getBaseErrorCode());
+    }
+
+    private PlanJobResponse awaitStatus(String jobId, Long userId, PlanJobStatus status) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        PlanJobResponse response = planJobService.get(jobId, userId);
+        while (response.getStatus() != status && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            response = planJobService.get(jobId, userId);
+        }
+        assertEquals(status, response.getStatus());
+        return response;
+    }
+}
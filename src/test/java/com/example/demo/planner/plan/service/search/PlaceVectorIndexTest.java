@@ -0,0 +1,179 @@
+package com.example.demo.planner.plan.service.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.demo.planner.plan.dao.PlanDao;
+import com.example.demo.planner.plan.dto.TravelPlaceCandidate;
+import com.example.demo.planner.plan.dto.entity.PlaceVectorRow;
+import com.example.demo.planner.plan.dto.entity.TravelPlaces;
+
+/**
+ * PlaceVectorIndex 적재/증분 갱신과 PlaceVectorSearchService 분기
+ * - 두 번째 갱신(기존 id 변경 + 신규 id)은 기존 위치를 덮어쓰고 신규만 뒤에 추가
+ * - 다음 조회 워터마크는 (updated_at, id) 최대 행 (같은 updated_at이면 id가 큰 쪽)
+ * - top-k는 같은 벡터로 직접 계산한 cosine 순위와 같음 (exact / quantized + 전체 rerank)
+ * - 적재 전에는 pgvector(PlanDao)로 검색
+ */
+public class PlaceVectorIndexTest {
+
+    private static final int N = 50;
+    private static final int DIM = 16;
+    private static final int K = 5;
+    private static final OffsetDateTime T0 = OffsetDateTime.of(2026, 5, 1, 9, 0, 0, 0, ZoneOffset.ofHours(9));
+
+    private final PlanDao planDao = mock(PlanDao.class);
+
+    // 장소 id → 현재 임베딩 (top-k 기대값 계산용)
+    private final Map<Long, float[]> catalog = new LinkedHashMap<>();
+
+    @Test
+    public void testRefresh_updatedIdKeepsPositionAndWatermarkMoves() {
+        PlaceVectorIndex index = index(false);
+        Random random = new Random(42);
+
+        // 1차: id 1..N, updated_at은 id 순서대로 1초씩
+        List<PlaceVectorRow> first = new ArrayList<>();
+        for (long id = 1; id <= N; id++) {
+            first.add(row(id, randomVector(random), T0.plusSeconds(id)));
+        }
+        when(planDao.selectPlaceVectorsUpdatedAfter(null, null)).thenReturn(first);
+        index.refresh();
+
+        assertTrue(index.isReady());
+        assertEquals(N, index.size());
+
+        // 2차: 기존 id 7 변경 + 신규 id 900, 901 (같은 updated_at → id가 큰 901이 워터마크)
+        OffsetDateTime t1 = T0.plusSeconds(N + 10);
+        float[] moved = randomVector(random);
+        List<PlaceVectorRow> second = List.of(
+                row(7L, moved, t1),
+                row(900L, randomVector(random), t1),
+                row(901L, randomVector(random), t1));
+        when(planDao.selectPlaceVectorsUpdatedAfter(T0.plusSeconds(N), (long) N)).thenReturn(second);
+        index.refresh();
+
+        assertEquals(N + 2, index.size());
+        List<TravelPlaceCandidate> top = index.search(moved, 1, PlaceVectorIndex.PlaceFilter.NONE);
+        assertEquals(7L, top.get(0).getId());
+        assertEquals(1.0, top.get(0).getScore(), 1e-5);
+        assertSame(second.get(0).getPlace(), top.get(0).getTravelPlaces());
+
+        // 3차: (t1, 901) 이후 변경 없음 → 스냅샷 그대로
+        when(planDao.selectPlaceVectorsUpdatedAfter(t1, 901L)).thenReturn(List.of());
+        index.refresh();
+        verify(planDao).selectPlaceVectorsUpdatedAfter(t1, 901L);
+        assertEquals(N + 2, index.size());
+
+        assertTopK(index, new Random(7));
+    }
+
+    @Test
+    public void testRefresh_quantizedWithFullRerankMatchesExact() {
+        PlaceVectorIndex index = index(true);
+        Random random = new Random(42);
+
+        List<PlaceVectorRow> first = new ArrayList<>();
+        for (long id = 1; id <= N; id++) {
+            first.add(row(id, randomVector(random), T0.plusSeconds(id)));
+        }
+        when(planDao.selectPlaceVectorsUpdatedAfter(null, null)).thenReturn(first);
+        index.refresh();
+
+        List<PlaceVectorRow> second = List.of(
+                row(3L, randomVector(random), T0.plusSeconds(N + 1)),
+                row(500L, randomVector(random), T0.plusSeconds(N + 2)));
+        when(planDao.selectPlaceVectorsUpdatedAfter(T0.plusSeconds(N), (long) N)).thenReturn(second);
+        index.refresh();
+
+        assertEquals(N + 1, index.size());
+        assertTopK(index, new Random(7));
+    }
+
+    @Test
+    public void testSearchService_fallsBackToPgvectorUntilIndexReady() {
+        PlaceVectorIndex index = index(false);
+        PlaceVectorSearchService service = new PlaceVectorSearchService(planDao, index);
+        float[] query = randomVector(new Random(1));
+        List<TravelPlaceCandidate> fromDb = List.of(new TravelPlaceCandidate());
+        when(planDao.searchByVector(query, K)).thenReturn(fromDb);
+
+        // 적재 전 → pgvector
+        assertFalse(service.useIndex());
+        assertSame(fromDb, service.searchByVector(query, K));
+
+        // 적재 후 → 인덱스 (DB 검색 호출 없음)
+        when(planDao.selectPlaceVectorsUpdatedAfter(null, null))
+                .thenReturn(List.of(row(1L, query, T0), row(2L, randomVector(new Random(2)), T0)));
+        index.refresh();
+        PlanDao readyDao = mock(PlanDao.class);
+        PlaceVectorSearchService ready = new PlaceVectorSearchService(readyDao, index);
+
+        assertTrue(ready.useIndex());
+        assertEquals(1L, ready.searchByVector(query, K).get(0).getId());
+        verify(readyDao, never()).searchByVector(query, K);
+    }
+
+    private PlaceVectorIndex index(boolean quantized) {
+        // rerank ≥ 전체 개수 → quantized도 exact와 같은 결과
+        return new PlaceVectorIndex(planDao, true, 300, quantized, 8, 1000);
+    }
+
+    private PlaceVectorRow row(long id, float[] embedding, OffsetDateTime updatedAt) {
+        catalog.put(id, embedding);
+        TravelPlaces place = TravelPlaces.builder()
+                .id(id).title("place-" + id).normalizedCategory("SPOT").updatedAt(updatedAt).build();
+        return new PlaceVectorRow(place, embedding);
+    }
+
+    private static float[] randomVector(Random random) {
+        float[] v = new float[DIM];
+        for (int d = 0; d < DIM; d++) {
+            v[d] = (float) random.nextGaussian();
+        }
+        return v;
+    }
+
+    // 무작위 쿼리마다 인덱스 top-k id 순서 == 현재 카탈로그로 직접 계산한 cosine 순위
+    private void assertTopK(PlaceVectorIndex index, Random random) {
+        for (int q = 0; q < 10; q++) {
+            float[] query = randomVector(random);
+            List<Long> expected = catalog.entrySet().stream()
+                    .sorted(Comparator.comparingDouble(e -> -cosine(query, e.getValue())))
+                    .limit(K)
+                    .map(Map.Entry::getKey)
+                    .toList();
+            List<Long> actual = index.search(query, K, PlaceVectorIndex.PlaceFilter.NONE).stream()
+                    .map(TravelPlaceCandidate::getId)
+                    .toList();
+            assertEquals(expected, actual, "query " + q);
+        }
+    }
+
+    private static double cosine(float[] a, float[] b) {
+        double dot = 0, na = 0, nb = 0;
+        for (int d = 0; d < a.length; d++) {
+            dot += a[d] * b[d];
+            na += a[d] * a[d];
+            nb += b[d] * b[d];
+        }
+        return dot / Math.sqrt(na * nb);
+    }
+}
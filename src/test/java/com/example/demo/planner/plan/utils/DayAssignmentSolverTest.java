@@ -0,0 +1,178 @@
+package com.example.demo.planner.plan.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * DayAssignmentSolver 작은 입력
+ * - 장소는 최대 한 날짜에만, 날짜별 maxPlaces / maxFood 이하
+ * - 채울 수 있으면 날짜별 최소 요구량을 모두 채움
+ * - 요구량을 다 채울 수 없는 입력(infeasible)도 예외 없이 가능한 만큼 배정
+ * - 소속(home)이 주어지면 남는 칸과 OPTIONAL은 그 날짜 소속 장소로만 채움
+ */
+public class DayAssignmentSolverTest {
+
+    private static final int S = DayAssignmentSolver.SPOT;
+    private static final int F = DayAssignmentSolver.FOOD;
+    private static final int O = DayAssignmentSolver.OPTIONAL;
+
+    // 1일차 종로(경복궁 부근), 2일차 강남(코엑스 부근)
+    private static final double JONGNO_LAT = 37.5796;
+    private static final double JONGNO_LNG = 126.9770;
+    private static final double GANGNAM_LAT = 37.5115;
+    private static final double GANGNAM_LNG = 127.0595;
+
+    @Test
+    public void testSolve_meetsMinimumsWithoutDuplicates() {
+        // 종로 쪽 4곳, 강남 쪽 4곳
+        double[] lat = { 37.5796, 37.5826, 37.5704, 37.5740, 37.5115, 37.5088, 37.5172, 37.5045 };
+        double[] lng = { 126.9770, 126.9831, 126.9910, 126.9850, 127.0595, 127.0631, 127.0473, 127.0490 };
+        int[] category = { S, S, F, O, S, S, F, F };
+        List<DayAssignmentSolver.Day> days = List.of(
+                new DayAssignmentSolver.Day(JONGNO_LAT, JONGNO_LNG, 2, 1, 2, 0, 4),
+                new DayAssignmentSolver.Day(GANGNAM_LAT, GANGNAM_LNG, 2, 1, 2, 0, 4));
+
+        int[] assignment = DayAssignmentSolver.solve(lat, lng, category, days);
+
+        assertValid(assignment, category, days);
+        assertMinimumsMet(assignment, category, days);
+        // 용량이 충분하므로 모두 가까운 날짜로
+        for (int i = 0; i < 4; i++) {
+            assertEquals(0, assignment[i], "place " + i);
+            assertEquals(1, assignment[i + 4], "place " + (i + 4));
+        }
+    }
+
+    @Test
+    public void testSolve_minimumBeatsDistance() {
+        // 식당이 모두 종로 쪽이어도 강남 날짜의 minFood 1은 채움
+        double[] lat = { 37.5796, 37.5826, 37.5704, 37.5115, 37.5088 };
+        double[] lng = { 126.9770, 126.9831, 126.9910, 127.0595, 127.0631 };
+        int[] category = { F, F, S, S, S };
+        List<DayAssignmentSolver.Day> days = List.of(
+                new DayAssignmentSolver.Day(JONGNO_LAT, JONGNO_LNG, 1, 1, 1, 0, 3),
+                new DayAssignmentSolver.Day(GANGNAM_LAT, GANGNAM_LNG, 1, 1, 1, 0, 3));
+
+        int[] assignment = DayAssignmentSolver.solve(lat, lng, category, days);
+
+        assertValid(assignment, category, days);
+        assertMinimumsMet(assignment, category, days);
+        assertEquals(2, count(assignment, category, 1, F) + count(assignment, category, 0, F));
+    }
+
+    @Test
+    public void testSolve_respectsMaxFoodAndMaxPlaces() {
+        double[] lat = { 37.5796, 37.5800, 37.5805, 37.5810, 37.5815, 37.5820 };
+        double[] lng = { 126.9770, 126.9775, 126.9780, 126.9785, 126.9790, 126.9795 };
+        int[] category = { F, F, F, F, S, S };
+        List<DayAssignmentSolver.Day> days = List.of(
+                new DayAssignmentSolver.Day(JONGNO_LAT, JONGNO_LNG, 1, 1, 1, 0, 3));
+
+        int[] assignment = DayAssignmentSolver.solve(lat, lng, category, days);
+
+        assertValid(assignment, category, days);
+        assertEquals(1, count(assignment, category, 0, F));
+        assertEquals(3, count(assignment, category, 0, S) + count(assignment, category, 0, F));
+    }
+
+    @Test
+    public void testSolve_infeasibleMinimums_assignsWhatItCan() {
+        // 2일 × minSpot 2 = 4곳 필요하지만 관광지는 3곳, 식당 없음
+        double[] lat = { 37.5796, 37.5826, 37.5115, 37.5704 };
+        double[] lng = { 126.9770, 126.9831, 127.0595, 126.9910 };
+        int[] category = { S, S, S, -1 };
+        List<DayAssignmentSolver.Day> days = List.of(
+                new DayAssignmentSolver.Day(JONGNO_LAT, JONGNO_LNG, 2, 1, 2, 0, 4),
+                new DayAssignmentSolver.Day(GANGNAM_LAT, GANGNAM_LNG, 2, 1, 2, 0, 4));
+
+        int[] assignment = DayAssignmentSolver.solve(lat, lng, category, days);
+
+        assertValid(assignment, category, days);
+        // 분류 없는 장소는 제외, 관광지는 모두 배정
+        assertEquals(-1, assignment[3]);
+        assertEquals(3, count(assignment, category, 0, S) + count(assignment, category, 1, S));
+        // 한 날짜는 요구량 충족, 다른 날짜는 1곳 (최소 요구량이 우선이라 2 + 1)
+        int day0 = count(assignment, category, 0, S);
+        int day1 = count(assignment, category, 1, S);
+        assertEquals(2, Math.max(day0, day1));
+        assertEquals(1, Math.min(day0, day1));
+    }
+
+    @Test
+    public void testSolve_spareSlotsOnlyFromOwnCluster() {
+        double[] lat = { 37.5796, 37.5826, 37.5088, 37.5115, 37.5172, 37.5045, 37.5770 };
+        double[] lng = { 126.9770, 126.9831, 127.0631, 127.0595, 127.0473, 127.0490, 126.9800 };
+        int[] category = { S, S, F, S, S, S, O };
+        // 0, 1: 종로 클러스터 / 2: 강남 전역 식당 / 3, 4: 강남 클러스터 / 5: 강남 전역 관광지 / 6: 종로 근처 전역 선택 장소
+        int[] home = { 0, 0, -1, 1, 1, -1, -1 };
+        List<DayAssignmentSolver.Day> days = List.of(
+                new DayAssignmentSolver.Day(JONGNO_LAT, JONGNO_LNG, 1, 1, 1, 0, 4),
+                new DayAssignmentSolver.Day(GANGNAM_LAT, GANGNAM_LNG, 1, 0, 0, 0, 1));
+
+        int[] assignment = DayAssignmentSolver.solve(lat, lng, category, home, days);
+
+        assertValid(assignment, category, days);
+        assertMinimumsMet(assignment, category, days);
+        // 종로 날짜: 소속 관광지 2곳 + 최소 요구량용 전역 식당 (멀어도 minFood를 채울 다른 식당이 없음)
+        assertEquals(0, assignment[0]);
+        assertEquals(0, assignment[1]);
+        assertEquals(0, assignment[2]);
+        // 종로 날짜에 빈 칸이 남아도 다른 클러스터 / 전역 후보로는 채우지 않음
+        // (강남 날짜는 maxPlaces 1이라 소속 관광지 하나는 남음)
+        assertEquals(3, count(assignment, category, 0, S) + count(assignment, category, 0, F)
+                + count(assignment, category, 0, O));
+        assertEquals(1, Math.max(assignment[3], assignment[4]));
+        assertEquals(-1, Math.min(assignment[3], assignment[4]));
+        assertEquals(-1, assignment[5]);
+        assertEquals(-1, assignment[6]);
+
+        // 소속 제한이 없으면 같은 빈 칸을 먼 후보가 채움
+        int[] unrestricted = DayAssignmentSolver.solve(lat, lng, category, days);
+        assertEquals(4, count(unrestricted, category, 0, S) + count(unrestricted, category, 0, F)
+                + count(unrestricted, category, 0, O));
+    }
+
+    // 배정 날짜 범위, 분류 제외, 날짜별 maxPlaces / maxFood
+    private static void assertValid(int[] assignment, int[] category, List<DayAssignmentSolver.Day> days) {
+        assertEquals(category.length, assignment.length);
+        int[] perDay = new int[days.size()];
+        for (int i = 0; i < assignment.length; i++) {
+            int d = assignment[i];
+            assertTrue(d >= -1 && d < days.size(), "place " + i + " → " + d);
+            if (category[i] < 0) {
+                assertEquals(-1, d, "place " + i);
+            }
+            if (d >= 0) {
+                perDay[d]++;
+            }
+        }
+        for (int d = 0; d < days.size(); d++) {
+            DayAssignmentSolver.Day day = days.get(d);
+            assertTrue(perDay[d] <= day.maxPlaces(), "day " + d + " places " + perDay[d]);
+            assertTrue(count(assignment, category, d, F) <= Math.max(day.minFood(), day.maxFood()), "day " + d + " food");
+        }
+    }
+
+    private static void assertMinimumsMet(int[] assignment, int[] category, List<DayAssignmentSolver.Day> days) {
+        for (int d = 0; d < days.size(); d++) {
+            DayAssignmentSolver.Day day = days.get(d);
+            assertTrue(count(assignment, category, d, S) >= day.minSpot(), "day " + d + " spot");
+            assertTrue(count(assignment, category, d, F) >= day.minFood(), "day " + d + " food");
+            assertTrue(count(assignment, category, d, O) >= day.minOptional(), "day " + d + " optional");
+        }
+    }
+
+    private static int count(int[] assignment, int[] category, int day, int c) {
+        int n = 0;
+        for (int i = 0; i < assignment.length; i++) {
+            if (assignment[i] == day && category[i] == c) {
+                n++;
+            }
+        }
+        return n;
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.demo.planner.plan.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+
+/**
+ * JsonPatch diff → apply 왕복
+ * - apply(from, diff(from, to)) == to
+ * - from은 적용 후에도 바뀌지 않아야 함 (deepCopy에 적용)
+ */
+public class JsonPatchTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void testSame_emptyPatch() throws Exception {
+        JsonNode node = json("{'a':1,'b':[1,2,{'c':'x'}]}");
+        assertEquals(0, JsonPatch.diff(node, node.deepCopy()).size());
+    }
+
+    @Test
+    public void testObject_addRemoveReplace() throws Exception {
+        ArrayNode patch = assertRoundTrip(
+                "{'title':'서울','budget':0,'memo':'삭제'}",
+                "{'title':'서울 여행','budget':0,'endDate':'2025-12-12'}");
+        assertEquals(3, patch.size());
+        assertOps(patch, "remove", "replace", "add");
+    }
+
+    @Test
+    public void testNestedObject() throws Exception {
+        ArrayNode patch = assertRoundTrip(
+                "{'days':[{'date':'2025-12-10','schedules':[{'title':'경복궁','lat':37.5796,'cost':{'won':3000}}]}]}",
+                "{'days':[{'date':'2025-12-10','schedules':[{'title':'경복궁','lat':37.5796,'cost':{'won':0,'free':true}}]}]}");
+        assertEquals("/days/0/schedules/0/cost/won", patch.get(0).get("path").asText());
+        assertEquals("/days/0/schedules/0/cost/free", patch.get(1).get("path").asText());
+    }
+
+    @Test
+    public void testArray_insertInMiddle_singleAdd() throws Exception {
+        ArrayNode patch = assertRoundTrip(
+                "['경복궁','북촌','인사동','광장시장']",
+                "['경복궁','북촌','창덕궁','인사동','광장시장']");
+        assertEquals(1, patch.size());
+        assertOps(patch, "add");
+        assertEquals("/2", patch.get(0).get("path").asText());
+    }
+
+    @Test
+    public void testArray_removeInMiddle_singleRemove() throws Exception {
+        ArrayNode patch = assertRoundTrip(
+                "['경복궁','북촌','인사동','광장시장']",
+                "['경복궁','인사동','광장시장']");
+        assertEquals(1, patch.size());
+        assertOps(patch, "remove");
+    }
+
+    @Test
+    public void testArray_reorder() throws Exception {
+        assertRoundTrip("[1,2,3,4,5]", "[5,4,3,2,1]");
+        assertRoundTrip("[1,2,3,4,5]", "[2,3,4,5,1]");
+        assertRoundTrip(
+                "[{'id':1,'t':'a'},{'id':2,'t':'b'},{'id':3,'t':'c'}]",
+                "[{'id':3,'t':'c'},{'id':1,'t':'a'},{'id':2,'t':'b'}]");
+    }
+
+    @Test
+    public void testArray_growShrinkAndEmpty() throws Exception {
+        assertRoundTrip("[]", "[1,2,3]");
+        assertRoundTrip("[1,2,3]", "[]");
+        assertRoundTrip("[1,2,3]", "[9,2,8,7,3]");
+        assertRoundTrip("[[1,2],[3]]", "[[1],[3,4],[5]]");
+    }
+
+    @Test
+    public void testTypeChange_andRoot() throws Exception {
+        assertRoundTrip("{'a':[1,2]}", "{'a':{'b':1}}");
+        assertRoundTrip("{'a':null}", "{'a':'x'}");
+        assertRoundTrip("{'a':1}", "[1]");
+    }
+
+    @Test
+    public void testEscapedKeys() throws Exception {
+        assertRoundTrip("{'a/b':1,'c~d':{'e':1}}", "{'a/b':2,'c~d':{'e':2}}");
+    }
+
+    private ArrayNode assertRoundTrip(String from, String to) throws Exception {
+        JsonNode fromNode = json(from);
+        JsonNode toNode = json(to);
+        JsonNode original = fromNode.deepCopy();
+
+        ArrayNode patch = JsonPatch.diff(fromNode, toNode);
+        JsonNode applied = JsonPatch.apply(fromNode.deepCopy(), patch);
+
+        assertEquals(toNode, applied, "patch=" + patch);
+        assertEquals(original, fromNode);
+        return patch;
+    }
+
+    private static void assertOps(ArrayNode patch, String... ops) {
+        for (int i = 0; i < ops.length; i++) {
+            assertEquals(ops[i], patch.get(i).get("op").asText(), "patch=" + patch);
+        }
+    }
+
+    private JsonNode json(String text) throws Exception {
+        return objectMapper.readTree(text.replace('\'', '"'));
+    }
+}
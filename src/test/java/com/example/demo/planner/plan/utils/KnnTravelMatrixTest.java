@@ -0,0 +1,127 @@
+package com.example.demo.planner.plan.utils;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * KnnTravelMatrix 파일 저장/적재와 증분 갱신
+ * - build → load: 같은 이웃/거리
+ * - update(좌표 이동 + 신규 장소) 결과는 같은 입력으로 전체 계산한 결과와 같음
+ * - 좌표 변경이 없으면 재계산 없이 워터마크(maxUpdatedAt, maxUpdatedId)만 반영
+ */
+public class KnnTravelMatrixTest {
+
+    private static final int N = 200;
+    private static final int K = 8;
+
+    @TempDir
+    Path dir;
+
+    private long[] ids;
+    private double[] lat;
+    private double[] lng;
+
+    // 서울 시내 범위 무작위 좌표 (seed 고정), id는 순서와 다르게 섞어서 정렬도 확인
+    private void seoulPlaces() {
+        Random random = new Random(42);
+        ids = new long[N];
+        lat = new double[N];
+        lng = new double[N];
+        for (int i = 0; i < N; i++) {
+            ids[i] = 1000 + (i * 37L) % N;
+            lat[i] = 37.45 + random.nextDouble() * 0.2;
+            lng[i] = 126.85 + random.nextDouble() * 0.3;
+        }
+    }
+
+    @Test
+    public void testLoad_sameNeighborsAsBuild() throws Exception {
+        seoulPlaces();
+        Path file = dir.resolve("matrix.bin");
+        KnnTravelMatrix built = KnnTravelMatrix.build(ids, lat, lng, K, 100L, 0L, file);
+
+        KnnTravelMatrix loaded = KnnTravelMatrix.load(file);
+
+        assertEquals(N, loaded.size());
+        assertEquals(K, loaded.k());
+        assertEquals(100L, loaded.maxUpdatedAt());
+        assertEquals(0L, loaded.maxUpdatedId());
+        assertSameMatrix(built, loaded, ids);
+    }
+
+    @Test
+    public void testUpdate_matchesFullRebuild() throws Exception {
+        seoulPlaces();
+        KnnTravelMatrix matrix = KnnTravelMatrix.build(ids, lat, lng, K, 100L, 0L, dir.resolve("matrix.bin"));
+
+        // 한 곳 이동 + 한 곳 추가 (전체의 5% 미만 → 증분 경로)
+        long movedId = ids[10];
+        long addedId = 5000L;
+        long[] updIds = { movedId, addedId };
+        double[] updLat = { lat[20] + 0.001, lat[30] - 0.001 };
+        double[] updLng = { lng[20] + 0.001, lng[30] - 0.001 };
+        KnnTravelMatrix updated = matrix.update(updIds, updLat, updLng, 200L, 5000L, dir.resolve("matrix.bin"));
+
+        long[] allIds = Arrays.copyOf(ids, N + 1);
+        double[] allLat = Arrays.copyOf(lat, N + 1);
+        double[] allLng = Arrays.copyOf(lng, N + 1);
+        allLat[10] = updLat[0];
+        allLng[10] = updLng[0];
+        allIds[N] = addedId;
+        allLat[N] = updLat[1];
+        allLng[N] = updLng[1];
+        KnnTravelMatrix rebuilt = KnnTravelMatrix.build(allIds, allLat, allLng, K, 200L, 5000L, dir.resolve("rebuilt.bin"));
+
+        assertEquals(N + 1, updated.size());
+        assertEquals(200L, updated.maxUpdatedAt());
+        assertSameMatrix(rebuilt, updated, allIds);
+        assertSameMatrix(rebuilt, KnnTravelMatrix.load(dir.resolve("matrix.bin")), allIds);
+    }
+
+    @Test
+    public void testUpdate_unchangedCoordinatesOnlyMovesWatermark() throws Exception {
+        seoulPlaces();
+        Path file = dir.resolve("matrix.bin");
+        KnnTravelMatrix matrix = KnnTravelMatrix.build(ids, lat, lng, K, 100L, 0L, file);
+        long[] updIds = { ids[3], ids[4] };
+        double[] updLat = { lat[3], lat[4] };
+        double[] updLng = { lng[3], lng[4] };
+
+        // 워터마크가 그대로면 this
+        assertSame(matrix, matrix.update(updIds, updLat, updLng, 100L, 0L, file));
+
+        // 같은 updated_at이라도 id가 크면 워터마크 이동
+        KnnTravelMatrix sameTime = matrix.update(updIds, updLat, updLng, 100L, ids[4], file);
+        assertEquals(100L, sameTime.maxUpdatedAt());
+        assertEquals(ids[4], sameTime.maxUpdatedId());
+
+        KnnTravelMatrix updated = sameTime.update(updIds, updLat, updLng, 300L, ids[3], file);
+        assertEquals(300L, updated.maxUpdatedAt());
+        assertEquals(ids[3], updated.maxUpdatedId());
+        assertSameMatrix(matrix, updated, ids);
+
+        KnnTravelMatrix loaded = KnnTravelMatrix.load(file);
+        assertEquals(300L, loaded.maxUpdatedAt());
+        assertEquals(ids[3], loaded.maxUpdatedId());
+        assertSameMatrix(matrix, loaded, ids);
+    }
+
+    private static void assertSameMatrix(KnnTravelMatrix expected, KnnTravelMatrix actual, long[] ids) {
+        for (long id : ids) {
+            long[] neighbors = expected.neighborIds(id);
+            assertArrayEquals(neighbors, actual.neighborIds(id), "neighbors of " + id);
+            for (long nb : neighbors) {
+                assertEquals(expected.distanceKm(id, nb), actual.distanceKm(id, nb), 1e-9);
+                assertEquals(expected.travelMinutes(id, nb), actual.travelMinutes(id, nb));
+            }
+        }
+    }
+}
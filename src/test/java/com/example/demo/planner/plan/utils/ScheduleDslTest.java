@@ -0,0 +1,303 @@
+package com.example.demo.planner.plan.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.demo.planner.plan.agent.PlanSchedulerAgent;
+import com.example.demo.planner.plan.dto.ClusterPlace;
+import com.example.demo.planner.plan.dto.TravelPlaceCandidate;
+import com.example.demo.planner.plan.dto.entity.TravelPlaces;
+import com.example.demo.planner.plan.dto.response.DayPlanResult;
+import com.example.demo.planner.plan.dto.response.PlanScheduleResult;
+import com.example.demo.planner.plan.metrics.PlanStageMetrics;
+import com.example.demo.planner.plan.service.create.DayRouteOptimizerService;
+import com.example.demo.planner.plan.service.create.LocalScheduleService;
+import com.example.demo.planner.plan.service.create.PlanDeadline;
+import com.example.demo.planner.plan.service.create.PlanScheduleService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * ScheduleDsl 파서
+ * - 조각 경계가 줄 중간에 걸려도 한 번에 받은 것과 같은 결과
+ * - 형식 오류 / 모르는 id / 중복은 버리고, 빠진 장소는 보정으로 채움
+ * - 마지막 줄은 개행이 없어도 finish에서 해석
+ * - onDay: 다음 날짜 줄이 나오면 앞 날짜를 바로 넘김
+ * - PlanScheduleService: 기본 비율(0.8)이면 한 줄 빠진 응답도 보정해서 사용, 1.0(엄격 모드)이면 거부
+ */
+public class ScheduleDslTest {
+
+    private static final String RESPONSE = String.join("\n",
+            "d1|11|10:00|11:30",
+            "d1|12|12:00|13:00",
+            "d2|21|10:00|11:00",
+            "d2|22|11:30|13:00");
+
+    // 1일차 경복궁/북촌, 2일차 남산타워/명동
+    private final List<DayPlanResult> dayPlans = List.of(
+            day(1, place(11L, "경복궁", 37.5796, 126.9770), place(12L, "북촌한옥마을", 37.5826, 126.9831)),
+            day(2, place(21L, "N서울타워", 37.5512, 126.9882), place(22L, "명동", 37.5636, 126.9869)));
+
+    @Test
+    public void testParse_allLines() {
+        ScheduleDsl.Result result = ScheduleDsl.parse(RESPONSE + "\n", input());
+
+        assertEquals(4, result.places());
+        assertEquals(4, result.parsed());
+        assertEquals(0, result.dropped());
+        assertEquals(0, result.repaired());
+        assertEquals("1[11 10:00-11:30, 12 12:00-13:00] 2[21 10:00-11:00, 22 11:30-13:00]",
+                describe(result.schedule()));
+    }
+
+    @Test
+    public void testFeed_chunkBoundariesSplitLines() {
+        String expected = describe(ScheduleDsl.parse(RESPONSE, input()).schedule());
+
+        // 한 글자씩, 그리고 여러 조각 크기로 나눠 넣어도 같은 결과
+        for (int size = 1; size <= 7; size++) {
+            ScheduleDsl.Parser parser = new ScheduleDsl.Parser(input());
+            for (int i = 0; i < RESPONSE.length(); i += size) {
+                parser.feed(RESPONSE.substring(i, Math.min(RESPONSE.length(), i + size)));
+            }
+            ScheduleDsl.Result result = parser.finish();
+            assertEquals(expected, describe(result.schedule()), "chunk " + size);
+            assertEquals(4, result.parsed(), "chunk " + size);
+        }
+
+        // \r\n 이 조각 사이에서 갈라져도 같은 결과
+        ScheduleDsl.Parser parser = new ScheduleDsl.Parser(input());
+        parser.feed("d1|11|10:00|11:30\r");
+        parser.feed("\nd1|12|12:0");
+        parser.feed("0|13:00\r\nd2|21|10:00|11:00\r\nd2|22|11:30|13:00\r\n");
+        assertEquals(expected, describe(parser.finish().schedule()));
+    }
+
+    @Test
+    public void testParse_missingTrailingNewline() {
+        ScheduleDsl.Parser parser = new ScheduleDsl.Parser(input());
+        parser.feed(RESPONSE);
+        ScheduleDsl.Result result = parser.finish();
+
+        assertEquals(4, result.parsed());
+        assertEquals("1[11 10:00-11:30, 12 12:00-13:00] 2[21 10:00-11:00, 22 11:30-13:00]",
+                describe(result.schedule()));
+    }
+
+    @Test
+    public void testParse_malformedLinesDropped() {
+        String text = String.join("\n",
+                "```",
+                "일정입니다",
+                "d1|11|10:00|11:30",
+                "d1|12|12:00",             // 종료 시각 없음
+                "d1|12|25:00|26:00",       // 시각 범위 밖
+                "d1|12|12:00|13:00|extra", // 뒤에 다른 필드
+                "dx|12|12:00|13:00",       // 날짜 숫자 없음
+                "d2|21|10:00|11:00",
+                "d2|22|11:30|13:00",
+                "```");
+
+        ScheduleDsl.Result result = ScheduleDsl.parse(text, input());
+
+        assertEquals(3, result.parsed());
+        assertEquals(5, result.dropped());
+        // 12는 줄이 모두 버려져서 11 뒤에 이동시간 + 중간값 체류로 보정
+        PlanScheduleResult.Day day1 = result.schedule().getDays().get(0);
+        assertEquals(List.of(11L, 12L), day1.getItems().stream().map(PlanScheduleResult.Item::getId).toList());
+        assertEquals(1, result.repaired());
+    }
+
+    @Test
+    public void testParse_unknownAndDuplicateIdsDropped() {
+        String text = String.join("\n",
+                "d1|11|10:00|11:30",
+                "d1|99|11:00|12:00",       // 입력에 없는 id
+                "d1|11|14:00|15:00",       // 이미 나온 id
+                "d1|12|12:00|13:00",
+                "d2|21|10:00|11:00",
+                "d2|22|11:30|13:00");
+
+        ScheduleDsl.Result result = ScheduleDsl.parse(text, input());
+
+        assertEquals(4, result.parsed());
+        assertEquals(2, result.dropped());
+        assertEquals("1[11 10:00-11:30, 12 12:00-13:00] 2[21 10:00-11:00, 22 11:30-13:00]",
+                describe(result.schedule()));
+    }
+
+    @Test
+    public void testParse_wrongDayMovedBackToInputDay() {
+        String text = String.join("\n",
+                "d1|11|10:00|11:30",
+                "d1|12|12:00|13:00",
+                "d1|21|14:00|15:00",       // 2일차 장소를 1일차에 적음
+                "d2|22|11:30|13:00");
+
+        ScheduleDsl.Result result = ScheduleDsl.parse(text, input());
+
+        assertEquals(4, result.parsed());
+        assertEquals(List.of(21L, 22L), result.schedule().getDays().get(1).getItems().stream()
+                .map(PlanScheduleResult.Item::getId).toList());
+    }
+
+    @Test
+    public void testStreaming_emitsDayWhenNextDayStarts() {
+        List<String> emitted = new ArrayList<>();
+        ScheduleDsl.Parser parser = new ScheduleDsl.Parser(input(),
+                done -> emitted.add(done.day().getDayIndex() + ":" + done.parsed() + "/" + done.places()));
+
+        parser.feed("d1|11|10:00|11:30\nd1|12|12:00|13:00\n");
+        assertEquals(List.of(), emitted);
+
+        parser.feed("d2|21|10:00|11:00\n");
+        assertEquals(List.of("1:2/2"), emitted);
+
+        // 이미 넘긴 1일차 id가 뒤늦게 나오면 버림
+        parser.feed("d1|12|16:00|17:00\nd2|22|11:30|13:00");
+        ScheduleDsl.Result result = parser.finish();
+
+        assertEquals(List.of("1:2/2", "2:2/2"), emitted);
+        assertEquals(1, result.dropped());
+        assertEquals("1[11 10:00-11:30, 12 12:00-13:00] 2[21 10:00-11:00, 22 11:30-13:00]",
+                describe(result.schedule()));
+    }
+
+    @Test
+    public void testStreaming_lateLineForFinishedDayIsRepairedAsMissing() {
+        List<ScheduleDsl.DayResult> emitted = new ArrayList<>();
+        ScheduleDsl.Parser parser = new ScheduleDsl.Parser(input(), emitted::add);
+
+        parser.feed("d1|11|10:00|11:30\nd2|21|10:00|11:00\nd1|12|12:00|13:00\nd2|22|11:30|13:00\n");
+        ScheduleDsl.Result result = parser.finish();
+
+        assertEquals(1, emitted.get(0).parsed());
+        assertEquals(2, emitted.get(0).places());
+        assertEquals(3, result.parsed());
+        assertEquals(1, result.dropped());
+        assertEquals(List.of(11L, 12L), result.schedule().getDays().get(0).getItems().stream()
+                .map(PlanScheduleResult.Item::getId).toList());
+    }
+
+    @Test
+    public void testScheduleService_oneMissingLineRepairedWithDefaultRatio() {
+        List<DayPlanResult> fiveSpots = fiveSpots();
+        PlanSchedulerAgent agent = agentReplying(String.join("\n",
+                "d1|31|10:00|11:00",
+                "d1|32|11:30|12:30",
+                "d1|33|13:30|14:30",
+                "d1|35|16:30|17:30"));  // 34 빠짐
+        LocalScheduleService localScheduleService = mock(LocalScheduleService.class);
+        List<PlanScheduleResult.Day> published = new ArrayList<>();
+
+        PlanScheduleResult result = scheduleService(agent, localScheduleService,
+                PlanScheduleService.Mode.LLM_WITH_FALLBACK, 0.8)
+                .schedule(fiveSpots, LocalDate.of(2026, 5, 1), 1, published::add);
+
+        // 4/5 ≥ 0.8 → LLM 결과 사용, 빠진 34는 마지막 장소 뒤에 보정으로 채움 (로컬 배치 대체 없음)
+        assertEquals(List.of(31L, 32L, 33L, 35L, 34L), result.getDays().get(0).getItems().stream()
+                .map(PlanScheduleResult.Item::getId).toList());
+        assertEquals(1, published.size());
+        verifyNoInteractions(localScheduleService);
+    }
+
+    @Test
+    public void testScheduleService_strictRatioRejectsOneMissingLine() {
+        PlanSchedulerAgent agent = agentReplying(String.join("\n",
+                "d1|31|10:00|11:00",
+                "d1|32|11:30|12:30",
+                "d1|33|13:30|14:30",
+                "d1|35|16:30|17:30"));
+        LocalScheduleService localScheduleService = mock(LocalScheduleService.class);
+        PlanScheduleService service = scheduleService(agent, localScheduleService, PlanScheduleService.Mode.LLM, 1.0);
+
+        assertThrows(IllegalStateException.class,
+                () -> service.schedule(fiveSpots(), LocalDate.of(2026, 5, 1), 1, day -> { }));
+        verify(localScheduleService, never()).schedule(anyList(), anyInt());
+    }
+
+    // 응답을 두 조각으로 나눠 스트리밍
+    @SuppressWarnings("unchecked")
+    private static PlanSchedulerAgent agentReplying(String response) {
+        PlanSchedulerAgent agent = mock(PlanSchedulerAgent.class);
+        doAnswer(invocation -> {
+            Consumer<String> onChunk = invocation.getArgument(3);
+            int half = response.length() / 2;
+            onChunk.accept(response.substring(0, half));
+            onChunk.accept(response.substring(half));
+            return null;
+        }).when(agent).streamTravelPlanLines(anyList(), any(LocalDate.class), anyBoolean(), any(Consumer.class));
+        return agent;
+    }
+
+    private static PlanScheduleService scheduleService(PlanSchedulerAgent agent,
+            LocalScheduleService localScheduleService, PlanScheduleService.Mode mode, double minParsedRatio) {
+        PlanStageMetrics metrics = new PlanStageMetrics(new SimpleMeterRegistry());
+        PlanDeadline deadline = new PlanDeadline(metrics, false, 5000, 0.15, 0.15, 0.4);
+        return new PlanScheduleService(agent, localScheduleService, mock(DayRouteOptimizerService.class),
+                metrics, deadline, new ObjectMapper(), mode, 30_000L, false, 1,
+                PlanScheduleService.Format.LINES, minParsedRatio);
+    }
+
+    // 하루 5곳 (광화문 일대)
+    private static List<DayPlanResult> fiveSpots() {
+        return List.of(day(1,
+                place(31L, "경복궁", 37.5796, 126.9770),
+                place(32L, "광화문광장", 37.5725, 126.9769),
+                place(33L, "청계천", 37.5696, 126.9784),
+                place(34L, "덕수궁", 37.5658, 126.9751),
+                place(35L, "서울시립미술관", 37.5640, 126.9738)));
+    }
+
+    private ScheduleDsl.Input input() {
+        return ScheduleDsl.Input.of(dayPlans, 2);
+    }
+
+    private static String describe(PlanScheduleResult schedule) {
+        StringBuilder sb = new StringBuilder();
+        for (PlanScheduleResult.Day day : schedule.getDays()) {
+            if (sb.length() > 0) {
+                sb.append(' ');
+            }
+            sb.append(day.getDayIndex()).append('[');
+            for (int i = 0; i < day.getItems().size(); i++) {
+                PlanScheduleResult.Item item = day.getItems().get(i);
+                sb.append(i == 0 ? "" : ", ")
+                        .append(item.getId()).append(' ').append(item.getStart()).append('-').append(item.getEnd());
+            }
+            sb.append(']');
+        }
+        return sb.toString();
+    }
+
+    private static DayPlanResult day(int dayNumber, ClusterPlace... places) {
+        DayPlanResult day = new DayPlanResult();
+        day.setDayNumber(dayNumber);
+        day.getPlaces().addAll(List.of(places));
+        return day;
+    }
+
+    private static ClusterPlace place(Long id, String title, double lat, double lng) {
+        TravelPlaceCandidate candidate = new TravelPlaceCandidate();
+        candidate.setTravelPlaces(TravelPlaces.builder()
+                .id(id).title(title).lat(lat).lng(lng).normalizedCategory("SPOT").build());
+        return new ClusterPlace(candidate, lat, lng);
+    }
+}